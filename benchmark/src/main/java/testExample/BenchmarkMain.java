@@ -0,0 +1,39 @@
+package testExample;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准入口, 参数与JMH命令行相同 <BR>
+ * 与 org.openjdk.jmh.Main 的区别: 没有指定 -prof 时默认加上GC profiler(分配速率),
+ * 没有指定 -rf/-rff 时结果写入 jmh-result.json, 便于和基线对比 <BR>
+ * mvn package 之后运行: java -jar benchmark/target/benchmarks.jar [regexp] [-p page=news]
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers()
+				|| cmd.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+		if (cmd.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+		if (!cmd.getResultFormat().hasValue() && !cmd.getResult().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON).result("jmh-result.json");
+		}
+		new Runner(options.build()).run();
+	}
+}
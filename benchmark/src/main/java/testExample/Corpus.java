@@ -0,0 +1,138 @@
+package testExample;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+
+/**
+ * 基准测试用的固定语料, 由 test/newsHTML.txt 生成, 不依赖网络 <BR>
+ * news: 原始页面 <BR>
+ * news-long: 正文段落重复4次, 模拟长文章 <BR>
+ * news-nav: 正文前后加上导航链接、脚本、样式和评论区, 模拟门户网站页面
+ *
+ */
+final class Corpus {
+
+	static final String NEWS = "news";
+	static final String NEWS_LONG = "news-long";
+	static final String NEWS_NAV = "news-nav";
+
+	private static final String BASE_URI = "http://www.xinhuanet.com/politics/2019-06/19/c_1124642275.htm";
+
+	private Corpus() {
+	}
+
+	/**
+	 * @param name
+	 *            NEWS, NEWS_LONG 或 NEWS_NAV
+	 * @return 新解析的页面, 调用方可以随意修改
+	 * @throws IOException
+	 */
+	static Document page(String name) throws IOException {
+		Document doc = Jsoup.parse(resource("newsHTML.txt"), BASE_URI);
+		if (NEWS_LONG.equals(name)) {
+			repeatArticle(doc, 4);
+		} else if (NEWS_NAV.equals(name)) {
+			addNavigation(doc, 12, 20);
+		} else if (!NEWS.equals(name)) {
+			throw new IllegalArgumentException("unknown page: " + name);
+		}
+		return doc;
+	}
+
+	/**
+	 * @return test/url_test.txt 中的所有URL
+	 * @throws IOException
+	 */
+	static List<String> urls() throws IOException {
+		List<String> urls = new ArrayList<String>();
+		for (String line : resource("url_test.txt").split("\n")) {
+			line = line.trim();
+			if (!line.isEmpty()) {
+				urls.add(line);
+			}
+		}
+		return urls;
+	}
+
+	private static String resource(String name) throws IOException {
+		InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name);
+		if (in == null) {
+			throw new IOException("missing corpus file: " + name);
+		}
+		try {
+			return IOUtils.toString(in, StandardCharsets.UTF_8);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * 把直接包含p标签最多的节点(正文)的子节点复制times-1份追加到末尾
+	 */
+	private static void repeatArticle(Document doc, int times) {
+		Element article = doc.body();
+		int max = 0;
+		for (Element e : doc.body().getAllElements()) {
+			int count = 0;
+			for (Element child : e.children()) {
+				if ("p".equals(child.tagName())) {
+					count++;
+				}
+			}
+			if (count > max) {
+				max = count;
+				article = e;
+			}
+		}
+		List<Node> children = new ArrayList<Node>(article.childNodes());
+		for (int i = 1; i < times; i++) {
+			for (Node child : children) {
+				article.appendChild(child.clone());
+			}
+		}
+	}
+
+	/**
+	 * 在body前后加上sections个栏目、每个栏目links个链接的导航, 以及脚本、样式和评论区
+	 */
+	private static void addNavigation(Document doc, int sections, int links) {
+		StringBuilder nav = new StringBuilder();
+		nav.append("<style>.nav li{float:left;margin:0 4px}.footer{clear:both}</style>");
+		nav.append("<script>var _hmt = _hmt || [];(function(){var hm = document.createElement('script');})();</script>");
+		nav.append("<div class=\"nav header\" id=\"nav\">");
+		for (int i = 0; i < sections; i++) {
+			nav.append("<div class=\"menu\"><h3>栏目").append(i).append("</h3><ul>");
+			for (int j = 0; j < links; j++) {
+				nav.append("<li><a href=\"/channel/").append(i).append('/').append(j).append(".htm\">频道")
+						.append(i).append('-').append(j).append("</a></li>");
+			}
+			nav.append("</ul></div>");
+		}
+		nav.append("</div>");
+		doc.body().prepend(nav.toString());
+
+		StringBuilder footer = new StringBuilder();
+		footer.append("<div class=\"comment\" id=\"comments\">");
+		for (int i = 0; i < links; i++) {
+			footer.append("<div class=\"comment-item\"><span class=\"author\">网友").append(i)
+					.append("</span><p>2019-06-19 10:").append(10 + i % 50)
+					.append(" 发表评论, 支持, 点赞, 说得好</p></div>");
+		}
+		footer.append("</div><div class=\"footer\" id=\"footer\"><ul>");
+		for (int i = 0; i < links; i++) {
+			footer.append("<li><a href=\"/about/").append(i).append(".htm\">关于我们").append(i).append("</a></li>");
+		}
+		footer.append("</ul><p>Copyright © 2000-2019 XINHUANET.com All Rights Reserved.</p></div>");
+		footer.append("<script>document.write('<img src=\"/stat.gif?r=' + Math.random() + '\">');</script>");
+		doc.body().append(footer.toString());
+	}
+}
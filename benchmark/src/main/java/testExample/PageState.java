@@ -0,0 +1,37 @@
+package testExample;
+
+import java.io.IOException;
+
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 每次调用前复制一份新的页面 <BR>
+ * Readability和ReadabilityForImg都会修改传入的Document, 不能在多次调用之间复用。
+ * 单次调用在毫秒级, Level.Invocation 的额外开销可以忽略, 复制本身不计入测量时间。
+ *
+ */
+@State(Scope.Thread)
+public class PageState {
+
+	@Param({ Corpus.NEWS, Corpus.NEWS_LONG, Corpus.NEWS_NAV })
+	public String page;
+
+	private Document template;
+
+	Document doc;
+
+	@Setup(Level.Trial)
+	public void load() throws IOException {
+		template = Corpus.page(page);
+	}
+
+	@Setup(Level.Invocation)
+	public void copy() {
+		doc = template.clone();
+	}
+}
@@ -0,0 +1,147 @@
+package testExample;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Readability.init, ReadabilityForImg.init, ReadabilityForImg.grabImg 和正文同胞节点复制的基准 <BR>
+ * Throughput 给出吞吐量, SampleTime 给出延迟分位数(p50/p90/p99...)
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadabilityBenchmark {
+
+	@Benchmark
+	public Document readabilityInit(PageState state) {
+		Readability readability = new Readability(state.doc);
+		readability.init();
+		return state.doc;
+	}
+
+	/**
+	 * Readability 第一遍记录撤销日志时, 放进正文的同胞节点复制一份并带上分数 <BR>
+	 * 这里复制整个body且每个元素都有分数, 是这部分开销的上界, 与 readabilityInit 对比
+	 */
+	@Benchmark
+	public Element siblingCopy(CopyState state) {
+		return Readability.copyWithScores(state.body, state.contentScores);
+	}
+
+	@Benchmark
+	public List<String> imgInit(PageState state) {
+		ReadabilityForImg readability = new ReadabilityForImg(state.doc);
+		readability.init();
+		return readability.getImgList();
+	}
+
+	@Benchmark
+	public List<String> grabImg(GrabImgState state) {
+		ReadabilityForImg readability = new ReadabilityForImg(state.doc, state.contentScores,
+				new IdentityScoreStore());
+		readability.grabImg(state.doc, state.text);
+		return readability.getImgList();
+	}
+
+	/**
+	 * 先执行init直到grabImg被调用, 保存当时的页面、正文节点和正文分数, 这样只测量grabImg本身
+	 */
+	@State(Scope.Thread)
+	public static class GrabImgState {
+
+		@Param({ Corpus.NEWS, Corpus.NEWS_LONG, Corpus.NEWS_NAV })
+		public String page;
+
+		private Document template;
+
+		Document doc;
+		Element text;
+		ScoreStore contentScores;
+
+		@Setup(Level.Trial)
+		public void load() throws IOException {
+			template = Corpus.page(page);
+		}
+
+		@Setup(Level.Invocation)
+		public void capture() {
+			doc = template.clone();
+			contentScores = new IdentityScoreStore();
+			Capture capture = new Capture(doc, contentScores);
+			try {
+				capture.init();
+			} catch (Captured e) {
+				// grabImg被调用时停止
+			}
+			text = capture.text;
+		}
+	}
+
+	/**
+	 * 页面的body和它所有元素的分数, 每次调用前清除上一次副本的分数
+	 */
+	@State(Scope.Thread)
+	public static class CopyState {
+
+		@Param({ Corpus.NEWS, Corpus.NEWS_LONG, Corpus.NEWS_NAV })
+		public String page;
+
+		Element body;
+		final ScoreStore contentScores = new IdentityScoreStore();
+
+		@Setup(Level.Trial)
+		public void load() throws IOException {
+			body = Corpus.page(page).body();
+		}
+
+		@Setup(Level.Invocation)
+		public void score() {
+			contentScores.clear();
+			for (Element e : body.getAllElements()) {
+				contentScores.set(e, 1);
+			}
+		}
+	}
+
+	private static class Capture extends ReadabilityForImg {
+		Element text;
+
+		Capture(Document doc, ScoreStore contentScores) {
+			super(doc, contentScores, new IdentityScoreStore());
+		}
+
+		@Override
+		public void grabImg(Element document, Element text) {
+			this.text = text;
+			throw Captured.INSTANCE;
+		}
+	}
+
+	private static class Captured extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		static final Captured INSTANCE = new Captured();
+
+		private Captured() {
+			super(null, null, false, false);
+		}
+	}
+}
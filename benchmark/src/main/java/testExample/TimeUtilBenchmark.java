@@ -0,0 +1,72 @@
+package testExample;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TimeUtil.getDateFromHtml 和 TimeUtil.getDateFromUrl 的基准 <BR>
+ * getDateFromUrl 每次调用轮流取 test/url_test.txt 中的一个URL
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeUtilBenchmark {
+
+	private final TimeUtil timeUtil = new TimeUtil();
+	private String[] urls;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void load() throws IOException {
+		List<String> list = Corpus.urls();
+		urls = list.toArray(new String[list.size()]);
+	}
+
+	@Benchmark
+	public String getDateFromHtml(HtmlState state) {
+		return timeUtil.getDateFromHtml(state.html, state.title);
+	}
+
+	@Benchmark
+	public String getDateFromUrl() {
+		String url = urls[next];
+		next = next + 1 == urls.length ? 0 : next + 1;
+		return timeUtil.getDateFromUrl(url);
+	}
+
+	@State(Scope.Thread)
+	public static class HtmlState {
+
+		@Param({ Corpus.NEWS, Corpus.NEWS_LONG, Corpus.NEWS_NAV })
+		public String page;
+
+		String html;
+		String title;
+
+		@Setup(Level.Trial)
+		public void load() throws IOException {
+			Document doc = Corpus.page(page);
+			html = doc.outerHtml();
+			title = doc.title();
+		}
+	}
+}
@@ -0,0 +1,295 @@
+package testExample;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeVisitor;
+
+/**
+ * 正文清理 <BR>
+ * 1. 只遍历一次正文, 同时统计文本(TextStats)、按文档顺序记录要清理的标签, 并自底向上累加每个元素后代中 p、img、li、input、embed、object、h2 的个数 <BR>
+ * 2. 按原来的顺序清理 form/object/h1/h2/iframe、假标题、table/ul/div 和空段落, 条件都从统计中取, 不再对每个节点调用 getElementsByTag <BR>
+ * 3. 删除节点时从所有祖先的个数中减去该节点的个数, 并让祖先的文本统计失效, 每一步看到的数据与重新查询DOM得到的相同
+ *
+ */
+final class ArticleCleaner {
+
+	private static final int P = 0;
+	private static final int IMG = 1;
+	private static final int LI = 2;
+	private static final int INPUT = 3;
+	private static final int EMBED = 4;
+	/** src 不是 RegEx.VIDEO 的 embed */
+	private static final int OTHER_EMBED = 5;
+	private static final int OBJECT = 6;
+	private static final int H2 = 7;
+	private static final int COUNTERS = 8;
+
+	/**
+	 * 需要按文档顺序列出的标签
+	 */
+	private static final String[] LISTED_TAGS = { "form", "object", "iframe", "h1", "h2", "h3", "h4", "h5", "h6",
+			"table", "ul", "div", "p" };
+
+	private final Element mArticle;
+	private final ToIntFunction<Element> mClassWeight;
+	private final Consumer<Element> mConditionalDebug;
+
+	private final Map<Element, Integer> mIndex = new IdentityHashMap<Element, Integer>();
+	private final Map<String, List<Element>> mTagLists = new HashMap<String, List<Element>>();
+	/** mCounts[counter][k]: 第k个元素的后代(不含自己)中该标签的个数 */
+	private final int[][] mCounts = new int[COUNTERS][64];
+	/** 第k个元素自己属于哪些计数, 按位记录 */
+	private int[] mSelf = new int[64];
+	private int[] mParents = new int[64];
+	private int mSize;
+	private TextStats mTextStats;
+
+	private ArticleCleaner(Element article, ToIntFunction<Element> classWeight,
+			Consumer<Element> conditionalDebug) {
+		mArticle = article;
+		mClassWeight = classWeight;
+		mConditionalDebug = conditionalDebug;
+		for (String tag : LISTED_TAGS) {
+			mTagLists.put(tag, new ArrayList<Element>());
+		}
+	}
+
+	/**
+	 * 清除正文中的垃圾节点、假标题、可疑的 table/ul/div 和空段落
+	 *
+	 * @param article
+	 *            正文, killBreaks 之后
+	 * @param classWeight
+	 *            根据 class、id 计算元素权重
+	 * @param conditionalDebug
+	 *            按条件清理每个节点前调用, 用于输出调试信息
+	 */
+	static void clean(Element article, ToIntFunction<Element> classWeight, Consumer<Element> conditionalDebug) {
+		ArticleCleaner cleaner = new ArticleCleaner(article, classWeight, conditionalDebug);
+		cleaner.index();
+
+		cleaner.clean("form", false);
+		cleaner.clean("object", true);
+		cleaner.clean("h1", false);
+		/* 删除可能存在的副标题 H2 */
+		if (cleaner.mCounts[H2][0] == 1) {
+			cleaner.clean("h2", false);
+		}
+		cleaner.clean("iframe", true);
+
+		cleaner.cleanHeaders();
+
+		/*
+		 * 清除tag元素中可疑杂质节点
+		 */
+		cleaner.cleanConditionally("table");
+		cleaner.cleanConditionally("ul");
+		cleaner.cleanConditionally("div");
+
+		cleaner.cleanEmptyParagraphs();
+	}
+
+	/**
+	 * 遍历一次正文, 建立文本统计和标签计数
+	 */
+	private void index() {
+		mTextStats = TextStats.of(mArticle, new NodeVisitor() {
+			@Override
+			public void head(Node node, int depth) {
+				if (node instanceof Element) {
+					add((Element) node);
+				}
+			}
+
+			@Override
+			public void tail(Node node, int depth) {
+			}
+		});
+		/* 子元素的下标总是大于父元素, 倒序累加 */
+		for (int k = mSize - 1; k > 0; k--) {
+			int parent = mParents[k];
+			for (int c = 0; c < COUNTERS; c++) {
+				mCounts[c][parent] += mCounts[c][k] + ((mSelf[k] >> c) & 1);
+			}
+		}
+	}
+
+	private void add(Element e) {
+		if (mSize == mSelf.length) {
+			mSelf = Arrays.copyOf(mSelf, mSize * 2);
+			mParents = Arrays.copyOf(mParents, mSize * 2);
+			for (int c = 0; c < COUNTERS; c++) {
+				mCounts[c] = Arrays.copyOf(mCounts[c], mSize * 2);
+			}
+		}
+		String tag = e.normalName();
+		Integer parent = mIndex.get(e.parent());
+		mParents[mSize] = parent != null ? parent : -1;
+		mSelf[mSize] = selfCounters(e, tag);
+		mIndex.put(e, mSize);
+		mSize++;
+
+		List<Element> list = mTagLists.get(tag);
+		if (list != null && e != mArticle) {
+			list.add(e);
+		}
+	}
+
+	private static int selfCounters(Element e, String tag) {
+		switch (tag) {
+		case "p":
+			return 1 << P;
+		case "img":
+			return 1 << IMG;
+		case "li":
+			return 1 << LI;
+		case "input":
+			return 1 << INPUT;
+		case "embed":
+			return Patterns.find(Patterns.RegEx.VIDEO, e.absUrl("src")) ? 1 << EMBED
+					: (1 << EMBED) | (1 << OTHER_EMBED);
+		case "object":
+			return 1 << OBJECT;
+		case "h2":
+			return 1 << H2;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * 清除所有tag元素, keepVideo 时保留 Patterns.RegEx.VIDEO 元素
+	 */
+	private void clean(String tag, boolean keepVideo) {
+		for (Element target : attached(tag)) {
+			if (keepVideo && Patterns.find(Patterns.RegEx.VIDEO, CostReport.outerHtml(target))) {
+				continue;
+			}
+			remove(target);
+		}
+	}
+
+	/**
+	 * 清除元素中的假标题
+	 */
+	private void cleanHeaders() {
+		for (int headerIndex = 1; headerIndex < 7; headerIndex++) {
+			for (Element header : attached("h" + headerIndex)) {
+				if (mClassWeight.applyAsInt(header) < 0 || linkDensity(header) > 0.33f) {
+					remove(header);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 根据内容长度、class属性、A链接密度、图片数量等判断tag元素的可能性,并进行清除
+	 */
+	private void cleanConditionally(String tag) {
+		for (Element node : attached(tag)) {
+			int k = mIndex.get(node);
+			int weight = mClassWeight.applyAsInt(node);
+
+			mConditionalDebug.accept(node);
+
+			if (weight < 0) {
+				remove(node);
+			} else if (mTextStats.asciiCommaSegments(node) < 10) {
+				/**
+				 * 如果逗号不多，那么非段落元素多于段落或其他,则将其删除
+				 */
+				int p = mCounts[P][k];
+				int img = mCounts[IMG][k];
+				int li = mCounts[LI][k] - 100;
+				int input = mCounts[INPUT][k];
+				int embedCount = mCounts[OTHER_EMBED][k];
+
+				float linkDensity = linkDensity(node);
+				int contentLength = mTextStats.normalizedLength(node);
+				boolean toRemove = false;
+
+				if (img > p) {
+					toRemove = true;
+				} else if (li > p && !"ul".equalsIgnoreCase(tag) && !"ol".equalsIgnoreCase(tag)) {
+					toRemove = true;
+				} else if (input > Math.floor(p / 3)) {
+					toRemove = true;
+				} else if (contentLength < 25 && (img == 0 || img > 2)) {
+					toRemove = true;
+				} else if (weight < 25 && linkDensity > 0.2f) {
+					toRemove = true;
+				} else if (weight > 25 && linkDensity > 0.5f) {
+					toRemove = true;
+				} else if ((embedCount == 1 && contentLength < 75) || embedCount > 1) {
+					toRemove = true;
+				}
+
+				if (toRemove) {
+					remove(node);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 清除多余空白段落
+	 */
+	private void cleanEmptyParagraphs() {
+		for (Element paragraph : attached("p")) {
+			int k = mIndex.get(paragraph);
+			if (mCounts[IMG][k] == 0 && mCounts[EMBED][k] == 0 && mCounts[OBJECT][k] == 0
+					&& mTextStats.length(paragraph) == 0) {
+				remove(paragraph);
+			}
+		}
+	}
+
+	private float linkDensity(Element e) {
+		return (float) mTextStats.linkLength(e) / mTextStats.normalizedLength(e);
+	}
+
+	/**
+	 * 当前仍在正文中的tag元素, 按文档顺序, 与 getElementsByTag 相同
+	 */
+	private List<Element> attached(String tag) {
+		List<Element> all = mTagLists.get(tag);
+		List<Element> result = new ArrayList<Element>(all.size());
+		for (Element e : all) {
+			Element parent = e.parent();
+			while (parent != null && parent != mArticle) {
+				parent = parent.parent();
+			}
+			if (parent == mArticle) {
+				result.add(e);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 删除元素, 并从祖先的计数中减去它和它的后代
+	 */
+	private void remove(Element e) {
+		int k = mIndex.get(e);
+		for (Element parent = e.parent(); parent != null; parent = parent.parent()) {
+			Integer index = mIndex.get(parent);
+			if (index == null) {
+				break;
+			}
+			for (int c = 0; c < COUNTERS; c++) {
+				mCounts[c][index] -= mCounts[c][k] + ((mSelf[k] >> c) & 1);
+			}
+		}
+		mTextStats.invalidateAncestors(e);
+		e.remove();
+	}
+}
@@ -0,0 +1,62 @@
+package testExample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * 把分数以字符串写进元素属性的分数表(原来的做法) <BR>
+ * 每次读写都要解析、生成字符串, 分数会留在输出的html里, 只建议调试时使用 <BR>
+ * 文档在重试时是恢复而不是重新解析的, 所以要记住写过分数的元素, clear 时删掉它们的属性
+ *
+ */
+public class AttributeScoreStore implements ScoreStore {
+
+	private final String attributeName;
+	private final List<Element> scored = new ArrayList<Element>();
+
+	/**
+	 * @param attributeName
+	 *            保存分数的属性名, 如 readabilityContentScore
+	 */
+	public AttributeScoreStore(String attributeName) {
+		this.attributeName = attributeName;
+	}
+
+	@Override
+	public boolean has(Element e) {
+		return e != null && e.hasAttr(attributeName);
+	}
+
+	@Override
+	public int get(Element e) {
+		if (e == null) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(e.attr(attributeName));
+		} catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+	@Override
+	public void set(Element e, int score) {
+		if (!e.hasAttr(attributeName)) {
+			scored.add(e);
+		}
+		e.attr(attributeName, Integer.toString(score));
+	}
+
+	/**
+	 * 删除写过的分数属性
+	 */
+	@Override
+	public void clear() {
+		for (Element e : scored) {
+			e.removeAttr(attributeName);
+		}
+		scored.clear();
+	}
+}
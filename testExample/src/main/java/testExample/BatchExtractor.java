@@ -0,0 +1,292 @@
+package testExample;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * 批量抽取引擎：下载由 {@link PageFetcher} 完成，解析在独立的线程池中进行，下载受IO限制，解析受CPU限制。 <BR>
+ * 每个URL有独立的超时时间, 结果可以按输入顺序或者按完成顺序返回。 <BR>
+ * 同时在途(已提交还没有交给回调)的URL数量有上限, 按输入顺序返回时等待前面结果的也计入, 防止大批量URL一次性占满内存; <BR>
+ * 超时的URL会取消下载和等待中的解析, 等待解析的队列有界。
+ *
+ */
+public class BatchExtractor {
+
+	/**
+	 * 单个URL的抽取结果
+	 */
+	public static class Result {
+		private final int index;
+		private final String url;
+		private final int status;
+		private final String title;
+		private final List<String> imgList;
+		private final long fetchMillis;
+		private final long parseMillis;
+		private final boolean timedOut;
+		private final Throwable error;
+
+		Result(int index, String url, int status, String title, List<String> imgList, long fetchMillis,
+				long parseMillis, boolean timedOut, Throwable error) {
+			this.index = index;
+			this.url = url;
+			this.status = status;
+			this.title = title;
+			this.imgList = imgList;
+			this.fetchMillis = fetchMillis;
+			this.parseMillis = parseMillis;
+			this.timedOut = timedOut;
+			this.error = error;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		/**
+		 * @return HTTP状态码, 没有收到响应时为-1
+		 */
+		public int getStatus() {
+			return status;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		public List<String> getImgList() {
+			return imgList;
+		}
+
+		public long getFetchMillis() {
+			return fetchMillis;
+		}
+
+		public long getParseMillis() {
+			return parseMillis;
+		}
+
+		public boolean isTimedOut() {
+			return timedOut;
+		}
+
+		public Throwable getError() {
+			return error;
+		}
+
+		public boolean isSuccess() {
+			return error == null && !timedOut;
+		}
+	}
+
+	/**
+	 * 结果回调, 总是在调用 {@link BatchExtractor#extract} 的线程上执行
+	 */
+	public interface ResultHandler {
+		void onResult(Result result);
+	}
+
+	private final PageFetcher fetcher;
+	private final ThreadPoolExecutor parsePool;
+	private final ScheduledThreadPoolExecutor timer;
+	private final int timeoutMillis;
+	private final int maxInFlight;
+
+	/**
+	 * @param fetcher
+	 *            下载器
+	 * @param parseThreads
+	 *            解析线程数, 一般等于CPU核数
+	 * @param maxInFlight
+	 *            同时在途(下载中、等待解析或等待按顺序交给回调)的URL上限
+	 * @param timeoutMillis
+	 *            单个URL从提交到解析完成的超时时间
+	 */
+	public BatchExtractor(PageFetcher fetcher, int parseThreads, int maxInFlight, int timeoutMillis) {
+		this.fetcher = fetcher;
+		/* 在途的URL每个最多占一个队列位置, 超时的从队列中删除, 队列满时拒绝并作为失败返回 */
+		this.parsePool = new ThreadPoolExecutor(parseThreads, parseThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(maxInFlight), new NamedThreadFactory("extract-parse"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.timer = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("extract-timeout"));
+		this.timer.setRemoveOnCancelPolicy(true);
+		this.timeoutMillis = timeoutMillis;
+		this.maxInFlight = maxInFlight;
+	}
+
+	public BatchExtractor() {
+		this(new PageFetcher(), Runtime.getRuntime().availableProcessors(), 256, 60000);
+	}
+
+	/**
+	 * 抽取所有URL, 阻塞直到每个URL都返回结果(成功、失败或超时)
+	 *
+	 * @param urls
+	 * @param ordered
+	 *            true 按输入顺序返回结果; false 按完成顺序返回
+	 * @param handler
+	 * @throws InterruptedException
+	 */
+	public void extract(List<String> urls, boolean ordered, ResultHandler handler) throws InterruptedException {
+		int total = urls.size();
+		BlockingQueue<Result> completed = new LinkedBlockingQueue<Result>();
+		Map<Integer, Result> pending = new HashMap<Integer, Result>();
+		int submitted = 0;
+		int delivered = 0;
+		while (delivered < total) {
+			/* 交给回调之后才不算在途, 一个慢的URL阻塞按顺序交付时, pending 最多 maxInFlight 个 */
+			while (submitted < total && submitted - delivered < maxInFlight) {
+				submit(submitted, urls.get(submitted), completed);
+				submitted++;
+			}
+			Result result = completed.take();
+			if (!ordered) {
+				handler.onResult(result);
+				delivered++;
+				continue;
+			}
+			pending.put(result.getIndex(), result);
+			while ((result = pending.remove(delivered)) != null) {
+				handler.onResult(result);
+				delivered++;
+			}
+		}
+	}
+
+	/**
+	 * 关闭线程池和下载器, 已提交的任务会执行完
+	 */
+	public void shutdown() {
+		fetcher.shutdown();
+		parsePool.shutdown();
+		timer.shutdown();
+	}
+
+	/**
+	 * 下载完成后提交解析; 超时时返回超时结果, 并 cancel(true) 下载和还没有开始的解析, 正在运行的解析不能中断, 结果被丢弃
+	 */
+	private void submit(final int index, final String url, final BlockingQueue<Result> completed) {
+		final CompletableFuture<Result> result = new CompletableFuture<Result>();
+		final AtomicReference<Future<?>> parseTask = new AtomicReference<Future<?>>();
+
+		final CompletableFuture<PageFetcher.FetchResult> fetch = fetcher.fetchAsync(url);
+		fetch.whenComplete((fetched, t) -> {
+			if (result.isDone()) {
+				return;
+			}
+			if (t != null) {
+				result.complete(failed(index, url, t));
+				return;
+			}
+			try {
+				parseTask.set(parsePool.submit(() -> {
+					if (result.isDone()) {
+						return;
+					}
+					try {
+						result.complete(parse(index, fetched));
+					} catch (Throwable e) {
+						result.complete(failed(index, url, e));
+					}
+				}));
+			} catch (RejectedExecutionException e) {
+				result.complete(failed(index, url, e));
+				return;
+			}
+			/* 提交之前已经超时 */
+			if (result.isDone()) {
+				cancelParse(parseTask.get());
+			}
+		});
+
+		final ScheduledFuture<?> timeout = timer.schedule(() -> {
+			if (result.complete(new Result(index, url, -1, null, null, 0, 0, true, null))) {
+				fetch.cancel(true);
+				cancelParse(parseTask.get());
+			}
+		}, timeoutMillis, TimeUnit.MILLISECONDS);
+
+		result.thenAccept(r -> {
+			timeout.cancel(false);
+			completed.add(r);
+		});
+	}
+
+	/**
+	 * 取消解析, 还在队列中的直接删除, 不占用队列位置
+	 */
+	private void cancelParse(Future<?> task) {
+		if (task != null) {
+			task.cancel(true);
+			parsePool.remove((Runnable) task);
+		}
+	}
+
+	private static Result failed(int index, String url, Throwable t) {
+		return new Result(index, url, -1, null, null, 0, 0, false,
+				t instanceof CompletionException ? t.getCause() : t);
+	}
+
+	private static Result parse(int index, PageFetcher.FetchResult fetched) {
+		String url = fetched.getUrl();
+		long fetchMillis = fetched.getLatencyMillis();
+		if (!fetched.isSuccess()) {
+			return new Result(index, url, fetched.getStatus(), null, null, fetchMillis, 0, false, fetched.getError());
+		}
+		Document doc = fetched.getDocument();
+		long start = System.currentTimeMillis();
+		String title;
+		List<String> imgList;
+		ExtractionMetrics.Span span = ExtractionMetrics.start(ExtractionMetrics.Phase.PAGE);
+		try {
+			title = Extractor.getTitle(doc);
+			ReadabilityForImg imgRead = new ReadabilityForImg(doc);
+			imgRead.init();
+			imgList = imgRead.getImgList();
+		} catch (RuntimeException e) {
+			return new Result(index, url, fetched.getStatus(), null, null, fetchMillis,
+					System.currentTimeMillis() - start, false, e);
+		} finally {
+			span.end();
+		}
+		return new Result(index, url, fetched.getStatus(), title, imgList, fetchMillis,
+				System.currentTimeMillis() - start, false, null);
+	}
+
+	private static class NamedThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		NamedThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package testExample;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 所有网页、所有线程共用的 (class, id) 关键词分类缓存 <BR>
+ * 1. 同一个网站的大量网页重复使用相同的 class、id, 每对只用 {@link KeywordClassifier} 分类一次 <BR>
+ * 2. 按key的hash分成 {@link #STRIPES} 段, 每段是按访问顺序排列的 LinkedHashMap, 单独加锁, 超过容量时淘汰最久没有使用的 <BR>
+ * 3. 命中、未命中和淘汰次数用 LongAdder 统计; 分类在锁外进行, 两个线程同时未命中时各算一次, 结果相同
+ *
+ */
+public final class ClassIdCache {
+
+	/** 默认容量, 所有段加起来 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	private static final int STRIPES = 16;
+
+	private static final LongAdder sHits = new LongAdder();
+	private static final LongAdder sMisses = new LongAdder();
+	private static final LongAdder sEvictions = new LongAdder();
+	private static volatile Stripe[] sStripes = newStripes(DEFAULT_CAPACITY);
+
+	private ClassIdCache() {
+	}
+
+	/**
+	 * 元素的 class、id 匹配的关键词, 每个值都是 {@link KeywordClassifier#classify(CharSequence)} 的返回值
+	 */
+	static final class Keywords {
+		/** className */
+		final int className;
+		/** id */
+		final int id;
+		/** className + id */
+		final int joined;
+		/** className + " " + id */
+		final int spaced;
+
+		private Keywords(String className, String id) {
+			this.className = KeywordClassifier.classify(className);
+			this.id = KeywordClassifier.classify(id);
+			this.joined = KeywordClassifier.classify(className + id);
+			this.spaced = KeywordClassifier.classify(className + " " + id);
+		}
+	}
+
+	/**
+	 * @param className
+	 * @param id
+	 * @return 缓存的分类结果, 没有时分类后放入缓存
+	 */
+	static Keywords get(String className, String id) {
+		Key key = new Key(className, id);
+		Stripe stripe = stripe(sStripes, key);
+		Keywords keywords;
+		synchronized (stripe) {
+			keywords = stripe.get(key);
+		}
+		if (keywords != null) {
+			sHits.increment();
+			return keywords;
+		}
+		sMisses.increment();
+		keywords = new Keywords(className, id);
+		synchronized (stripe) {
+			stripe.put(key, keywords);
+		}
+		return keywords;
+	}
+
+	/**
+	 * 修改容量, 同时清空缓存
+	 *
+	 * @param capacity
+	 *            所有段加起来的容量, 至少为 {@link #STRIPES}
+	 */
+	public static void setCapacity(int capacity) {
+		if (capacity < STRIPES) {
+			throw new IllegalArgumentException("capacity must be at least " + STRIPES + ": " + capacity);
+		}
+		sStripes = newStripes(capacity);
+	}
+
+	/**
+	 * 清空缓存, 不影响计数
+	 */
+	public static void clear() {
+		for (Stripe stripe : sStripes) {
+			synchronized (stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return 当前缓存的 (class, id) 数量
+	 */
+	public static int size() {
+		int size = 0;
+		for (Stripe stripe : sStripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	public static long getHitCount() {
+		return sHits.sum();
+	}
+
+	public static long getMissCount() {
+		return sMisses.sum();
+	}
+
+	public static long getEvictionCount() {
+		return sEvictions.sum();
+	}
+
+	/**
+	 * 清空命中、未命中和淘汰次数
+	 */
+	public static void resetStats() {
+		sHits.reset();
+		sMisses.reset();
+		sEvictions.reset();
+	}
+
+	private static Stripe[] newStripes(int capacity) {
+		Stripe[] stripes = new Stripe[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe(capacity / STRIPES);
+		}
+		return stripes;
+	}
+
+	private static Stripe stripe(Stripe[] stripes, Key key) {
+		int h = key.hash;
+		return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+	}
+
+	private static final class Key {
+		final String className;
+		final String id;
+		final int hash;
+
+		Key(String className, String id) {
+			this.className = className;
+			this.id = id;
+			this.hash = 31 * className.hashCode() + id.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return hash == other.hash && className.equals(other.className) && id.equals(other.id);
+		}
+	}
+
+	/**
+	 * 一段缓存, 访问顺序的 LinkedHashMap, 调用方负责加锁
+	 */
+	private static final class Stripe extends LinkedHashMap<Key, Keywords> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		Stripe(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Keywords> eldest) {
+			if (size() > capacity) {
+				sEvictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
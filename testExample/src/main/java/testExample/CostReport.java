@@ -0,0 +1,246 @@
+package testExample;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * 一次抽取的开销: 遍历的元素数、打分的候选数、子树序列化的次数和字符数、每个正则的使用次数、线程分配的字节数和耗时 <BR>
+ * 1. 通过 Readability.setCostReport、ReadabilityForImg.setCostReport 设置, init 结束后读取; 不设置时不记录 <BR>
+ * 2. 多次 init 使用同一个 CostReport 时累加, 需要时先 {@link #clear()} <BR>
+ * 3. 只统计执行 init 的线程上的开销; 一次抽取用一个, 不是线程安全的 <BR>
+ * 4. 分配的字节数依赖 HotSpot 的 com.sun.management.ThreadMXBean, 不支持时为-1
+ *
+ */
+public final class CostReport {
+
+	private static final Patterns.RegEx[] REGEXES = Patterns.RegEx.values();
+
+	/**
+	 * 当前线程上正在记录的 CostReport
+	 */
+	private static final ThreadLocal<CostReport> sCurrent = new ThreadLocal<CostReport>();
+	/**
+	 * 所有线程上正在记录的数量, 为0时不读 ThreadLocal
+	 */
+	private static final AtomicInteger sActive = new AtomicInteger();
+
+	private int mElements;
+	private int mContentCandidates;
+	private int mImgCandidates;
+	private int mSerializations;
+	private long mSerializedChars;
+	private final long[] mRegex = new long[REGEXES.length];
+	private long mAllocatedBytes;
+	private long mNanos;
+
+	private CostReport mPrevious;
+	private long mStartBytes;
+	private long mStartNanos;
+
+	/**
+	 * @return grabArticle 遍历的元素数, 重试时两遍都计入
+	 */
+	public int getElements() {
+		return mElements;
+	}
+
+	/**
+	 * @return 打了正文分数的候选元素数
+	 */
+	public int getContentCandidates() {
+		return mContentCandidates;
+	}
+
+	/**
+	 * @return 打了图片分数的图片数
+	 */
+	public int getImgCandidates() {
+		return mImgCandidates;
+	}
+
+	/**
+	 * @return 子树序列化(html()、outerHtml())的次数
+	 */
+	public int getSerializations() {
+		return mSerializations;
+	}
+
+	/**
+	 * @return 序列化得到的字符总数
+	 */
+	public long getSerializedChars() {
+		return mSerializedChars;
+	}
+
+	/**
+	 * @param re
+	 * @return 通过 Patterns 使用 re 的次数, 不含类初始化时读取的正则原文
+	 */
+	public long getRegexCount(Patterns.RegEx re) {
+		return mRegex[re.ordinal()];
+	}
+
+	/**
+	 * @return 使用过的正则和次数
+	 */
+	public Map<Patterns.RegEx, Long> getRegexCounts() {
+		Map<Patterns.RegEx, Long> counts = new EnumMap<Patterns.RegEx, Long>(Patterns.RegEx.class);
+		for (int i = 0; i < mRegex.length; i++) {
+			if (mRegex[i] != 0) {
+				counts.put(REGEXES[i], mRegex[i]);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * @return 所有正则的使用次数
+	 */
+	public long getRegexTotal() {
+		long total = 0;
+		for (long count : mRegex) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * @return init 中当前线程分配的字节数, 不支持时为-1
+	 */
+	public long getAllocatedBytes() {
+		return mAllocatedBytes;
+	}
+
+	/**
+	 * @return init 的耗时(纳秒)
+	 */
+	public long getNanos() {
+		return mNanos;
+	}
+
+	public void clear() {
+		mElements = 0;
+		mContentCandidates = 0;
+		mImgCandidates = 0;
+		mSerializations = 0;
+		mSerializedChars = 0;
+		for (int i = 0; i < mRegex.length; i++) {
+			mRegex[i] = 0;
+		}
+		mAllocatedBytes = 0;
+		mNanos = 0;
+	}
+
+	/**
+	 * @return 一行 key=value, 便于在整个语料上汇总
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("elements=").append(mElements);
+		sb.append(" contentCandidates=").append(mContentCandidates);
+		sb.append(" imgCandidates=").append(mImgCandidates);
+		sb.append(" serializations=").append(mSerializations);
+		sb.append(" serializedChars=").append(mSerializedChars);
+		sb.append(" regex=").append(getRegexTotal());
+		sb.append(" allocatedBytes=").append(mAllocatedBytes);
+		sb.append(" nanos=").append(mNanos);
+		for (Map.Entry<Patterns.RegEx, Long> entry : getRegexCounts().entrySet()) {
+			sb.append(" regex.").append(entry.getKey()).append('=').append(entry.getValue());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 在当前线程上开始记录, 必须在 finally 中调用 {@link #end(CostReport)}
+	 *
+	 * @param report
+	 *            为null时什么也不做
+	 */
+	static void begin(CostReport report) {
+		if (report == null) {
+			return;
+		}
+		report.mPrevious = sCurrent.get();
+		sCurrent.set(report);
+		sActive.incrementAndGet();
+		report.mStartBytes = ExtractionMetrics.allocatedBytes();
+		report.mStartNanos = System.nanoTime();
+	}
+
+	static void end(CostReport report) {
+		if (report == null) {
+			return;
+		}
+		report.mNanos += System.nanoTime() - report.mStartNanos;
+		long bytes = ExtractionMetrics.allocatedBytes();
+		if (bytes < 0 || report.mStartBytes < 0 || report.mAllocatedBytes < 0) {
+			report.mAllocatedBytes = -1;
+		} else {
+			report.mAllocatedBytes += bytes - report.mStartBytes;
+		}
+		sActive.decrementAndGet();
+		sCurrent.set(report.mPrevious);
+		report.mPrevious = null;
+	}
+
+	void addElements(int n) {
+		mElements += n;
+	}
+
+	void addContentCandidates(int n) {
+		mContentCandidates += n;
+	}
+
+	void addImgCandidates(int n) {
+		mImgCandidates += n;
+	}
+
+	/**
+	 * 记入当前线程上正在记录的 CostReport, 由 Patterns 调用
+	 *
+	 * @param re
+	 */
+	static void regex(Patterns.RegEx re) {
+		CostReport report = current();
+		if (report != null) {
+			report.mRegex[re.ordinal()]++;
+		}
+	}
+
+	/**
+	 * 同 element.html(), 并记入当前线程上正在记录的 CostReport
+	 *
+	 * @param element
+	 * @return element.html()
+	 */
+	static String html(Element element) {
+		return serialized(element.html());
+	}
+
+	/**
+	 * 同 element.outerHtml(), 并记入当前线程上正在记录的 CostReport
+	 *
+	 * @param element
+	 * @return element.outerHtml()
+	 */
+	static String outerHtml(Element element) {
+		return serialized(element.outerHtml());
+	}
+
+	private static String serialized(String html) {
+		CostReport report = current();
+		if (report != null) {
+			report.mSerializations++;
+			report.mSerializedChars += html.length();
+		}
+		return html;
+	}
+
+	private static CostReport current() {
+		return sActive.get() == 0 ? null : sCurrent.get();
+	}
+}
@@ -0,0 +1,148 @@
+package testExample;
+
+/**
+ * 图片长宽的解析, 逐字符扫描, 不用正则, 不分配对象, 不抛异常 <BR>
+ * 1. 支持整数和小数, 单位为空、px、%、em、rem, 不区分大小写; em 和 rem 按16px换算, 小数部分舍去 <BR>
+ * 2. auto、空值和无法识别的值都返回 {@link #NONE} <BR>
+ * 3. style 中与原来的正则一样, 属性名只要以 width/height 结尾即可(如 max-width), 第一个能解析的值有效
+ *
+ */
+final class CssDimension {
+
+	/** 没有、auto 或无法识别 */
+	static final int NONE = -1;
+	/** 百分比 */
+	static final int PERCENT = -2;
+
+	/** 1em、1rem 对应的像素 */
+	private static final int EM_PX = 16;
+
+	private CssDimension() {
+	}
+
+	/**
+	 * 解析 width、height 属性的值
+	 *
+	 * @param value
+	 * @return 像素(非负), 或 {@link #NONE}、{@link #PERCENT}
+	 */
+	static int parse(String value) {
+		int end = value.length();
+		while (end > 0 && isWhitespace(value.charAt(end - 1))) {
+			end--;
+		}
+		return parse(value, skipWhitespace(value, 0, end), end);
+	}
+
+	/**
+	 * 在 style 属性中查找 property 的值
+	 *
+	 * @param style
+	 * @param property
+	 *            小写的属性名, 如 width
+	 * @return 像素(非负), 或 {@link #NONE}、{@link #PERCENT}
+	 */
+	static int fromStyle(String style, String property) {
+		int length = style.length();
+		for (int i = indexOfIgnoreCase(style, property, 0); i >= 0; i = indexOfIgnoreCase(style, property, i + 1)) {
+			int colon = skipWhitespace(style, i + property.length(), length);
+			if (colon == length || style.charAt(colon) != ':') {
+				continue;
+			}
+			int start = skipWhitespace(style, colon + 1, length);
+			int end = start;
+			while (end < length && style.charAt(end) != ';' && style.charAt(end) != '!') {
+				end++;
+			}
+			while (end > start && isWhitespace(style.charAt(end - 1))) {
+				end--;
+			}
+			int result = parse(style, start, end);
+			if (result != NONE) {
+				return result;
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * 解析 s[start, end), 前后没有空白
+	 */
+	private static int parse(String s, int start, int end) {
+		if (start == end || regionEqualsIgnoreCase(s, start, end, "auto")) {
+			return NONE;
+		}
+		double number = 0;
+		boolean digits = false;
+		int i = start;
+		for (; i < end && isDigit(s.charAt(i)); i++) {
+			number = number * 10 + (s.charAt(i) - '0');
+			digits = true;
+		}
+		if (i < end && s.charAt(i) == '.') {
+			double scale = 1;
+			for (i++; i < end && isDigit(s.charAt(i)); i++) {
+				scale /= 10;
+				number += (s.charAt(i) - '0') * scale;
+				digits = true;
+			}
+		}
+		if (!digits) {
+			return NONE;
+		}
+		i = skipWhitespace(s, i, end);
+		if (i == end || regionEqualsIgnoreCase(s, i, end, "px")) {
+			return (int) number;
+		}
+		if (regionEqualsIgnoreCase(s, i, end, "%")) {
+			return PERCENT;
+		}
+		if (regionEqualsIgnoreCase(s, i, end, "em") || regionEqualsIgnoreCase(s, i, end, "rem")) {
+			return (int) (number * EM_PX);
+		}
+		return NONE;
+	}
+
+	private static int indexOfIgnoreCase(String s, String lower, int from) {
+		for (int i = from; i + lower.length() <= s.length(); i++) {
+			if (regionEqualsIgnoreCase(s, i, i + lower.length(), lower)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * s[start, end) 是否等于小写的 lower, 只忽略ASCII字母的大小写
+	 */
+	private static boolean regionEqualsIgnoreCase(String s, int start, int end, String lower) {
+		if (end - start != lower.length()) {
+			return false;
+		}
+		for (int i = 0; i < lower.length(); i++) {
+			char c = s.charAt(start + i);
+			if (c >= 'A' && c <= 'Z') {
+				c = (char) (c + ('a' - 'A'));
+			}
+			if (c != lower.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int skipWhitespace(String s, int i, int end) {
+		while (i < end && isWhitespace(s.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
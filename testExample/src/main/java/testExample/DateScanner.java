@@ -0,0 +1,248 @@
+package testExample;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+/**
+ * 网页日期候选的单遍扫描器 <BR>
+ * 1. 从左到右遍历网页, 按字符类别判断当前位置可能是哪些日期格式的开头; 同一级的格式一起扫描, 用到时才扫描 <BR>
+ * 2. 只在这些位置上对对应的正则做锚定匹配(lookingAt), 不再为每种格式各扫描一遍整个网页 <BR>
+ * 3. 每种格式的结果与 matcher.find() 循环得到的完全相同(位置、顺序、分组), 由 TimeUtil 的 WeightedDate 排序选择
+ *
+ */
+final class DateScanner {
+
+	/** 0-9 */
+	private static final int DIGIT = 1;
+	/** 1 或 2, 年份的第一位 */
+	private static final int YEAR_DIGIT = 1 << 1;
+	/** 前一个字符不是0-9的数字, 对应 (?<!\d) */
+	private static final int FIRST_DIGIT = 1 << 2;
+	/** 全角数字, 以及全角格式中允许的半角0 */
+	private static final int WIDE_DIGIT = 1 << 3;
+	/** 汉字数字, 以及汉字格式中允许的半角0 */
+	private static final int HANZI_DIGIT = 1 << 4;
+	/** 英文月份的首字母 */
+	private static final int MONTH = 1 << 5;
+	/** 后一个字符是0-9的非数字字符, 对应 [^\d][0-9] */
+	private static final int BEFORE_DIGIT = 1 << 6;
+
+	private static final String HANZI_DIGITS = "0〇零一二三四五六七八九十两千";
+	private static final String MONTH_INITIALS = "jfmasond";
+
+	/** TimeUtil.getDateFromHtml 的第一级: getHtmlDateL1、getHtmlDateChL1、getHtmlDateEnL1 */
+	private static final int LEVEL_1 = 0;
+	/** 第二级: getHtmlDateL2、getHtmlDateChL2、getHtmlDateL3、getHtmlDateL4、getHtmlDateChL3、getHtmlDateChL4 */
+	private static final int LEVEL_2 = 1;
+	/** 第三级: getHtmlDateChL5 */
+	private static final int LEVEL_3 = 2;
+	private static final int LEVELS = 3;
+
+	/**
+	 * 扫描的日期格式, 与 Patterns.RegEx 中同名的正则对应 <BR>
+	 * level 为使用它的级别, 同一级的格式一起扫描; start 为该格式开头字符必须具有的类别
+	 */
+	private enum Format {
+		HTML_YYYY_MM_DD_HH_MM_SS(LEVEL_1, YEAR_DIGIT),
+		HTML_YYYY_MM_DD(LEVEL_1, YEAR_DIGIT | FIRST_DIGIT),
+		HTML_MM_DD_YYYY(LEVEL_1, FIRST_DIGIT),
+		HTML_DD_MM_YYYY(LEVEL_1, FIRST_DIGIT),
+		HTML_YYYYMMDD(LEVEL_1, YEAR_DIGIT | FIRST_DIGIT),
+		HTML_YY_MM_DD(LEVEL_2, BEFORE_DIGIT),
+		HTML_MM_DD(LEVEL_2, FIRST_DIGIT),
+		HTML_YYYY_MM(LEVEL_2, BEFORE_DIGIT),
+		CN_YYYY_MM_DD_HH_MM(LEVEL_1, YEAR_DIGIT),
+		CN_YYYY_MM_DD(LEVEL_1, YEAR_DIGIT),
+		CN_YYYY_MM_DD_FULLWIDTH(LEVEL_1, WIDE_DIGIT),
+		CN_YYYY_MM_DD_HANZI(LEVEL_1, HANZI_DIGIT),
+		CN_YY_MM_DD(LEVEL_2, DIGIT),
+		CN_YY_MM_DD_FULLWIDTH(LEVEL_2, WIDE_DIGIT),
+		CN_YY_MM_DD_HANZI(LEVEL_2, HANZI_DIGIT),
+		CN_MM_DD(LEVEL_2, DIGIT),
+		CN_MM_DD_FULLWIDTH(LEVEL_2, WIDE_DIGIT),
+		CN_MM_DD_HANZI(LEVEL_2, HANZI_DIGIT),
+		CN_YYYY_MM(LEVEL_2, YEAR_DIGIT),
+		CN_YYYY_MM_FULLWIDTH(LEVEL_2, WIDE_DIGIT),
+		CN_YYYY_MM_HANZI(LEVEL_2, HANZI_DIGIT),
+		CN_YYYY(LEVEL_3, YEAR_DIGIT),
+		CN_YYYY_FULLWIDTH(LEVEL_3, WIDE_DIGIT),
+		CN_YYYY_HANZI(LEVEL_3, HANZI_DIGIT),
+		EN_HH_MM_MM_DD_YYYY(LEVEL_1, DIGIT),
+		EN_MM_DD_YYYY(LEVEL_1, MONTH),
+		EN_DD_MM_YYYY(LEVEL_1, DIGIT),
+		EN_DD_MM_YY(LEVEL_1, FIRST_DIGIT),
+		EN_DD_MM_YY2(LEVEL_1, FIRST_DIGIT),
+		EN_MM_DD_HH_MM(LEVEL_1, MONTH),
+		EN_YYYY_MM_DD(LEVEL_1, DIGIT);
+
+		final Patterns.RegEx regex;
+		final int level;
+		final int start;
+
+		Format(int level, int start) {
+			this.regex = Patterns.RegEx.valueOf(name());
+			this.level = level;
+			this.start = start;
+		}
+	}
+
+	private static final Format[] FORMATS = Format.values();
+
+	/**
+	 * RegEx.ordinal() 到 Format, 不扫描的格式为null
+	 */
+	private static final Format[] sFormats = new Format[Patterns.RegEx.values().length];
+
+	/**
+	 * 每一级的格式
+	 */
+	private static final Format[][] sLevels = new Format[LEVELS][];
+
+	static {
+		List<List<Format>> levels = new ArrayList<List<Format>>();
+		for (int level = 0; level < LEVELS; level++) {
+			levels.add(new ArrayList<Format>());
+		}
+		for (Format format : FORMATS) {
+			sFormats[format.regex.ordinal()] = format;
+			levels.get(format.level).add(format);
+		}
+		for (int level = 0; level < LEVELS; level++) {
+			sLevels[level] = levels.get(level).toArray(new Format[0]);
+		}
+	}
+
+	private final String mHtml;
+	private final List<List<MatchResult>> mMatches;
+	private final boolean[] mScanned = new boolean[LEVELS];
+
+	private DateScanner(String html) {
+		mHtml = html;
+		mMatches = new ArrayList<List<MatchResult>>(FORMATS.length);
+		for (int f = 0; f < FORMATS.length; f++) {
+			mMatches.add(null);
+		}
+	}
+
+	/**
+	 * 网页中日期格式的候选, 第一次取某一级的格式时才扫描这一级, 前面的级别找到日期时后面的不再扫描
+	 *
+	 * @param html
+	 * @return DateScanner
+	 */
+	static DateScanner of(String html) {
+		return new DateScanner(html);
+	}
+
+	/**
+	 * @return 扫描的所有日期格式
+	 */
+	static List<Patterns.RegEx> formats() {
+		List<Patterns.RegEx> formats = new ArrayList<Patterns.RegEx>(FORMATS.length);
+		for (Format format : FORMATS) {
+			formats.add(format.regex);
+		}
+		return formats;
+	}
+
+	/**
+	 * @param format
+	 * @return format 的所有匹配, 按位置排序
+	 */
+	List<MatchResult> matches(Patterns.RegEx format) {
+		Format f = sFormats[format.ordinal()];
+		if (f == null) {
+			throw new IllegalArgumentException(format + " is not a date format");
+		}
+		if (!mScanned[f.level]) {
+			scan(sLevels[f.level]);
+			mScanned[f.level] = true;
+		}
+		return Collections.unmodifiableList(mMatches.get(f.ordinal()));
+	}
+
+	/**
+	 * 遍历一次网页, 得到 formats 的所有匹配
+	 *
+	 * @param formats
+	 */
+	private void scan(Format[] formats) {
+		String html = mHtml;
+		int length = html.length();
+		Matcher[] matchers = new Matcher[formats.length];
+		int[] next = new int[formats.length];
+		List<List<MatchResult>> matches = new ArrayList<List<MatchResult>>(formats.length);
+		for (int f = 0; f < formats.length; f++) {
+			matches.add(new ArrayList<MatchResult>());
+		}
+
+		for (int i = 0; i < length; i++) {
+			int classes = classify(html, i);
+			if (classes == 0) {
+				continue;
+			}
+			for (int f = 0; f < formats.length; f++) {
+				int start = formats[f].start;
+				if (i < next[f] || (classes & start) != start) {
+					continue;
+				}
+				Matcher m = matchers[f];
+				if (m == null) {
+					m = Patterns.get(formats[f].regex).matcher(html);
+					m.useTransparentBounds(true);
+					m.useAnchoringBounds(false);
+					matchers[f] = m;
+				}
+				m.region(i, length);
+				long timing = Patterns.startTiming();
+				boolean found = m.lookingAt();
+				Patterns.stopTiming(formats[f].regex, timing);
+				if (found) {
+					matches.get(f).add(m.toMatchResult());
+					next[f] = Math.max(m.end(), i + 1);
+				}
+			}
+		}
+		for (int f = 0; f < formats.length; f++) {
+			mMatches.set(formats[f].ordinal(), matches.get(f));
+		}
+	}
+
+	private static int classify(String html, int i) {
+		char c = html.charAt(i);
+		if (isDigit(c)) {
+			int classes = DIGIT;
+			if (c == '1' || c == '2') {
+				classes |= YEAR_DIGIT;
+			}
+			if (c == '0') {
+				classes |= WIDE_DIGIT | HANZI_DIGIT;
+			}
+			if (i == 0 || !isDigit(html.charAt(i - 1))) {
+				classes |= FIRST_DIGIT;
+			}
+			return classes;
+		}
+		int classes = 0;
+		if (i + 1 < html.length() && isDigit(html.charAt(i + 1))) {
+			classes |= BEFORE_DIGIT;
+		}
+		if (c >= '０' && c <= '９') {
+			classes |= WIDE_DIGIT;
+		} else if (c < 128) {
+			if (MONTH_INITIALS.indexOf(c | 0x20) >= 0) {
+				classes |= MONTH;
+			}
+		} else if (HANZI_DIGITS.indexOf(c) >= 0) {
+			classes |= HANZI_DIGIT;
+		}
+		return classes;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
@@ -0,0 +1,692 @@
+package testExample;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.CDataNode;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Tag;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+/**
+ * 直接在DOM树上做的预处理 <BR>
+ * 代替 "body().html() 序列化 -> 正则替换 -> body().html(...) 重新解析", 不再把整个body转成字符串, 结果和重新解析得到的树一致 <BR>
+ * 少数错误嵌套的情况无法直接在树上等价处理, 只对最近的块级祖先局部重新解析
+ *
+ */
+final class DomHelper {
+
+	/**
+	 * 解析器遇到这些开始标签时会先关闭打开着的 &lt;p&gt;
+	 */
+	private static final String[] P_CLOSERS = sorted("address", "article", "aside", "blockquote", "center",
+			"details", "dir", "div", "dl", "fieldset", "figcaption", "figure", "footer", "header", "hgroup", "menu",
+			"nav", "ol", "p", "section", "summary", "ul", "h1", "h2", "h3", "h4", "h5", "h6", "pre", "listing",
+			"form", "li", "dd", "dt", "plaintext", "table", "hr", "xmp");
+
+	/**
+	 * 这些元素的结束标签会关闭里面打开着的 &lt;p&gt;
+	 */
+	private static final String[] P_CLOSING_SCOPES = sorted("address", "article", "aside", "blockquote", "button",
+			"center", "details", "dir", "div", "dl", "fieldset", "figcaption", "figure", "footer", "header", "hgroup",
+			"listing", "menu", "nav", "ol", "pre", "section", "summary", "ul", "li", "dd", "dt", "h1", "h2", "h3",
+			"h4", "h5", "h6", "body", "html", "td", "th", "caption", "applet", "marquee", "object");
+
+	/**
+	 * 解析器查找打开着的 &lt;p&gt; 时不会越过这些元素(button scope)
+	 */
+	private static final String[] SCOPE_BOUNDARIES = sorted("applet", "button", "caption", "html", "marquee",
+			"object", "table", "td", "th");
+
+	/**
+	 * 这些开始标签除了关闭 &lt;p&gt; 还会关闭外层的列表项, 或者改变后面内容的解析方式
+	 */
+	private static final String[] ESCAPING_P_CLOSERS = sorted("dd", "dt", "li", "plaintext", "xmp");
+
+	private static final String[] HEADINGS = sorted("h1", "h2", "h3", "h4", "h5", "h6");
+
+	/** scanParagraphClosers 的结果 */
+	private static final int NONE = 0;
+	private static final int CLOSER = 1;
+	private static final int ESCAPING = 2;
+
+	/**
+	 * 被 &lt;/p&gt; 关闭后, 解析器会在新段落里重建的格式化元素
+	 */
+	private static final String[] FORMATTERS = sorted("a", "b", "big", "code", "em", "i", "nobr", "s", "small",
+			"strike", "strong", "tt", "u");
+
+	private DomHelper() {
+	}
+
+	/**
+	 * 一次遍历完成: <BR>
+	 * 1. 连续两个及以上的 &lt;br&gt; (中间只有空白) 替换成段落分隔, 等价于替换成 &lt;/p&gt;&lt;p&gt; 后重新解析 <BR>
+	 * 2. &lt;font&gt; 改名为 &lt;span&gt;, 去掉所有属性
+	 *
+	 * @param root
+	 */
+	static void replaceBrsAndFonts(Element root) {
+		Node node = root;
+		while (true) {
+			Node done = null;
+			if (node instanceof Element) {
+				Element element = (Element) node;
+				if ("font".equals(element.normalName())) {
+					renameToSpan(element);
+				} else if (isBr(element)) {
+					done = collapseBreaks(root, element);
+				}
+			}
+			if (done != null) {
+				node = done;
+			} else if (node.childNodeSize() > 0) {
+				node = node.childNode(0);
+				continue;
+			}
+			while (node != root && node.nextSibling() == null) {
+				node = node.parentNode();
+			}
+			if (node == root) {
+				break;
+			}
+			node = node.nextSibling();
+		}
+	}
+
+	/**
+	 * 一次遍历完成, 等价于对 root.html() 执行 RegEx.KILL_BREAKS 替换后重新解析, 但保留原来的节点: <BR>
+	 * 1. 没有属性的 &lt;br&gt; 后面紧跟的 &lt;br&gt;、空白文本和 &amp;nbsp; 都删除, 只留下第一个 &lt;br&gt; <BR>
+	 * 2. 重新解析时 p 中的块级子元素会关闭段落(div 改成 p 之后会出现), 标题中的标题会关闭外层标题, 直接把它和后面的内容移到外层元素的后面 <BR>
+	 * 3. 块级元素在 p 的内联子元素里面等错误嵌套, 在最近的能关闭段落的祖先内重新解析; 会关闭外层列表项的情况整体重新解析
+	 *
+	 * @param root
+	 */
+	static void killBreaks(Element root) {
+		Node node = root;
+		while (true) {
+			Node done = null;
+			if (node instanceof Element) {
+				Element element = (Element) node;
+				if (isPlainBr(element)) {
+					collapseBreakRun(element);
+				} else if (element != root && "p".equals(element.normalName())) {
+					done = unnestParagraph(root, element);
+				} else if (element.parent() != root && inSorted(element.normalName(), HEADINGS)
+						&& inSorted(element.parent().normalName(), HEADINGS)) {
+					moveAfterParent(element);
+				}
+			}
+			if (done != null) {
+				node = done;
+			} else if (node.childNodeSize() > 0) {
+				node = node.childNode(0);
+				continue;
+			}
+			while (node != root && node.nextSibling() == null) {
+				node = node.parentNode();
+			}
+			if (node == root) {
+				break;
+			}
+			node = node.nextSibling();
+		}
+	}
+
+	/**
+	 * 自底向上遍历一次, 找出子树中含有块级元素的 div <BR>
+	 * 等价于对每个 div 执行 Patterns.find(blockRegEx, div.html()), 但每个节点只访问一次, 不再序列化子树
+	 *
+	 * @param root
+	 * @param blockRegEx
+	 *            匹配序列化后的开始标签, 如 RegEx.DIV_TO_P_ELEMENTS
+	 * @return 含有块级元素的 div, 按对象比较
+	 */
+	static Set<Element> findDivsWithBlocks(Element root, final Patterns.RegEx blockRegEx) {
+		final Pattern blockPattern = Patterns.get(blockRegEx);
+		final Set<Element> divs = Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>());
+		final Map<String, Boolean> tagMatches = new HashMap<String, Boolean>();
+		NodeTraversor.traverse(new NodeVisitor() {
+			/* found[depth] 表示当前深度的节点的子树(不含自身)是否已经匹配 */
+			private boolean[] found = new boolean[32];
+
+			@Override
+			public void head(Node node, int depth) {
+				if (depth == found.length) {
+					found = Arrays.copyOf(found, depth * 2);
+				}
+				found[depth] = false;
+			}
+
+			@Override
+			public void tail(Node node, int depth) {
+				boolean matched;
+				if (node instanceof Element) {
+					Element e = (Element) node;
+					if (found[depth] && "div".equals(e.normalName())) {
+						divs.add(e);
+					}
+					matched = found[depth] || startTagMatches(e);
+				} else {
+					matched = rawDataMatches(node);
+				}
+				if (matched && depth > 0) {
+					found[depth - 1] = true;
+				}
+			}
+
+			/* 序列化后的开始标签: "<" + 标签名 + 属性, 属性值里的 '<' 不会被转义 */
+			private boolean startTagMatches(Element e) {
+				Boolean tagMatched = tagMatches.get(e.normalName());
+				if (tagMatched == null) {
+					tagMatched = blockFound("<" + e.normalName());
+					tagMatches.put(e.normalName(), tagMatched);
+				}
+				if (tagMatched) {
+					return true;
+				}
+				for (Attribute attribute : e.attributes()) {
+					if (containsMatch(attribute.getKey()) || containsMatch(attribute.getValue())) {
+						return true;
+					}
+				}
+				return false;
+			}
+
+			/* 注释、script/style 的内容和 CDATA 原样输出, 普通文本里的 '<' 会被转义 */
+			private boolean rawDataMatches(Node node) {
+				if (node instanceof Comment) {
+					return containsMatch(((Comment) node).getData());
+				} else if (node instanceof DataNode) {
+					return containsMatch(((DataNode) node).getWholeData());
+				} else if (node instanceof CDataNode) {
+					return containsMatch(((CDataNode) node).text());
+				}
+				return false;
+			}
+
+			private boolean containsMatch(String s) {
+				return s.indexOf('<') >= 0 && blockFound(s);
+			}
+
+			private boolean blockFound(String s) {
+				long start = Patterns.startTiming();
+				boolean found = blockPattern.matcher(s).find();
+				Patterns.stopTiming(blockRegEx, start);
+				return found;
+			}
+		}, root);
+		return divs;
+	}
+
+	private static void renameToSpan(Element element) {
+		element.tagName("span");
+		List<String> keys = new ArrayList<String>();
+		element.attributes().forEach(attribute -> keys.add(attribute.getKey()));
+		for (String key : keys) {
+			element.removeAttr(key);
+		}
+	}
+
+	/**
+	 * 以 br 开头的连续 &lt;br&gt; 替换成段落分隔 <BR>
+	 * 按文档顺序处理, 前面的错误嵌套留下的打开着的段落已经在树上体现出来
+	 *
+	 * @param root
+	 * @param br
+	 * @return 子树已经处理完的节点, 遍历从它之后继续; 不是连续的 &lt;br&gt; 时返回null
+	 */
+	private static Node collapseBreaks(Element root, Element br) {
+		Element parent = br.parent();
+		int index = br.siblingIndex();
+		int end = index;
+		int brs = 0;
+		while (end < parent.childNodeSize()) {
+			Node child = parent.childNode(end);
+			if (isBr(child)) {
+				brs++;
+			} else if (!isBlankText(child)) {
+				break;
+			}
+			end++;
+		}
+		if (brs < 2) {
+			return null;
+		}
+
+		Element paragraph = findOpenParagraph(root, parent);
+		if (hasFormattingAncestor(root, paragraph != null ? paragraph : parent)) {
+			/* 外层的格式化元素会影响解析器对新段落的处理, 在它外面重新解析 */
+			return reparse(root, parent);
+		}
+		int stop = end;
+		if (paragraph == null) {
+			while (stop < parent.childNodeSize() && !closesParagraph(parent.childNode(stop))) {
+				stop++;
+			}
+			if (!isClosingScope(root, parent) || containsParagraphCloser(parent.childNodes().subList(end, stop))) {
+				/* 新段落会在 parent 之外或者后面内联元素的内部才被关闭, 这种错误嵌套只在最近的能关闭它的祖先内重新解析 */
+				return reparse(root, parent);
+			}
+		} else if (startsWithComment(paragraph, parent, end)) {
+			/* 注释不会触发格式化元素的重建, 会直接插入新段落 */
+			return reparse(root, paragraph.parent());
+		}
+
+		for (int i = end - 1; i >= index; i--) {
+			parent.childNode(i).remove();
+		}
+		stop -= end - index;
+		if (index < parent.childNodeSize() && parent.childNode(index) instanceof TextNode
+				&& !(parent.childNode(index) instanceof CDataNode)) {
+			TextNode text = (TextNode) parent.childNode(index);
+			text.text(stripLeadingWhitespace(text));
+		}
+
+		if (paragraph != null) {
+			splitParagraph(paragraph, parent, index);
+			return parent;
+		}
+		/* 没有打开着的 p 时, </p> 产生一个空段落, <p> 收集后面的内容直到块级元素 */
+		Element empty = newParagraph(parent);
+		Element newParagraph = newParagraph(parent);
+		newParagraph.insertChildren(0, new ArrayList<Node>(parent.childNodes().subList(index, stop)));
+		parent.insertChildren(index, Arrays.<Node> asList(empty, newParagraph));
+		return empty;
+	}
+
+	/**
+	 * 删除 br 后面紧跟的 &lt;br&gt; 和空白, 后面的文本去掉开头的空白和 &amp;nbsp;
+	 *
+	 * @param br
+	 */
+	private static void collapseBreakRun(Element br) {
+		Node next = br.nextSibling();
+		while (next != null) {
+			Node after = next.nextSibling();
+			if (isPlainBr(next)) {
+				next.remove();
+			} else if (next instanceof TextNode && !(next instanceof CDataNode)) {
+				TextNode text = (TextNode) next;
+				String s = text.getWholeText();
+				int start = 0;
+				while (start < s.length() && isBreakSpace(s.charAt(start))) {
+					start++;
+				}
+				if (start < s.length()) {
+					if (start > 0) {
+						text.text(s.substring(start));
+					}
+					return;
+				}
+				text.remove();
+			} else {
+				return;
+			}
+			next = after;
+		}
+	}
+
+	/**
+	 * 重新解析时 p 中会关闭段落的元素: 都是 p 的子元素时直接在树上拆开, 否则重新解析
+	 *
+	 * @param root
+	 * @param paragraph
+	 * @return 重新解析过的元素; 不需要处理或已经在树上拆开时返回null
+	 */
+	private static Element unnestParagraph(Element root, Element paragraph) {
+		Element parent = paragraph.parent();
+		int first = -1;
+		boolean nested = false;
+		boolean escaping = false;
+		for (Element child : paragraph.children()) {
+			if (closesParagraph(child)) {
+				escaping |= inSorted(child.normalName(), ESCAPING_P_CLOSERS);
+				if (first < 0) {
+					first = child.siblingIndex();
+				}
+			}
+			/* table 等边界元素本身会关闭段落, 但它里面的元素不会 */
+			if (inSorted(child.normalName(), SCOPE_BOUNDARIES)) {
+				continue;
+			}
+			int closers = scanParagraphClosers(child);
+			escaping |= closers == ESCAPING;
+			nested |= first < 0 && closers != NONE;
+		}
+		if (first < 0 && !nested) {
+			return null;
+		}
+		if (escaping || inSorted(parent.normalName(), HEADINGS)) {
+			return reparseBreaks(root);
+		}
+		if (nested) {
+			return reparseBreaks(closingScope(root, parent));
+		}
+
+		/* 第一个块级子元素关闭段落, 它和后面的内容移到 parent 中, 最后的 </p> 产生一个空段落 */
+		Node last = moveAfterParent(paragraph.childNode(first));
+		last.after(newParagraph(parent));
+		return null;
+	}
+
+	/**
+	 * 把 node 和它后面的兄弟节点按顺序移到父元素的后面
+	 *
+	 * @param node
+	 * @return 移动的最后一个节点
+	 */
+	private static Node moveAfterParent(Node node) {
+		Element parent = (Element) node.parentNode();
+		List<Node> moved = new ArrayList<Node>(parent.childNodes().subList(node.siblingIndex(), parent.childNodeSize()));
+		parent.parent().insertChildren(parent.siblingIndex() + 1, moved);
+		return moved.get(moved.size() - 1);
+	}
+
+	/**
+	 * @param e
+	 * @return e 的后代中(不进入 button scope 边界元素的内部)会关闭段落的元素: NONE, CLOSER 或 ESCAPING
+	 */
+	private static int scanParagraphClosers(Element e) {
+		int found = NONE;
+		for (Element child : e.children()) {
+			if (inSorted(child.normalName(), ESCAPING_P_CLOSERS)) {
+				return ESCAPING;
+			}
+			if (closesParagraph(child)) {
+				found = CLOSER;
+			}
+			if (inSorted(child.normalName(), SCOPE_BOUNDARIES)) {
+				continue;
+			}
+			int closers = scanParagraphClosers(child);
+			if (closers == ESCAPING) {
+				return ESCAPING;
+			}
+			found = Math.max(found, closers);
+		}
+		return found;
+	}
+
+	private static Element reparseBreaks(Element scope) {
+		scope.html(Patterns.replaceAll(Patterns.RegEx.KILL_BREAKS, CostReport.html(scope), "<br />"));
+		return scope;
+	}
+
+	/**
+	 * 在最近的能关闭段落的祖先内, 按原来的方式 "序列化 -> 正则替换 -> 重新解析"
+	 *
+	 * @param root
+	 * @param e
+	 * @return 重新解析过的元素
+	 */
+	private static Element reparse(Element root, Element e) {
+		Element scope = closingScope(root, e);
+		String html = Patterns.replaceAll(Patterns.RegEx.REPLACE_BRS, CostReport.html(scope), "</p><p>");
+		scope.html(Patterns.replaceAll(Patterns.RegEx.REPLACE_FONTS, html, "<$1span>"));
+		return scope;
+	}
+
+	/**
+	 * 等价于在 parent 的第 index 个子节点前关闭 paragraph 再打开一个新的 &lt;p&gt;: <BR>
+	 * 后面的内容移到新段落, 中间的格式化元素会被复制一份, 其他元素不会
+	 *
+	 * @param paragraph
+	 * @param parent
+	 * @param index
+	 */
+	private static void splitParagraph(Element paragraph, Element parent, int index) {
+		Element newParagraph = newParagraph(paragraph);
+		paragraph.after(newParagraph);
+
+		List<Element> chain = ancestors(paragraph, parent);
+		/* containers.get(i) 接收 chain.get(i) 后面的兄弟节点, 最后一个接收 parent 里剩下的子节点 */
+		List<Element> containers = new ArrayList<Element>();
+		Element container = newParagraph;
+		containers.add(container);
+		for (Element e : chain) {
+			if (inSorted(e.normalName(), FORMATTERS)) {
+				Element clone = e.shallowClone();
+				container.appendChild(clone);
+				container = clone;
+			}
+			containers.add(container);
+		}
+
+		moveChildren(parent, index, containers.get(chain.size()));
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			Element e = chain.get(i);
+			moveChildren(e.parent(), e.siblingIndex() + 1, containers.get(i));
+		}
+
+		/* 重建的格式化元素如果没有内容, 解析器不会创建它 */
+		for (int i = containers.size() - 1; i > 0; i--) {
+			Element e = containers.get(i);
+			if (e != newParagraph && e.childNodeSize() == 0 && e.parent() != null) {
+				e.remove();
+			}
+		}
+	}
+
+	/**
+	 * 段落被拆开后, 移到新段落的第一个节点是否是注释(只在中间有格式化元素时才有影响)
+	 *
+	 * @param paragraph
+	 * @param parent
+	 * @param index
+	 * @return boolean
+	 */
+	private static boolean startsWithComment(Element paragraph, Element parent, int index) {
+		List<Element> chain = ancestors(paragraph, parent);
+		boolean formatted = false;
+		for (Element e : chain) {
+			formatted |= inSorted(e.normalName(), FORMATTERS);
+		}
+		if (!formatted) {
+			return false;
+		}
+		Node next = index < parent.childNodeSize() ? parent.childNode(index) : null;
+		for (int i = chain.size() - 1; next == null && i >= 0; i--) {
+			next = chain.get(i).nextSibling();
+		}
+		return next instanceof Comment;
+	}
+
+	/**
+	 * @param ancestor
+	 * @param e
+	 * @return ancestor(不含) 到 e(含) 之间的元素, 从外到内
+	 */
+	private static List<Element> ancestors(Element ancestor, Element e) {
+		List<Element> chain = new ArrayList<Element>();
+		for (Element p = e; p != ancestor; p = p.parent()) {
+			chain.add(0, p);
+		}
+		return chain;
+	}
+
+	private static void moveChildren(Element from, int index, Element to) {
+		if (index < from.childNodeSize()) {
+			to.insertChildren(-1, new ArrayList<Node>(from.childNodes().subList(index, from.childNodeSize())));
+		}
+	}
+
+	private static Element findOpenParagraph(Element root, Element parent) {
+		for (Element e = parent; e != null && e != root; e = e.parent()) {
+			if ("p".equals(e.normalName())) {
+				return e;
+			}
+			if (inSorted(e.normalName(), SCOPE_BOUNDARIES)) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param root
+	 * @param e
+	 * @return e 或 e 最近的能关闭段落、外面没有格式化元素的祖先
+	 */
+	private static Element closingScope(Element root, Element e) {
+		Element scope = e;
+		while (!isClosingScope(root, scope) || hasFormattingAncestor(root, scope)) {
+			scope = scope.parent();
+		}
+		return scope;
+	}
+
+	private static boolean hasFormattingAncestor(Element root, Element e) {
+		for (Element p = e; p != root; p = p.parent()) {
+			if (p != e && inSorted(p.normalName(), FORMATTERS)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isClosingScope(Element root, Element e) {
+		return e == root || inSorted(e.normalName(), P_CLOSING_SCOPES);
+	}
+
+	/**
+	 * 节点的子树中是否有会关闭 &lt;p&gt; 的元素(不进入 button scope 边界元素内部)
+	 *
+	 * @param nodes
+	 * @return boolean
+	 */
+	private static boolean containsParagraphCloser(List<Node> nodes) {
+		for (Node node : nodes) {
+			if (!(node instanceof Element) || inSorted(((Element) node).normalName(), SCOPE_BOUNDARIES)) {
+				continue;
+			}
+			for (Element e : ((Element) node).getAllElements()) {
+				if (e != node && closesParagraph(e)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static Element newParagraph(Element context) {
+		return new Element(Tag.valueOf("p"), context.baseUri());
+	}
+
+	private static boolean closesParagraph(Node node) {
+		return node instanceof Element && inSorted(((Element) node).normalName(), P_CLOSERS);
+	}
+
+	private static boolean isBr(Node node) {
+		return node instanceof Element && "br".equals(((Element) node).normalName());
+	}
+
+	/**
+	 * 序列化后是 "&lt;br&gt;", 能被 RegEx.KILL_BREAKS 匹配
+	 */
+	private static boolean isPlainBr(Node node) {
+		return isBr(node) && node.attributes().size() == 0;
+	}
+
+	/**
+	 * 序列化后只有 RegEx.REPLACE_BRS 中的空白 [ \n\r\t], 见 {@link #leadingWhitespace(TextNode)}
+	 */
+	private static boolean isBlankText(Node node) {
+		if (!(node instanceof TextNode) || node instanceof CDataNode) {
+			return false;
+		}
+		TextNode text = (TextNode) node;
+		return leadingWhitespace(text) == text.getWholeText().length();
+	}
+
+	private static String stripLeadingWhitespace(TextNode text) {
+		return text.getWholeText().substring(leadingWhitespace(text));
+	}
+
+	/**
+	 * 开头能被 RegEx.REPLACE_BRS 中的 [ \n\r\t] 匹配的字符数: <BR>
+	 * 美化输出时 pre、textarea 之外的 \f 会输出成空格, 也算在内; 其他空白(如 \u000B)原样输出, 不算
+	 *
+	 * @param text
+	 * @return 开头的空白字符数
+	 */
+	private static int leadingWhitespace(TextNode text) {
+		String s = text.getWholeText();
+		int i = 0;
+		int normalised = -1;
+		while (i < s.length()) {
+			char c = s.charAt(i);
+			if (c == '\f') {
+				if (normalised < 0) {
+					normalised = normalisesWhitespace(text) ? 1 : 0;
+				}
+				if (normalised == 0) {
+					break;
+				}
+			} else if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * 与 TextNode 序列化时相同: 美化输出并且不在保留空白的元素(pre、textarea 等)中时, 空白会被合并成一个空格
+	 */
+	private static boolean normalisesWhitespace(TextNode text) {
+		Document document = text.ownerDocument();
+		if (document != null && !document.outputSettings().prettyPrint()) {
+			return false;
+		}
+		return !preserveWhitespace(text.parentNode());
+	}
+
+	/**
+	 * 与 Element.preserveWhitespace 相同, 只向上看6层
+	 */
+	static boolean preserveWhitespace(Node node) {
+		if (node instanceof Element) {
+			Element el = (Element) node;
+			int i = 0;
+			do {
+				if (el.tag().preserveWhitespace()) {
+					return true;
+				}
+				el = el.parent();
+				i++;
+			} while (i < 6 && el != null);
+		}
+		return false;
+	}
+
+	/**
+	 * RegEx.KILL_BREAKS 中的 \s 和 &amp;nbsp;
+	 */
+	private static boolean isBreakSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r' || c == '\u00A0';
+	}
+
+	private static boolean inSorted(String name, String[] sorted) {
+		return Arrays.binarySearch(sorted, name) >= 0;
+	}
+
+	private static String[] sorted(String... names) {
+		Arrays.sort(names);
+		return names;
+	}
+}
@@ -0,0 +1,308 @@
+package testExample;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 抽取过程的分阶段统计: 耗时、分配的字节数、访问的节点数和正则匹配次数 <BR>
+ * 1. 默认关闭, 关闭时 {@link #start(Phase)} 返回同一个空的 {@link Span}, 不读时钟也不分配对象 <BR>
+ * 2. 阶段可以嵌套, 每个阶段只记录自身(去掉嵌套的子阶段)的耗时和分配, 同一线程上各阶段加起来等于最外层的总数 <BR>
+ * 3. {@link Phase#PAGE} 结束时另外记录整页的总数, 以及这一页中的节点数、正则次数 <BR>
+ * 4. 结果存在无锁的 {@link Histogram} 中, 任何线程都可以随时取快照; 分配的字节数依赖 HotSpot 的
+ * com.sun.management.ThreadMXBean, 不支持时(包括虚拟线程)不记录 <BR>
+ * 5. 当前线程上有 {@link SlowPageCapture} 正在抓取时, 即使关闭统计也计时, 阶段耗时只交给 SlowPageCapture
+ *
+ */
+public final class ExtractionMetrics {
+
+	/**
+	 * 抽取的阶段
+	 */
+	public enum Phase {
+		/** PageFetcher.fetch, 不含其中的 PARSE */
+		FETCH,
+		/** 把下载的网页解析成 Document */
+		PARSE,
+		/** prepDocument */
+		PREP_DOCUMENT,
+		/** grabArticle, 不含其中的 PREP_ARTICLE、GRAB_IMG */
+		GRAB_ARTICLE,
+		/** prepArticle */
+		PREP_ARTICLE,
+		/** ReadabilityForImg.grabImg, 不含其中的 DATE_URL */
+		GRAB_IMG,
+		/** TimeUtil.getDateFromUrl */
+		DATE_URL,
+		/** TimeUtil.getDateFromHtml 中读取网页和扫描日期的部分 */
+		DATE_HTML,
+		/** TimeUtil.getDateFromHtml 第一级: L1、ChL1、EnL1 */
+		DATE_HTML_L1,
+		/** TimeUtil.getDateFromHtml 第二级: L2、ChL2、L3、L4、ChL3、ChL4 */
+		DATE_HTML_L2,
+		/** TimeUtil.getDateFromHtml 第三级: ChL5 */
+		DATE_HTML_L3,
+		/** 一个网页的完整抽取, 如 BatchExtractor 中的标题和图片抽取 */
+		PAGE
+	}
+
+	/**
+	 * 计数项
+	 */
+	public enum Counter {
+		/** grabArticle 遍历的元素和 grabImg 打分的图片 */
+		NODES_VISITED,
+		/** 通过 Patterns 取得或执行的正则 */
+		REGEX_EVALUATIONS
+	}
+
+	private static final Phase[] PHASES = Phase.values();
+	private static final Counter[] COUNTERS = Counter.values();
+
+	private static final Histogram[] sNanos = histograms(PHASES.length);
+	private static final Histogram[] sBytes = histograms(PHASES.length);
+	private static final Histogram sPageNanos = new Histogram();
+	private static final Histogram sPageBytes = new Histogram();
+	private static final Histogram[] sPageCounts = histograms(COUNTERS.length);
+	private static final LongAdder[] sCounts = new LongAdder[COUNTERS.length];
+	private static final ThreadLocal<Span> sCurrent = new ThreadLocal<Span>();
+	private static volatile boolean sEnabled;
+
+	static {
+		for (int i = 0; i < sCounts.length; i++) {
+			sCounts[i] = new LongAdder();
+		}
+	}
+
+	private ExtractionMetrics() {
+	}
+
+	/**
+	 * 一个阶段的计时, 必须在开始它的线程上按后进先出的顺序 {@link #end()}
+	 */
+	public static final class Span {
+
+		static final Span NOOP = new Span(null, null, false, 0, 0);
+
+		private final Phase phase;
+		/** 开始时是否打开了统计, 否则只为 SlowPageCapture 计时 */
+		private final boolean enabled;
+		private final Span parent;
+		private final long startNanos;
+		private final long startBytes;
+		private long childNanos;
+		private long childBytes;
+		private final long[] counts;
+
+		private Span(Phase phase, Span parent, boolean enabled, long startNanos, long startBytes) {
+			this.phase = phase;
+			this.parent = parent;
+			this.enabled = enabled;
+			this.startNanos = startNanos;
+			this.startBytes = startBytes;
+			this.counts = phase == null ? null : new long[COUNTERS.length];
+		}
+
+		/**
+		 * 结束这个阶段, 记录自身的耗时和分配, 并计入外层阶段
+		 */
+		public void end() {
+			if (phase == null) {
+				return;
+			}
+			long nanos = System.nanoTime() - startNanos;
+			long bytes = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+			SlowPageCapture.phase(phase, nanos - childNanos);
+			if (enabled) {
+				record(nanos, bytes);
+			}
+			if (parent != null) {
+				parent.childNanos += nanos;
+				if (bytes >= 0) {
+					parent.childBytes += bytes;
+				}
+				for (int i = 0; i < counts.length; i++) {
+					parent.counts[i] += counts[i];
+				}
+			}
+			sCurrent.set(parent);
+		}
+
+		private void record(long nanos, long bytes) {
+			sNanos[phase.ordinal()].record(nanos - childNanos);
+			if (bytes >= 0) {
+				sBytes[phase.ordinal()].record(bytes - childBytes);
+			}
+			if (phase == Phase.PAGE) {
+				sPageNanos.record(nanos);
+				if (bytes >= 0) {
+					sPageBytes.record(bytes);
+				}
+				for (int i = 0; i < counts.length; i++) {
+					sPageCounts[i].record(counts[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 打开或关闭统计, 默认关闭
+	 *
+	 * @param enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		sEnabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return sEnabled;
+	}
+
+	/**
+	 * 开始一个阶段, 用法: <BR>
+	 * Span span = ExtractionMetrics.start(phase); try { ... } finally { span.end(); }
+	 *
+	 * @param phase
+	 * @return Span, 关闭统计且没有 SlowPageCapture 时为同一个空的 Span
+	 */
+	public static Span start(Phase phase) {
+		boolean enabled = sEnabled;
+		if (!enabled && !SlowPageCapture.isCapturing()) {
+			return Span.NOOP;
+		}
+		Span span = new Span(phase, sCurrent.get(), enabled, System.nanoTime(), enabled ? allocatedBytes() : -1);
+		sCurrent.set(span);
+		return span;
+	}
+
+	/**
+	 * 计数, 同时计入当前线程上正在进行的阶段
+	 *
+	 * @param counter
+	 * @param n
+	 */
+	static void count(Counter counter, long n) {
+		if (!sEnabled) {
+			return;
+		}
+		sCounts[counter.ordinal()].add(n);
+		Span span = sCurrent.get();
+		if (span != null) {
+			span.counts[counter.ordinal()] += n;
+		}
+	}
+
+	/**
+	 * @param phase
+	 * @return 该阶段每次自身耗时(纳秒)的分布
+	 */
+	public static Histogram.Snapshot getNanos(Phase phase) {
+		return sNanos[phase.ordinal()].snapshot();
+	}
+
+	/**
+	 * @param phase
+	 * @return 该阶段每次自身分配字节数的分布
+	 */
+	public static Histogram.Snapshot getBytes(Phase phase) {
+		return sBytes[phase.ordinal()].snapshot();
+	}
+
+	/**
+	 * @return 每页总耗时(纳秒)的分布
+	 */
+	public static Histogram.Snapshot getPageNanos() {
+		return sPageNanos.snapshot();
+	}
+
+	/**
+	 * @return 每页总分配字节数的分布
+	 */
+	public static Histogram.Snapshot getPageBytes() {
+		return sPageBytes.snapshot();
+	}
+
+	/**
+	 * @param counter
+	 * @return 每页计数的分布
+	 */
+	public static Histogram.Snapshot getPageCounts(Counter counter) {
+		return sPageCounts[counter.ordinal()].snapshot();
+	}
+
+	/**
+	 * @param counter
+	 * @return 打开统计以来的总数
+	 */
+	public static long getCount(Counter counter) {
+		return sCounts[counter.ordinal()].sum();
+	}
+
+	/**
+	 * 清空所有统计, 不影响正在进行的阶段
+	 */
+	public static void reset() {
+		for (int i = 0; i < PHASES.length; i++) {
+			sNanos[i].reset();
+			sBytes[i].reset();
+		}
+		sPageNanos.reset();
+		sPageBytes.reset();
+		for (int i = 0; i < COUNTERS.length; i++) {
+			sPageCounts[i].reset();
+			sCounts[i].reset();
+		}
+	}
+
+	/**
+	 * @return 所有阶段和整页统计的文本摘要
+	 */
+	public static String summary() {
+		StringBuilder sb = new StringBuilder();
+		for (Phase phase : PHASES) {
+			sb.append(phase).append(" nanos: ").append(getNanos(phase)).append('\n');
+			sb.append(phase).append(" bytes: ").append(getBytes(phase)).append('\n');
+		}
+		sb.append("page nanos: ").append(getPageNanos()).append('\n');
+		sb.append("page bytes: ").append(getPageBytes()).append('\n');
+		for (Counter counter : COUNTERS) {
+			sb.append("page ").append(counter).append(": ").append(getPageCounts(counter)).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static Histogram[] histograms(int n) {
+		Histogram[] histograms = new Histogram[n];
+		for (int i = 0; i < n; i++) {
+			histograms[i] = new Histogram();
+		}
+		return histograms;
+	}
+
+	/**
+	 * 第一次打开统计时才初始化 JMX
+	 */
+	private static final class Threads {
+		static final com.sun.management.ThreadMXBean BEAN = threadMXBean();
+	}
+
+	private static com.sun.management.ThreadMXBean threadMXBean() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return 当前线程累计分配的字节数, 不支持时为-1
+	 */
+	@SuppressWarnings("deprecation")
+	static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = Threads.BEAN;
+		return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
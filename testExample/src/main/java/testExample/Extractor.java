@@ -8,6 +8,8 @@ import java.util.Comparator;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -17,13 +19,47 @@ public class Extractor {
 	public static Document getDocument(String news){
 		try{
 			//Document doc = Jsoup.parse(new URL(news).openStream(), "UTF-8", news);
-			Document doc = (Document) Jsoup.connect(news).get();
+			Document doc = getDocument(news, Jsoup.connect(news));
 			return doc;
 		}catch(IOException e){
 			e.printStackTrace();
 		}		
 		return null;
 	}
+
+	/**
+	 * 执行请求并解析, 同 Connection.get(), 并记录JFR事件; 录制时先读出整个响应以得到大小
+	 * @param news
+	 * @param connection
+	 * @return Document
+	 * @throws IOException
+	 */
+	private static Document getDocument(String news, Connection connection) throws IOException {
+		JfrEvents.Fetch event = new JfrEvents.Fetch();
+		event.begin();
+		try {
+			Connection.Response response = connection.execute();
+			event.status = response.statusCode();
+			if (event.isEnabled()) {
+				event.bytes = response.bodyAsBytes().length;
+			}
+			Document doc = response.parse();
+			WorkerMetrics.add(WorkerMetrics.Total.PAGES_FETCHED, 1);
+			return doc;
+		} catch (HttpStatusException e) {
+			event.status = e.getStatusCode();
+			event.error = e.toString();
+			WorkerMetrics.add(WorkerMetrics.Total.PAGES_FAILED, 1);
+			throw e;
+		} catch (IOException e) {
+			event.error = e.toString();
+			WorkerMetrics.add(WorkerMetrics.Total.PAGES_FAILED, 1);
+			throw e;
+		} finally {
+			event.url = news;
+			event.commit();
+		}
+	}
 	
 	public static String getTitle(Document doc){
 		
@@ -82,49 +118,59 @@ public class Extractor {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
 		}
-		for(String news: fileurl){
-			Document doc = getDocument(news);
-			if(doc != null){
-				System.out.println("succeed to get doc " + doc.title() + " ;\nurl: "+ news);
-			}else{
-				System.out.println("failed to get doc");
-			}
-//			String title = getTitle(doc);
-//			if(title != null){
-//				System.out.println("title: " + title);
-//			}
-			Document newDoc = doc.clone();
-//			try {
-//				File newsFile = new File("test/newsHTML.txt");
-//				FileUtils.writeStringToFile(newsFile, newDoc.html(), false);
-//			} catch (IOException e) {
-//				e.printStackTrace();
-//			}
-			long startTime=System.currentTimeMillis();
-			ReadabilityForImg imgRead = new ReadabilityForImg(newDoc);
-			imgRead.init();
-			long endTime=System.currentTimeMillis();
-
-			System.out.println("当前程序耗时："+(endTime-startTime)+"ms");
-//			try {
-//				File newsFile = new File("test/newsHTML.txt");
-//				FileUtils.writeStringToFile(newsFile, newDoc.html(), false);
-//			} catch (IOException e) {
-//				e.printStackTrace();
-//			}
-			System.out.println("\n*****************************************************\n");
-			List<String> imgList = imgRead.getImgList();
-			for(String img: imgList){
-				System.out.println("picture: "+img);
+		ExtractionMetrics.setEnabled(true);
+		MetricsServer metricsServer = null;
+		Integer metricsPort = Integer.getInteger("metrics.port");
+		if (metricsPort != null) {
+			try {
+				metricsServer = MetricsServer.start(metricsPort);
+			} catch (IOException e) {
+				e.printStackTrace();
 			}
+		}
+		String slowPageDir = System.getProperty("slowpage.dir");
+		if (slowPageDir != null) {
 			try {
-				File newsFile = new File("test/pictext.txt");
-				FileUtils.writeStringToFile(newsFile, "news url: "+ news + "\n" + imgList.toString() + "\n*****************************************************\n", true);
+				SlowPageCapture.enable(new File(slowPageDir), Long.getLong("slowpage.millis", 1000),
+						Integer.getInteger("slowpage.ring", 100), Integer.getInteger("slowpage.sample", 1));
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
-			System.out.println("\n*****************************************************\n");
-			//break;
+		}
+		BatchExtractor extractor = new BatchExtractor();
+		try {
+			extractor.extract(fileurl, true, new BatchExtractor.ResultHandler() {
+				@Override
+				public void onResult(BatchExtractor.Result result) {
+					String news = result.getUrl();
+					if(!result.isSuccess()){
+						System.out.println("failed to get doc " + (result.isTimedOut() ? "(timeout)" : result.getError()) + " ;\nurl: "+ news);
+						return;
+					}
+					System.out.println("succeed to get doc " + result.getTitle() + " ;\nurl: "+ news);
+					System.out.println("当前程序耗时："+result.getParseMillis()+"ms");
+					System.out.println("\n*****************************************************\n");
+					List<String> imgList = result.getImgList();
+					for(String img: imgList){
+						System.out.println("picture: "+img);
+					}
+					try {
+						File newsFile = new File("test/pictext.txt");
+						FileUtils.writeStringToFile(newsFile, "news url: "+ news + "\n" + imgList.toString() + "\n*****************************************************\n", true);
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+					System.out.println("\n*****************************************************\n");
+				}
+			});
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			extractor.shutdown();
+			if (metricsServer != null) {
+				metricsServer.stop();
+			}
+			System.out.println(ExtractionMetrics.summary());
 		}
 	}
 }
@@ -0,0 +1,156 @@
+package testExample;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的非负整数直方图 <BR>
+ * 1. 对数线性分桶: 小于 2^{@link #SUB_BITS} 的值每个值一个桶, 更大的值每个2的幂区间再等分成 2^{@link #SUB_BITS} 个桶,
+ * 相对误差不超过1/16 <BR>
+ * 2. 记录只做几次原子加法, 不加锁, 不分配对象, 多线程同时记录是安全的 <BR>
+ * 3. {@link #snapshot()} 复制当前的计数, 与同时进行的记录之间不是原子的, 个别样本可能只计入了一部分统计量
+ *
+ */
+public final class Histogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BITS + 1) * SUB_COUNT;
+
+	private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder mSum = new LongAdder();
+	private final AtomicLong mMax = new AtomicLong();
+
+	/**
+	 * @param value
+	 *            负数按0记录
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		mBuckets.incrementAndGet(bucket(value));
+		mSum.add(value);
+		long max = mMax.get();
+		while (value > max && !mMax.compareAndSet(max, value)) {
+			max = mMax.get();
+		}
+	}
+
+	public Snapshot snapshot() {
+		long[] buckets = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = mBuckets.get(i);
+			count += buckets[i];
+		}
+		return new Snapshot(buckets, count, mSum.sum(), mMax.get());
+	}
+
+	/**
+	 * 清空, 与同时进行的记录之间不是原子的
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			mBuckets.set(i, 0);
+		}
+		mSum.reset();
+		mMax.set(0);
+	}
+
+	private static int bucket(long value) {
+		if (value < SUB_COUNT) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BITS;
+		return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+	}
+
+	/**
+	 * @return 桶中最大的值
+	 */
+	private static long upperBound(int bucket) {
+		if (bucket < SUB_COUNT) {
+			return bucket;
+		}
+		int shift = bucket / SUB_COUNT - 1;
+		long lowest = (long) (SUB_COUNT + bucket % SUB_COUNT) << shift;
+		return lowest + ((1L << shift) - 1);
+	}
+
+	/**
+	 * 某一时刻的直方图
+	 */
+	public static final class Snapshot {
+		private final long[] buckets;
+		private final long count;
+		private final long sum;
+		private final long max;
+
+		Snapshot(long[] buckets, long count, long sum, long max) {
+			this.buckets = buckets;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getSum() {
+			return sum;
+		}
+
+		public long getMax() {
+			return max;
+		}
+
+		public double getMean() {
+			return count == 0 ? 0 : (double) sum / count;
+		}
+
+		/**
+		 * @param percentile
+		 *            0到100
+		 * @return 不小于该比例样本的值(所在桶的上界, 不超过最大值), 没有样本时为0
+		 */
+		public long getPercentile(double percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(percentile / 100 * count);
+			if (rank < 1) {
+				rank = 1;
+			}
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank) {
+					return Math.min(upperBound(i), max);
+				}
+			}
+			return max;
+		}
+
+		/**
+		 * @param value
+		 * @return 所在桶的上界不超过 value 的样本数, 跨过 value 的桶不计入
+		 */
+		public long getCountAtMost(long value) {
+			long seen = 0;
+			for (int i = 0; i < buckets.length && upperBound(i) <= value; i++) {
+				seen += buckets[i];
+			}
+			return seen;
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + count + " mean=" + Math.round(getMean()) + " p50=" + getPercentile(50) + " p90="
+					+ getPercentile(90) + " p99=" + getPercentile(99) + " max=" + max;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package testExample;
+
+import java.util.Arrays;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * 以元素对象为key的分数表 <BR>
+ * 开放寻址的散列表, key按 == 比较, 分数存在int数组里, 读写都不产生新对象, 也不会在DOM上留下属性
+ *
+ */
+public class IdentityScoreStore implements ScoreStore {
+
+	private Element[] keys;
+	private int[] values;
+	private int size;
+
+	public IdentityScoreStore() {
+		this(64);
+	}
+
+	/**
+	 * @param expectedSize
+	 *            预计打分的元素个数
+	 */
+	public IdentityScoreStore(int expectedSize) {
+		int capacity = 16;
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		keys = new Element[capacity];
+		values = new int[capacity];
+	}
+
+	@Override
+	public boolean has(Element e) {
+		return e != null && keys[indexOf(e)] == e;
+	}
+
+	@Override
+	public int get(Element e) {
+		if (e == null) {
+			return 0;
+		}
+		int index = indexOf(e);
+		return keys[index] == e ? values[index] : 0;
+	}
+
+	@Override
+	public void set(Element e, int score) {
+		if (e == null) {
+			throw new IllegalArgumentException("element must not be null");
+		}
+		int index = indexOf(e);
+		if (keys[index] == null) {
+			if ((size + 1) * 2 > keys.length) {
+				resize();
+				index = indexOf(e);
+			}
+			keys[index] = e;
+			size++;
+		}
+		values[index] = score;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, null);
+		size = 0;
+	}
+
+	/**
+	 * @param e
+	 * @return e所在的位置, 不存在时为应该插入的空位置
+	 */
+	private int indexOf(Element e) {
+		int mask = keys.length - 1;
+		int h = System.identityHashCode(e);
+		int index = (h ^ (h >>> 16)) & mask;
+		while (keys[index] != null && keys[index] != e) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	private void resize() {
+		Element[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new Element[oldKeys.length * 2];
+		values = new int[oldValues.length * 2];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int index = indexOf(oldKeys[i]);
+				keys[index] = oldKeys[i];
+				values[index] = oldValues[i];
+			}
+		}
+	}
+}
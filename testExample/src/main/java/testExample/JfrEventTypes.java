@@ -0,0 +1,187 @@
+package testExample;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@link JfrEvents} 对应的JFR事件, 只能在 JfrEvents.AVAILABLE 为 true 时使用 <BR>
+ * 返回值和参数都用 Object, 调用方不会因为签名而加载 jdk.jfr 的类
+ *
+ */
+final class JfrEventTypes {
+
+	private static final String CATEGORY = "ReadabilityImproved";
+
+	private JfrEventTypes() {
+	}
+
+	@Name("testExample.Extraction")
+	@Label("Extraction")
+	@Category(CATEGORY)
+	@Description("Readability.init 或 ReadabilityForImg.init")
+	static final class Extraction extends Event {
+		@Label("Extractor")
+		String extractor;
+
+		@Label("URL")
+		String url;
+
+		@Label("HTML Size")
+		@Description("抽取前的网页不带缩进序列化后的字节数")
+		@DataAmount
+		long bytes;
+
+		@Label("Nodes")
+		@Description("grabArticle 遍历的元素数")
+		int nodes;
+
+		@Label("Candidates")
+		@Description("正文候选元素数")
+		int candidates;
+
+		@Label("Top Score")
+		@Description("选中的正文元素的分数")
+		int topScore;
+
+		@Label("Retried")
+		@Description("第一遍没有找到正文, 保留可疑元素后重试")
+		boolean retried;
+
+		@Label("Images")
+		@Description("抽取到的正文图片数")
+		int images;
+	}
+
+	@Name("testExample.GrabImg")
+	@Label("Grab Images")
+	@Category(CATEGORY)
+	@Description("ReadabilityForImg.grabImg")
+	static final class GrabImg extends Event {
+		@Label("URL")
+		String url;
+
+		@Label("Images")
+		@Description("img 标签数")
+		int images;
+
+		@Label("Candidates")
+		@Description("打分的图片数")
+		int candidates;
+
+		@Label("Top Score")
+		@Description("最高的图片分数")
+		int topScore;
+
+		@Label("Selected")
+		@Description("选中的图片数")
+		int selected;
+	}
+
+	@Name("testExample.DateFromHtml")
+	@Label("Date From HTML")
+	@Category(CATEGORY)
+	@Description("TimeUtil.getDateFromHtml")
+	static final class DateFromHtml extends Event {
+		@Label("HTML Length")
+		@Description("网页的字符数")
+		int htmlLength;
+
+		@Label("Title")
+		String title;
+
+		@Label("Date")
+		String date;
+	}
+
+	@Name("testExample.Fetch")
+	@Label("Fetch")
+	@Category(CATEGORY)
+	@Description("PageFetcher.fetch 和 Extractor.getDocument")
+	static final class Fetch extends Event {
+		@Label("URL")
+		String url;
+
+		@Label("Status")
+		int status;
+
+		@Label("Body Size")
+		@Description("响应体的字节数(解压后)")
+		@DataAmount
+		long bytes;
+
+		@Label("Error")
+		String error;
+	}
+
+	/**
+	 * @param event
+	 * @return 开始计时的 event, 没有打开时为null
+	 */
+	private static Event begin(Event event) {
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	static Object beginExtraction() {
+		return begin(new Extraction());
+	}
+
+	static Object beginGrabImg() {
+		return begin(new GrabImg());
+	}
+
+	static Object beginDateFromHtml() {
+		return begin(new DateFromHtml());
+	}
+
+	static Object beginFetch() {
+		return begin(new Fetch());
+	}
+
+	static void commit(JfrEvents.Extraction fields, Object event) {
+		Extraction e = (Extraction) event;
+		e.extractor = fields.extractor;
+		e.url = fields.url;
+		e.bytes = fields.bytes;
+		e.nodes = fields.nodes;
+		e.candidates = fields.candidates;
+		e.topScore = fields.topScore;
+		e.retried = fields.retried;
+		e.images = fields.images;
+		e.commit();
+	}
+
+	static void commit(JfrEvents.GrabImg fields, Object event) {
+		GrabImg e = (GrabImg) event;
+		e.url = fields.url;
+		e.images = fields.images;
+		e.candidates = fields.candidates;
+		e.topScore = fields.topScore;
+		e.selected = fields.selected;
+		e.commit();
+	}
+
+	static void commit(JfrEvents.DateFromHtml fields, Object event) {
+		DateFromHtml e = (DateFromHtml) event;
+		e.htmlLength = fields.htmlLength;
+		e.title = fields.title;
+		e.date = fields.date;
+		e.commit();
+	}
+
+	static void commit(JfrEvents.Fetch fields, Object event) {
+		Fetch e = (Fetch) event;
+		e.url = fields.url;
+		e.status = fields.status;
+		e.bytes = fields.bytes;
+		e.error = fields.error;
+		e.commit();
+	}
+}
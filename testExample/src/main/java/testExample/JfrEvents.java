@@ -0,0 +1,178 @@
+package testExample;
+
+import java.nio.charset.StandardCharsets;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Java Flight Recorder 事件 <BR>
+ * 1. 每个事件自带开始时间和耗时, 字段记录网页地址、大小、节点数、候选数和最高分, 在录制中可以直接看出慢网页的原因 <BR>
+ * 2. 没有录制或事件被关闭时 commit 什么也不做; 只在录制时才需要额外计算的字段先检查 isEnabled() <BR>
+ * 3. 这里的类不引用 jdk.jfr, 真正的事件在 {@link JfrEventTypes} 中, 只有运行时存在 jdk.jfr.Event 时才会加载,
+ * 所以在没有JFR的 Java 8 上不记录事件, 抽取照常进行; 编译需要带 jdk.jfr 的JDK(11+ 或 8u262+)
+ *
+ */
+final class JfrEvents {
+
+	/**
+	 * 运行时是否有 jdk.jfr
+	 */
+	static final boolean AVAILABLE = isAvailable();
+
+	private JfrEvents() {
+	}
+
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 网页的大小, 在修改文档之前调用; 需要序列化整个文档, 只在录制时调用
+	 *
+	 * @param doc
+	 * @return 不带缩进序列化后的UTF-8字节数
+	 */
+	static long htmlBytes(Document doc) {
+		Document.OutputSettings settings = doc.outputSettings();
+		boolean prettyPrint = settings.prettyPrint();
+		settings.prettyPrint(false);
+		try {
+			return doc.outerHtml().getBytes(StandardCharsets.UTF_8).length;
+		} finally {
+			settings.prettyPrint(prettyPrint);
+		}
+	}
+
+	/**
+	 * begin 时创建真正的JFR事件, commit 时把字段复制过去
+	 */
+	abstract static class Base {
+		/** JfrEventTypes 中的事件, 没有 jdk.jfr 或事件没有打开时为null */
+		private Object event;
+
+		final void begin() {
+			if (AVAILABLE) {
+				event = beginEvent();
+			}
+		}
+
+		/**
+		 * @return 是否正在录制这个事件
+		 */
+		final boolean isEnabled() {
+			return event != null;
+		}
+
+		final void commit() {
+			if (event != null) {
+				commitEvent(event);
+				event = null;
+			}
+		}
+
+		abstract Object beginEvent();
+
+		abstract void commitEvent(Object event);
+	}
+
+	/**
+	 * Readability.init 或 ReadabilityForImg.init
+	 */
+	static final class Extraction extends Base {
+		String extractor;
+		String url;
+		/** 抽取前的网页不带缩进序列化后的UTF-8字节数, 只在录制时计算 */
+		long bytes;
+		/** grabArticle 遍历的元素数 */
+		int nodes;
+		/** 正文候选元素数 */
+		int candidates;
+		/** 选中的正文元素的分数 */
+		int topScore;
+		/** 第一遍没有找到正文, 保留可疑元素后重试 */
+		boolean retried;
+		/** 抽取到的正文图片数 */
+		int images;
+
+		@Override
+		Object beginEvent() {
+			return JfrEventTypes.beginExtraction();
+		}
+
+		@Override
+		void commitEvent(Object event) {
+			JfrEventTypes.commit(this, event);
+		}
+	}
+
+	/**
+	 * ReadabilityForImg.grabImg
+	 */
+	static final class GrabImg extends Base {
+		String url;
+		/** img 标签数 */
+		int images;
+		/** 打分的图片数 */
+		int candidates;
+		/** 最高的图片分数 */
+		int topScore;
+		/** 选中的图片数 */
+		int selected;
+
+		@Override
+		Object beginEvent() {
+			return JfrEventTypes.beginGrabImg();
+		}
+
+		@Override
+		void commitEvent(Object event) {
+			JfrEventTypes.commit(this, event);
+		}
+	}
+
+	/**
+	 * TimeUtil.getDateFromHtml
+	 */
+	static final class DateFromHtml extends Base {
+		/** 网页的字符数 */
+		int htmlLength;
+		String title;
+		String date;
+
+		@Override
+		Object beginEvent() {
+			return JfrEventTypes.beginDateFromHtml();
+		}
+
+		@Override
+		void commitEvent(Object event) {
+			JfrEventTypes.commit(this, event);
+		}
+	}
+
+	/**
+	 * PageFetcher.fetch 和 Extractor.getDocument
+	 */
+	static final class Fetch extends Base {
+		String url;
+		int status;
+		/** 响应体的字节数(解压后) */
+		long bytes;
+		String error;
+
+		@Override
+		Object beginEvent() {
+			return JfrEventTypes.beginFetch();
+		}
+
+		@Override
+		void commitEvent(Object event) {
+			JfrEventTypes.commit(this, event);
+		}
+	}
+}
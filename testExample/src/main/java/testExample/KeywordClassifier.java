@@ -0,0 +1,232 @@
+package testExample;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * class、id、src、alt 等属性值的关键词分类器 <BR>
+ * 1. 类加载时把 {@link #CATEGORIES} 中各正则的关键词编译成一个 Aho-Corasick 自动机, 扫描一遍字符串就得到匹配了哪些正则 <BR>
+ * 2. 结果与 Patterns.find 相同: 关键词是普通字符串, 按 CASE_INSENSITIVE 只忽略ASCII字母的大小写; 以 ^[a-zA-Z] 开头的关键词只在字符串开头匹配 <BR>
+ * 3. 正则中出现其他语法时类加载失败, 修改这些正则时只能增删关键词
+ *
+ */
+final class KeywordClassifier {
+
+	/**
+	 * 参与分类的正则, 第i个对应返回值的第i位
+	 */
+	private static final Patterns.RegEx[] CATEGORIES = { Patterns.RegEx.UNLIKELY_CANDIDATES,
+			Patterns.RegEx.OK_MAYBE_ITS_A_CANDIDATE, Patterns.RegEx.POSITIVE, Patterns.RegEx.NEGATIVE,
+			Patterns.RegEx.IMG_ARTICLE_UNLIKELY_CANDIDATES, Patterns.RegEx.IMG_ARTICLE_POSITIVE,
+			Patterns.RegEx.IMG_ARTICLE_NEGATIVE, Patterns.RegEx.POSITIVE_IMG, Patterns.RegEx.NEGATIVE_IMG,
+			Patterns.RegEx.REMOVE_IMG };
+
+	private static final String LEADING_LETTER = "^[a-zA-Z]";
+	private static final String SPECIAL_CHARS = "\\^$.|?*+()[]{}";
+
+	/**
+	 * RegEx.ordinal() 到返回值中的位, 不参与分类的为0
+	 */
+	private static final int[] sBits = new int[Patterns.RegEx.values().length];
+	/** ASCII字符(大写转成小写)到字母表下标, 关键词中没有的为-1 */
+	private static final int[] sAsciiSymbols = new int[128];
+	/** 关键词中的非ASCII字符, 排好序, 下标加上 sAsciiCount 为字母表下标 */
+	private static final char[] sOtherChars;
+	private static final int sAsciiCount;
+	/** sTransitions[state * 字母表大小 + symbol]: 已经包含失败转移的状态转移表 */
+	private static final int[] sTransitions;
+	/** 到达该状态时匹配到的正则, 包含失败链上的 */
+	private static final int[] sOutputs;
+	private static final int sSymbols;
+	/** ^[a-zA-Z] 开头的关键词: 第二个字符起的部分, 和对应的位 */
+	private static final List<String> sLeadingKeywords = new ArrayList<String>();
+	private static final List<Integer> sLeadingBits = new ArrayList<Integer>();
+
+	static {
+		List<String> keywords = new ArrayList<String>();
+		List<Integer> bits = new ArrayList<Integer>();
+		for (int i = 0; i < CATEGORIES.length; i++) {
+			int bit = 1 << i;
+			sBits[CATEGORIES[i].ordinal()] = bit;
+			for (String keyword : Patterns.regex(CATEGORIES[i]).split("\\|")) {
+				if (keyword.startsWith(LEADING_LETTER)) {
+					sLeadingKeywords.add(literal(keyword.substring(LEADING_LETTER.length())));
+					sLeadingBits.add(bit);
+				} else {
+					keywords.add(literal(keyword));
+					bits.add(bit);
+				}
+			}
+		}
+
+		/* 字母表: 只包含关键词中出现的字符 */
+		Arrays.fill(sAsciiSymbols, -1);
+		StringBuilder others = new StringBuilder();
+		int ascii = 0;
+		for (String keyword : keywords) {
+			for (char c : keyword.toCharArray()) {
+				if (c < 128) {
+					if (sAsciiSymbols[c] < 0) {
+						sAsciiSymbols[c] = ascii++;
+					}
+				} else if (others.indexOf(String.valueOf(c)) < 0) {
+					others.append(c);
+				}
+			}
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			sAsciiSymbols[c] = sAsciiSymbols[c + ('a' - 'A')];
+		}
+		sAsciiCount = ascii;
+		sOtherChars = others.toString().toCharArray();
+		Arrays.sort(sOtherChars);
+		sSymbols = ascii + sOtherChars.length;
+
+		/* 构造字典树 */
+		int capacity = 1;
+		for (String keyword : keywords) {
+			capacity += keyword.length();
+		}
+		int[] transitions = new int[capacity * sSymbols];
+		int[] outputs = new int[capacity];
+		Arrays.fill(transitions, -1);
+		int states = 1;
+		for (int k = 0; k < keywords.size(); k++) {
+			int state = 0;
+			for (char c : keywords.get(k).toCharArray()) {
+				int next = transitions[state * sSymbols + symbol(c)];
+				if (next < 0) {
+					next = states++;
+					transitions[state * sSymbols + symbol(c)] = next;
+				}
+				state = next;
+			}
+			outputs[state] |= bits.get(k);
+		}
+
+		/* 按层次遍历补全失败转移, 得到确定自动机 */
+		int[] fail = new int[states];
+		int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+		for (int s = 0; s < sSymbols; s++) {
+			int next = transitions[s];
+			if (next < 0) {
+				transitions[s] = 0;
+			} else {
+				fail[next] = 0;
+				queue[tail++] = next;
+			}
+		}
+		while (head < tail) {
+			int state = queue[head++];
+			outputs[state] |= outputs[fail[state]];
+			for (int s = 0; s < sSymbols; s++) {
+				int next = transitions[state * sSymbols + s];
+				int fallback = transitions[fail[state] * sSymbols + s];
+				if (next < 0) {
+					transitions[state * sSymbols + s] = fallback;
+				} else {
+					fail[next] = fallback;
+					queue[tail++] = next;
+				}
+			}
+		}
+		sTransitions = transitions;
+		sOutputs = outputs;
+	}
+
+	private KeywordClassifier() {
+	}
+
+	/**
+	 * 扫描一遍 input, 得到匹配的正则
+	 *
+	 * @param input
+	 *            可以为null, 此时没有匹配
+	 * @return 匹配的正则对应的位, 用 {@link #has(int, Patterns.RegEx)} 判断
+	 */
+	static int classify(CharSequence input) {
+		if (input == null) {
+			return 0;
+		}
+		int length = input.length();
+		int matched = 0;
+		if (length > 0 && isAsciiLetter(input.charAt(0))) {
+			for (int k = 0; k < sLeadingKeywords.size(); k++) {
+				if (startsWithIgnoreAsciiCase(input, 1, sLeadingKeywords.get(k))) {
+					matched |= sLeadingBits.get(k);
+				}
+			}
+		}
+		int state = 0;
+		for (int i = 0; i < length; i++) {
+			int symbol = symbol(input.charAt(i));
+			state = symbol < 0 ? 0 : sTransitions[state * sSymbols + symbol];
+			matched |= sOutputs[state];
+		}
+		return matched;
+	}
+
+	/**
+	 * @param matched
+	 *            {@link #classify(CharSequence)} 的返回值
+	 * @param re
+	 * @return 是否匹配了 re, 与 Patterns.find(re, input) 相同
+	 */
+	static boolean has(int matched, Patterns.RegEx re) {
+		int bit = sBits[re.ordinal()];
+		if (bit == 0) {
+			throw new IllegalArgumentException(re + " is not a keyword list");
+		}
+		return (matched & bit) != 0;
+	}
+
+	private static int symbol(char c) {
+		if (c < 128) {
+			return sAsciiSymbols[c];
+		}
+		int index = Arrays.binarySearch(sOtherChars, c);
+		return index < 0 ? -1 : sAsciiCount + index;
+	}
+
+	/**
+	 * 检查关键词中没有正则语法, 返回小写的关键词
+	 */
+	private static String literal(String keyword) {
+		if (keyword.isEmpty()) {
+			throw new IllegalStateException("empty keyword");
+		}
+		for (char c : keyword.toCharArray()) {
+			if (SPECIAL_CHARS.indexOf(c) >= 0) {
+				throw new IllegalStateException("not a plain keyword: " + keyword);
+			}
+		}
+		StringBuilder lower = new StringBuilder(keyword.length());
+		for (char c : keyword.toCharArray()) {
+			lower.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+		}
+		return lower.toString();
+	}
+
+	private static boolean startsWithIgnoreAsciiCase(CharSequence input, int offset, String keyword) {
+		if (input.length() - offset < keyword.length()) {
+			return false;
+		}
+		for (int i = 0; i < keyword.length(); i++) {
+			char c = input.charAt(offset + i);
+			if (c >= 'A' && c <= 'Z') {
+				c = (char) (c + ('a' - 'A'));
+			}
+			if (c != keyword.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAsciiLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+}
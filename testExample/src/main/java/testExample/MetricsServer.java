@@ -0,0 +1,168 @@
+package testExample;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 以 Prometheus 文本格式输出 {@link ExtractionMetrics} 和 {@link WorkerMetrics} 的内置HTTP服务 <BR>
+ * 1. 路径为 /metrics, 由一个单独的守护线程处理请求 <BR>
+ * 2. 每次请求只读取统计的快照, 不加锁, 不影响正在抽取的线程 <BR>
+ * 3. 耗时输出为 histogram, 单位为秒; 每个 le 只计入整个桶都不超过它的样本, 相对误差见 {@link Histogram}
+ *
+ */
+public final class MetricsServer {
+
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	/**
+	 * histogram 的上界(秒)
+	 */
+	private static final double[] BUCKET_SECONDS = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5,
+			5, 10, 30 };
+
+	private final HttpServer mServer;
+	private final ExecutorService mExecutor;
+
+	private MetricsServer(HttpServer server, ExecutorService executor) {
+		mServer = server;
+		mExecutor = executor;
+	}
+
+	/**
+	 * 在 port 上启动服务, 并打开 {@link ExtractionMetrics}
+	 *
+	 * @param port
+	 *            0 表示任意空闲端口, 见 {@link #getPort()}
+	 * @return MetricsServer
+	 * @throws IOException
+	 *             端口无法绑定
+	 */
+	public static MetricsServer start(int port) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+		ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "metrics-http");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.createContext("/metrics", MetricsServer::handle);
+		server.setExecutor(executor);
+		ExtractionMetrics.setEnabled(true);
+		server.start();
+		return new MetricsServer(server, executor);
+	}
+
+	public int getPort() {
+		return mServer.getAddress().getPort();
+	}
+
+	/**
+	 * 停止服务, 不关闭统计
+	 */
+	public void stop() {
+		mServer.stop(0);
+		mExecutor.shutdown();
+	}
+
+	private static void handle(HttpExchange exchange) throws IOException {
+		try {
+			byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			if ("HEAD".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			OutputStream out = exchange.getResponseBody();
+			out.write(body);
+			out.close();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * @return 当前所有统计的 Prometheus 文本格式
+	 */
+	public static String scrape() {
+		StringBuilder sb = new StringBuilder();
+		header(sb, "readability_pages_total", "counter", "Pages fetched, by result.");
+		sample(sb, "readability_pages_total", "result", "fetched", WorkerMetrics.get(WorkerMetrics.Total.PAGES_FETCHED));
+		sample(sb, "readability_pages_total", "result", "failed", WorkerMetrics.get(WorkerMetrics.Total.PAGES_FAILED));
+
+		header(sb, "readability_init_retries_total", "counter",
+				"Readability re-runs of init(true) after finding no content.");
+		sample(sb, "readability_init_retries_total", null, null, WorkerMetrics.get(WorkerMetrics.Total.INIT_RETRIES));
+
+		header(sb, "readability_images_extracted_total", "counter", "Content images extracted by ReadabilityForImg.");
+		sample(sb, "readability_images_extracted_total", null, null,
+				WorkerMetrics.get(WorkerMetrics.Total.IMAGES_EXTRACTED));
+
+		header(sb, "readability_slow_page_write_failures_total", "counter",
+				"Slow page captures that could not be written to disk.");
+		sample(sb, "readability_slow_page_write_failures_total", null, null, SlowPageCapture.getWriteFailures());
+
+		header(sb, "readability_date_source_total", "counter", "Dates found by getDateFromHtml, by matching method.");
+		for (WorkerMetrics.DateSource source : WorkerMetrics.DateSource.values()) {
+			sample(sb, "readability_date_source_total", "source", source.name().toLowerCase(Locale.ROOT),
+					WorkerMetrics.get(source));
+		}
+
+		header(sb, "readability_extraction_seconds", "histogram", "Time spent in init(), by extractor class.");
+		for (Map.Entry<String, Histogram.Snapshot> entry : WorkerMetrics.getExtractionNanos().entrySet()) {
+			histogram(sb, "readability_extraction_seconds", "class", entry.getKey(), entry.getValue());
+		}
+
+		header(sb, "readability_phase_seconds", "histogram", "Self time of each extraction phase.");
+		for (ExtractionMetrics.Phase phase : ExtractionMetrics.Phase.values()) {
+			histogram(sb, "readability_phase_seconds", "phase", phase.name().toLowerCase(Locale.ROOT),
+					ExtractionMetrics.getNanos(phase));
+		}
+
+		for (ExtractionMetrics.Counter counter : ExtractionMetrics.Counter.values()) {
+			String name = "readability_" + counter.name().toLowerCase(Locale.ROOT) + "_total";
+			header(sb, name, "counter", null);
+			sample(sb, name, null, null, ExtractionMetrics.getCount(counter));
+		}
+		return sb.toString();
+	}
+
+	private static void header(StringBuilder sb, String name, String type, String help) {
+		if (help != null) {
+			sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		}
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder sb, String name, String label, String value, long count) {
+		sb.append(name);
+		if (label != null) {
+			sb.append('{').append(label).append("=\"").append(value).append("\"}");
+		}
+		sb.append(' ').append(count).append('\n');
+	}
+
+	/**
+	 * 输出纳秒直方图, 转换成秒
+	 */
+	private static void histogram(StringBuilder sb, String name, String label, String value,
+			Histogram.Snapshot snapshot) {
+		String labels = label + "=\"" + value + "\"";
+		for (double seconds : BUCKET_SECONDS) {
+			sb.append(name).append("_bucket{").append(labels).append(",le=\"").append(seconds).append("\"} ")
+					.append(snapshot.getCountAtMost((long) (seconds * 1e9))).append('\n');
+		}
+		sb.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(snapshot.getCount())
+				.append('\n');
+		sb.append(name).append("_sum{").append(labels).append("} ").append(snapshot.getSum() / 1e9).append('\n');
+		sb.append(name).append("_count{").append(labels).append("} ").append(snapshot.getCount()).append('\n');
+	}
+}
@@ -0,0 +1,53 @@
+package testExample;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.jsoup.nodes.Node;
+
+/**
+ * 一次 grabImg 中所有图片共用的网页时间 <BR>
+ * 1. 网页的发布时间只从 baseUri 中取一次, 不再为每张图片调用 TimeUtil.getDateFromUrl <BR>
+ * 2. 网页没有发布时间时, 图片时间与开始打分的时间比较, 同一网页的所有图片用同一个时间
+ *
+ */
+final class PageDates {
+
+	/**
+	 * TimeUtil 没有状态, 所有网页、所有图片共用一个
+	 */
+	static final TimeUtil TIME_UTIL = new TimeUtil();
+
+	/** 是否从 baseUri 中取到了发布时间 */
+	final boolean hasPublishTime;
+	/** 发布当天零点, 取到的时间无法解析时为null */
+	final LocalDateTime published;
+	/** 开始打分的时间 */
+	final LocalDateTime now;
+
+	private PageDates(String publishTime) {
+		hasPublishTime = publishTime != null && publishTime.length() != 0;
+		published = hasPublishTime ? toDateTime(publishTime) : null;
+		now = LocalDateTime.now();
+	}
+
+	/**
+	 * @param root
+	 *            图片所在的树的根节点
+	 * @return root 所在网页的时间
+	 */
+	static PageDates of(Node root) {
+		return new PageDates(TIME_UTIL.getDateFromUrl(root.baseUri()));
+	}
+
+	/**
+	 * 将yyyy-mm-dd格式字符串转换成当天零点
+	 *
+	 * @param time
+	 * @return 无法解析时为null
+	 */
+	static LocalDateTime toDateTime(String time) {
+		LocalDate date = TimeUtil.parseDate(time);
+		return date == null ? null : date.atStartOfDay();
+	}
+}
@@ -0,0 +1,440 @@
+package testExample;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+/**
+ * 网页下载器 <BR>
+ * 1. 每个下载任务运行在虚拟线程上(JDK 21+), 低版本JDK退回到固定大小的线程池 <BR>
+ * 2. 同一个host同时下载的数量有上限, 没有在下载的host不再保留 <BR>
+ * 3. 连接超时和读取超时分别设置 <BR>
+ * 4. 自己跟随重定向(包括 http 与 https 之间), 最多 {@value #MAX_REDIRECTS} 次; 其他非2xx的状态都是失败 <BR>
+ * 5. 只下载 http/https 的URL, 初始URL和重定向目标都检查 <BR>
+ * 6. 响应体(解压后)最多读取 {@value #MAX_BODY_BYTES} 字节, 超过时失败, 错误为 {@link ResponseTooLargeException} <BR>
+ * 7. 返回 {@link FetchResult}, 不会返回null, 也不会吞掉异常 <BR>
+ * 8. 每次下载记录一个JFR事件 {@link JfrEvents.Fetch}
+ *
+ */
+public class PageFetcher {
+
+	/**
+	 * 没有虚拟线程时使用的线程数
+	 */
+	private static final int FALLBACK_THREADS = 64;
+
+	private static final String USER_AGENT = "Mozilla/5.0 (compatible; ReadabilityImproved)";
+
+	/**
+	 * 最多跟随的重定向次数
+	 */
+	private static final int MAX_REDIRECTS = 10;
+
+	/**
+	 * 响应体(解压后)最多读取的字节数
+	 */
+	private static final long MAX_BODY_BYTES = 16L * 1024 * 1024;
+
+	/**
+	 * 响应体超过 {@value #MAX_BODY_BYTES} 字节
+	 */
+	public static class ResponseTooLargeException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		ResponseTooLargeException(String url) {
+			super("Response body exceeds " + MAX_BODY_BYTES + " bytes: " + url);
+		}
+	}
+
+	/**
+	 * 一个host的并发上限, users 为正在下载和等待的数量, 只在 hostLimits 的 compute 中修改
+	 */
+	private static final class HostLimit {
+		final Semaphore permits;
+		int users;
+
+		HostLimit(int maxPerHost) {
+			permits = new Semaphore(maxPerHost);
+		}
+	}
+
+	/**
+	 * 下载结果
+	 */
+	public static class FetchResult {
+		private final String url;
+		private final Document document;
+		private final int status;
+		private final long bytes;
+		private final long latencyMillis;
+		private final Throwable error;
+
+		FetchResult(String url, Document document, int status, long bytes, long latencyMillis, Throwable error) {
+			this.url = url;
+			this.document = document;
+			this.status = status;
+			this.bytes = bytes;
+			this.latencyMillis = latencyMillis;
+			this.error = error;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		/**
+		 * @return 解析后的网页, 失败时为null
+		 */
+		public Document getDocument() {
+			return document;
+		}
+
+		/**
+		 * @return HTTP状态码, 没有收到响应时为-1
+		 */
+		public int getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return 读取的响应体字节数(解压后), 没有读取时为0
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		public long getLatencyMillis() {
+			return latencyMillis;
+		}
+
+		public Throwable getError() {
+			return error;
+		}
+
+		public boolean isSuccess() {
+			return document != null;
+		}
+	}
+
+	private final int connectTimeoutMillis;
+	private final int readTimeoutMillis;
+	private final int maxPerHost;
+	private final ExecutorService executor;
+	private final ConcurrentHashMap<String, HostLimit> hostLimits = new ConcurrentHashMap<String, HostLimit>();
+
+	/**
+	 * @param connectTimeoutMillis
+	 *            连接超时
+	 * @param readTimeoutMillis
+	 *            读取超时(两次读取之间的最长等待时间)
+	 * @param maxPerHost
+	 *            同一个host最多同时下载的数量
+	 */
+	public PageFetcher(int connectTimeoutMillis, int readTimeoutMillis, int maxPerHost) {
+		this.connectTimeoutMillis = connectTimeoutMillis;
+		this.readTimeoutMillis = readTimeoutMillis;
+		this.maxPerHost = maxPerHost;
+		this.executor = newFetchExecutor();
+	}
+
+	public PageFetcher() {
+		this(10000, 30000, 4);
+	}
+
+	/**
+	 * 在下载线程上异步下载
+	 *
+	 * @param url
+	 * @return 不被取消时总是正常完成的future; cancel(true) 会中断下载线程, 虚拟线程上阻塞的连接和读取立即失败
+	 */
+	public CompletableFuture<FetchResult> fetchAsync(final String url) {
+		final CompletableFuture<FetchResult> result = new CompletableFuture<FetchResult>();
+		final Future<?> task = executor.submit(() -> {
+			result.complete(fetch(url));
+		});
+		result.whenComplete((r, t) -> {
+			if (result.isCancelled()) {
+				task.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 在当前线程上同步下载, 受同一个host的并发上限限制
+	 *
+	 * @param url
+	 * @return FetchResult
+	 */
+	public FetchResult fetch(String url) {
+		ExtractionMetrics.Span span = ExtractionMetrics.start(ExtractionMetrics.Phase.FETCH);
+		JfrEvents.Fetch event = new JfrEvents.Fetch();
+		event.begin();
+		try {
+			FetchResult result = fetchUrl(url);
+			WorkerMetrics.add(result.isSuccess() ? WorkerMetrics.Total.PAGES_FETCHED : WorkerMetrics.Total.PAGES_FAILED,
+					1);
+			event.status = result.getStatus();
+			event.bytes = result.getBytes();
+			if (result.getError() != null) {
+				event.error = result.getError().toString();
+			}
+			return result;
+		} finally {
+			event.url = url;
+			event.commit();
+			span.end();
+		}
+	}
+
+	private FetchResult fetchUrl(String url) {
+		long start = System.currentTimeMillis();
+		String location = url;
+		int status = -1;
+		CountingInputStream body = null;
+		for (int redirects = 0;; redirects++) {
+			URL target;
+			try {
+				target = new URL(location);
+				if (!isHttp(target)) {
+					throw new IOException("Unsupported URL: " + target);
+				}
+			} catch (IOException e) {
+				return new FetchResult(url, null, status, 0, System.currentTimeMillis() - start, e);
+			}
+			String host = target.getHost();
+			HostLimit hostLimit = acquire(host);
+			try {
+				hostLimit.permits.acquire();
+			} catch (InterruptedException e) {
+				release(host, hostLimit, false);
+				Thread.currentThread().interrupt();
+				return new FetchResult(url, null, status, 0, System.currentTimeMillis() - start, e);
+			}
+			try {
+				URLConnection connection = target.openConnection();
+				connection.setConnectTimeout(connectTimeoutMillis);
+				connection.setReadTimeout(readTimeoutMillis);
+				connection.setRequestProperty("User-Agent", USER_AGENT);
+				connection.setRequestProperty("Accept-Encoding", "gzip");
+				if (connection instanceof HttpURLConnection) {
+					HttpURLConnection http = (HttpURLConnection) connection;
+					http.setInstanceFollowRedirects(false);
+					status = http.getResponseCode();
+					if (isRedirect(status)) {
+						location = redirectLocation(http, target, redirects);
+						http.disconnect();
+						continue;
+					}
+					if (status < 200 || status >= 300) {
+						http.disconnect();
+						return new FetchResult(url, null, status, 0, System.currentTimeMillis() - start,
+								new IOException("HTTP error fetching URL: " + status));
+					}
+					if (http.getContentLengthLong() > MAX_BODY_BYTES) {
+						http.disconnect();
+						throw new ResponseTooLargeException(target.toString());
+					}
+				}
+				InputStream in = connection.getInputStream();
+				try {
+					if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+						in = new GZIPInputStream(in);
+					}
+					body = new CountingInputStream(in, target.toString());
+					Document doc;
+					ExtractionMetrics.Span span = ExtractionMetrics.start(ExtractionMetrics.Phase.PARSE);
+					try {
+						doc = Jsoup.parse(body, getCharset(connection.getContentType()), connection.getURL().toString());
+					} finally {
+						span.end();
+					}
+					return new FetchResult(url, doc, status, body.count, System.currentTimeMillis() - start, null);
+				} finally {
+					in.close();
+				}
+			} catch (IOException e) {
+				return new FetchResult(url, null, status, body == null ? 0 : body.count,
+						System.currentTimeMillis() - start, e);
+			} finally {
+				release(host, hostLimit, true);
+			}
+		}
+	}
+
+	private static boolean isRedirect(int status) {
+		return status == HttpURLConnection.HTTP_MOVED_PERM || status == HttpURLConnection.HTTP_MOVED_TEMP
+				|| status == HttpURLConnection.HTTP_SEE_OTHER || status == 307 || status == 308;
+	}
+
+	/**
+	 * @param http
+	 *            重定向的响应
+	 * @param target
+	 *            请求的URL, 用于解析相对的 Location
+	 * @param redirects
+	 *            已经跟随的次数
+	 * @return 下一个要请求的URL
+	 * @throws IOException
+	 *             没有 Location、不是 http/https 或者次数超过上限
+	 */
+	private static String redirectLocation(HttpURLConnection http, URL target, int redirects) throws IOException {
+		String location = http.getHeaderField("Location");
+		if (location == null) {
+			throw new IOException("HTTP redirect without Location: " + http.getResponseCode());
+		}
+		if (redirects >= MAX_REDIRECTS) {
+			throw new IOException("Too many redirects fetching URL: " + MAX_REDIRECTS);
+		}
+		URL next = new URL(target, location);
+		if (!isHttp(next)) {
+			throw new IOException("Unsupported redirect: " + next);
+		}
+		return next.toString();
+	}
+
+	/**
+	 * file:、jar:、ftp: 等会读本地文件或者走其他协议, 都不下载
+	 */
+	private static boolean isHttp(URL url) {
+		return "http".equalsIgnoreCase(url.getProtocol()) || "https".equalsIgnoreCase(url.getProtocol());
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * 取得 host 的并发上限并登记使用, 必须调用 {@link #release(String, HostLimit, boolean)}
+	 */
+	private HostLimit acquire(String host) {
+		return hostLimits.compute(host, (h, limit) -> {
+			if (limit == null) {
+				limit = new HostLimit(maxPerHost);
+			}
+			limit.users++;
+			return limit;
+		});
+	}
+
+	/**
+	 * 结束使用, 没有其他下载和等待时从表中删除
+	 *
+	 * @param host
+	 * @param limit
+	 * @param acquired
+	 *            是否已经取得了许可
+	 */
+	private void release(String host, HostLimit limit, boolean acquired) {
+		if (acquired) {
+			limit.permits.release();
+		}
+		hostLimits.computeIfPresent(host, (h, l) -> --l.users == 0 ? null : l);
+	}
+
+	/**
+	 * 统计读取的字节数, 超过 {@value #MAX_BODY_BYTES} 时抛出 {@link ResponseTooLargeException}
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+		private final String url;
+		long count;
+
+		CountingInputStream(InputStream in, String url) {
+			super(in);
+			this.url = url;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				add(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				add(n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			add(skipped);
+			return skipped;
+		}
+
+		private void add(long n) throws IOException {
+			count += n;
+			if (count > MAX_BODY_BYTES) {
+				throw new ResponseTooLargeException(url);
+			}
+		}
+	}
+
+	/**
+	 * 从Content-Type中获取编码, 没有或不支持时返回null, 由jsoup根据meta标签检测
+	 *
+	 * @param contentType
+	 * @return charset OR null
+	 */
+	private static String getCharset(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		int index = contentType.toLowerCase().indexOf("charset=");
+		if (index < 0) {
+			return null;
+		}
+		String charset = contentType.substring(index + "charset=".length()).trim();
+		int end = charset.indexOf(';');
+		if (end >= 0) {
+			charset = charset.substring(0, end).trim();
+		}
+		charset = charset.replace("\"", "").replace("'", "");
+		try {
+			return Charset.isSupported(charset) ? charset : null;
+		} catch (IllegalCharsetNameException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * JDK 21+ 使用虚拟线程, 否则使用固定大小的守护线程池
+	 *
+	 * @return ExecutorService
+	 */
+	private static ExecutorService newFetchExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(FALLBACK_THREADS, r -> {
+				Thread thread = new Thread(r, "page-fetch");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+}
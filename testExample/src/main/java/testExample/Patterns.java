@@ -0,0 +1,320 @@
+package testExample;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Readability, ReadabilityForImg, TimeUtil 共用的正则表达式 <BR>
+ * 1. 所有正则在类加载时编译一次, 之后只读, 多线程首次使用也是安全的 <BR>
+ * 2. 只有依赖运行时数据(如网页标题)的正则才通过 {@link #compile(String, int)} 临时编译, 并计数 <BR>
+ * 3. 打开 {@link #setTimingEnabled(boolean)} 后, 通过 find、findFirst、matches、replaceAll、split 的匹配会统计次数和耗时;
+ * 直接使用 {@link #get(RegEx)} 的 Matcher 时用 {@link #startTiming()}、{@link #stopTiming(RegEx, long)} 计时
+ *
+ */
+public final class Patterns {
+
+	public enum RegEx {
+		/* Readability: 正文评分 */
+		UNLIKELY_CANDIDATES("combx|comment|disqus|foot|header|menu|meta|nav|rss|shoutbox|sidebar|sponsor", Pattern.CASE_INSENSITIVE),
+		OK_MAYBE_ITS_A_CANDIDATE("and|article|body|column|main", Pattern.CASE_INSENSITIVE),
+		POSITIVE("article|body|content|entry|hentry|page|pagination|post|text", Pattern.CASE_INSENSITIVE),
+		NEGATIVE("combx|comment|contact|foot|footer|footnote|link|media|meta|promo|related|scroll|shoutbox|sponsor|tags|widget", Pattern.CASE_INSENSITIVE),
+		DIV_TO_P_ELEMENTS("<(a|blockquote|dl|div|img|ol|p|pre|table|ul)", Pattern.CASE_INSENSITIVE),
+		VIDEO("http:\\/\\/(www\\.)?(youtube|vimeo)\\.com", Pattern.CASE_INSENSITIVE),
+		/* ReadabilityForImg: 正文评分, 与Readability的版本略有不同 */
+		IMG_ARTICLE_UNLIKELY_CANDIDATES("combx|comment|disqus|foot|menu|meta|nav|rss|shoutbox|sidebar|sponsor", Pattern.CASE_INSENSITIVE),
+		IMG_ARTICLE_POSITIVE("article|body|content|entry|hentry|page|pagination|post|text|main", Pattern.CASE_INSENSITIVE),
+		IMG_ARTICLE_NEGATIVE("combx|comment|contact|foot|footer|footnote|link|media|meta|promo|related|scroll|shoutbox|sponsor|tags|widget|share|scan", Pattern.CASE_INSENSITIVE),
+		/* ReadabilityForImg: 图片评分 */
+		IMGPARENT_CANDIDATES("center|text-align(\\s)?:(\\s)?center", Pattern.CASE_INSENSITIVE),
+		IMG_UNLIKELY_CANDIDATES("display(\\s)?:(\\s)?none", Pattern.CASE_INSENSITIVE),
+		POSITIVE_IMG("article|body|content|entry|hentry|image-container|main|news|page|photo|post|text", Pattern.CASE_INSENSITIVE),
+		NEGATIVE_IMG("bar|combx|cursor|header|link|pointer|promo|related|scroll|share|shoutbox|uppage|widget", Pattern.CASE_INSENSITIVE),
+		REMOVE_IMG("-ads|ad1|ad2|^[a-zA-Z]ads|advertise|comment|contact|facebook|flashplayer|foot|icon|logo"
+				+ "|meta|qq|qrcode|scan|sina|sponsor|tags|twitter|vote|weibo|weixin|点赞|分享|参与互动|微信公众号", Pattern.CASE_INSENSITIVE),
+		/* 文本和HTML片段处理 */
+		NORMALIZE("\\s{2,}"),
+		KILL_BREAKS("(<br\\s*\\/?>(\\s|&nbsp;?)*){1,}"),
+		BR_BEFORE_P("(?i)<br[^>]*>\\s*<p"),
+		REPLACE_BRS("(?i)(<br[^>]*>[ \n\r\t]*){2,}"),
+		REPLACE_FONTS("(?i)<(\\/?)font[^>]*>"),
+		COMMAS(",|，"),
+		SENTENCE_END(".*\\.( |$).*"),
+		/* TimeUtil: 标题位置 */
+		H1("<h1.*?</h1>", Pattern.CASE_INSENSITIVE),
+		H2("<h2.*?</h2>", Pattern.CASE_INSENSITIVE),
+		H3("<h3.*?</h3>", Pattern.CASE_INSENSITIVE),
+		H4("<h4.*?</h4>", Pattern.CASE_INSENSITIVE),
+		H5("<h5.*?</h5>", Pattern.CASE_INSENSITIVE),
+		H6("<h6.*?</h6>", Pattern.CASE_INSENSITIVE),
+		STRONG("<STRONG>", Pattern.CASE_INSENSITIVE),
+		BOLD("<B>", Pattern.CASE_INSENSITIVE),
+		/* TimeUtil: 日期分隔符 */
+		DATE_SEPARATOR("[-_./]"),
+		DATE_TIME_SEPARATOR("[-_./ :：]"),
+		MONTH_DAY_SEPARATOR("[-_/]"),
+		CN_DATE_SEPARATOR("[年月日]"),
+		CN_DATE_TIME_SEPARATOR("[年月日:：]"),
+		CN_MONTH_DAY_SEPARATOR("[月日]"),
+		CN_YEAR_MONTH_SEPARATOR("[年月]"),
+		WHITESPACE("\\s"),
+		WHITESPACES("\\s+"),
+		WHITESPACES_COMMA("\\s+,"),
+		WHITESPACES_OR_DASH("\\s+|-"),
+		COMMA(","),
+		COMMA_OR_COLON("[,:]"),
+		/* TimeUtil: 从URL中获取日期 */
+		URL_YYYY_MM_DD("(?<!\\d)([12][09][0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9])[^\\d]"),
+		URL_YYYYMMDD("(?<!\\d)([12][09][0-9]{2}[01]?[0-9][0123]?[0-9])"),
+		URL_YYYYMM_DD("(?<!\\d)([12][09][0-9]{2}[01]?[0-9][-_./][0123]?[0-9])[^\\d]"),
+		URL_MM_DD_YYYY("(?<!\\d)([0123]?[0-9]/[01]?[0-9]/[12][09][0-9]{2})[^\\d]"),
+		URL_YY_MM_DD("(?<!\\d)([0-9][0-9][-_./][01]?[0-9][-_./][0123]?[0-9])[^\\d]"),
+		/* TimeUtil: 大纪元网站的时间 */
+		EPOCHTIMES_DATE_TIME("[12][09][0-9]{2}-[01][0-9]-[0123]?[0-9]\\s+(?:[01]?[0-9]|2[0-4])[:：](?:[0-5]?[0-9]):[0-9]{1,2}"),
+		/* TimeUtil: 网页中的数字日期 */
+		HTML_YYYY_MM_DD_HH_MM_SS("[12][09][0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9]\\s+(?:[01]?[0-9]|2[0-4])[:：](?:[0-5]?[0-9])([:：][0-9]{1,2}){0,1}"),
+		HTML_YYYY_MM_DD("(?<!\\d)([12][09][0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9])"),
+		HTML_MM_DD_YYYY("(?<!\\d)([01]?[0-9][-_./][0123]?[0-9][-_./][12][09][0-9]{2})"),
+		HTML_DD_MM_YYYY("(?<!\\d)([0123]?[0-9][-_./][01]?[0-9][-_./][12][09][0-9]{2})"),
+		HTML_YYYYMMDD("(?<!\\d)([12][09][0-9]{2}[01][0-9][0123][0-9])"),
+		HTML_YY_MM_DD("[^\\d]([0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9])[^\\d]"),
+		HTML_MM_DD("(?<!\\d)[01]?[0-9][-_/][0123]?[0-9]"),
+		HTML_YYYY_MM("[^\\d]([12][09][0-9]{2}[-_./][01]?[0-9])[^\\d]"),
+		/* TimeUtil: 网页中的中文日期, 依次为阿拉伯数字、全角数字、汉字数字 */
+		CN_YYYY_MM_DD_HH_MM("[12][09][0-9]{2}年[01]?[0-9]月[0123]?[0-9]日\\s+(?:[01]?[0-9]|2[0-4])[:：](?:[0-5]?[0-9])([:：][0-9]{1,2}){0,1}"),
+		CN_YYYY_MM_DD("[12][09][0-9]{2}年[01]?[0-9]月[0123]?[0-9]日"),
+		CN_YYYY_MM_DD_FULLWIDTH("[１２][0０９][0０１２３４５６７８９]{2}年[0０１]?[0０１２３４５６７８９]月[0０１２３]?[0０１２３４５６７８９]日"),
+		CN_YYYY_MM_DD_HANZI("([0〇零一二三四五六七八九十两千]{4})年[零0〇一二三四五六七八九十]{1,2}月[0〇零一二三四五六七八九十]{1,3}日"),
+		CN_YY_MM_DD("[0-9]{2}年[01]?[0-9]月[0123]?[0-9]日"),
+		CN_YY_MM_DD_FULLWIDTH("[0０１２３４５６７８９]{2}年[0０１]?[0０１２３４５６７８９]月[0０１２３]?[0０１２３４５６７８９]日"),
+		CN_YY_MM_DD_HANZI("[0〇零一二三四五六七八九十两千]{2}年[0零〇一二三四五六七八九十]{1,2}月[0〇零一二三四五六七八九十]{1,3}日"),
+		CN_MM_DD("[01]?[0-9]月[0123]?[0-9]日"),
+		CN_MM_DD_FULLWIDTH("[0０１]?[0０１２３４５６７８９]月[0０１２３]?[0０１２３４５６７８９]日"),
+		CN_MM_DD_HANZI("[零0〇一二三四五六七八九十]{1,2}月[0〇零一二三四五六七八九十]{1,3}日"),
+		CN_YYYY_MM("[12][09][0-9]{2}年[01]?[0-9]月"),
+		CN_YYYY_MM_FULLWIDTH("[１２][0０９][0０１２３４５６７８９]{2}年[0０１]?[0０１２３４５６７８９]月"),
+		CN_YYYY_MM_HANZI("([0〇零一二三四五六七八九十两千]{4})年[零0〇一二三四五六七八九十]{1,2}月"),
+		CN_YYYY("[12][09][0-9]{2}年"),
+		CN_YYYY_FULLWIDTH("[１２][0０９][0０１２３４５６７８９]{2}年"),
+		CN_YYYY_HANZI("([0〇零一二三四五六七八九十两千]{4})年"),
+		/* TimeUtil: 网页中的英文日期 */
+		EN_HH_MM_MM_DD_YYYY("(?:[01]?[0-9]|2[0-3]):[0-5][0-9]\\s*,?(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1},?\\s{0,5}\\d{4}", Pattern.CASE_INSENSITIVE),
+		EN_MM_DD_YYYY("(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1},{0,1}\\s{0,5}\\d{4}", Pattern.CASE_INSENSITIVE),
+		EN_DD_MM_YYYY("\\d{1,2}(th|st|nd|rd)?\\s{0,5}(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December),{0,1},?\\s{0,5}\\d{4}", Pattern.CASE_INSENSITIVE),
+		EN_DD_MM_YY("(?<!\\d)\\d{1,2}(th|st|nd|rd)?,?-(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December),{0,1}-\\d{2,4}", Pattern.CASE_INSENSITIVE),
+		EN_DD_MM_YY2("(?<!\\d)\\d{1,2}(th|st|nd|rd)?\\s{0,5}(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December),{0,1},?\\s{0,5}\\d{2}", Pattern.CASE_INSENSITIVE),
+		EN_MM_DD_HH_MM("(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1}\\s*,?\\s*[01]?[0-9]:[0-5]?[0-9]\\s+(AM|PM)?", Pattern.CASE_INSENSITIVE),
+		EN_YYYY_MM_DD("\\d{4}\\s*,?(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1},?", Pattern.CASE_INSENSITIVE);
+
+		private final String regex;
+		private final int flags;
+
+		RegEx(String regex) {
+			this(regex, 0);
+		}
+
+		RegEx(String regex, int flags) {
+			this.regex = regex;
+			this.flags = flags;
+		}
+	}
+
+	/** 没有打开计时时 {@link #startTiming()} 的返回值 */
+	private static final long NOT_TIMED = Long.MIN_VALUE;
+
+	private static final AtomicLong sCompileCount = new AtomicLong();
+	private static final Pattern[] sPatterns;
+	private static final LongAdder[] sMatchCounts;
+	private static final LongAdder[] sMatchNanos;
+	private static volatile boolean sTimingEnabled;
+
+	static {
+		RegEx[] values = RegEx.values();
+		sPatterns = new Pattern[values.length];
+		sMatchCounts = new LongAdder[values.length];
+		sMatchNanos = new LongAdder[values.length];
+		for (RegEx re : values) {
+			sPatterns[re.ordinal()] = compile(re.regex, re.flags);
+			sMatchCounts[re.ordinal()] = new LongAdder();
+			sMatchNanos[re.ordinal()] = new LongAdder();
+		}
+	}
+
+	private Patterns() {
+	}
+
+	/**
+	 * 计入使用次数, 之后在返回的 Pattern 上的匹配不计时, 能用下面的方法时优先使用
+	 * 
+	 * @param re
+	 * @return Pattern
+	 */
+	public static Pattern get(RegEx re) {
+		count(re);
+		return sPatterns[re.ordinal()];
+	}
+
+	/**
+	 * 正则的原文, 不计入使用次数, 用于在类初始化时从正则生成其他数据
+	 * 
+	 * @param re
+	 * @return regex
+	 */
+	static String regex(RegEx re) {
+		return re.regex;
+	}
+
+	/**
+	 * 在input中查找re, 等价于 get(re).matcher(input).find()
+	 * 
+	 * @param re
+	 * @param input
+	 * @return 是否找到
+	 */
+	public static boolean find(RegEx re, CharSequence input) {
+		count(re);
+		long start = startTiming();
+		boolean found = sPatterns[re.ordinal()].matcher(input).find();
+		stopTiming(re, start);
+		return found;
+	}
+
+	/**
+	 * 在input中查找re的第一个匹配
+	 * 
+	 * @param re
+	 * @param input
+	 * @return 第一个匹配, 没有找到时为null
+	 */
+	public static MatchResult findFirst(RegEx re, CharSequence input) {
+		count(re);
+		long start = startTiming();
+		Matcher m = sPatterns[re.ordinal()].matcher(input);
+		MatchResult result = m.find() ? m.toMatchResult() : null;
+		stopTiming(re, start);
+		return result;
+	}
+
+	/**
+	 * 等价于 get(re).matcher(input).matches()
+	 * 
+	 * @param re
+	 * @param input
+	 * @return 整个input是否匹配
+	 */
+	public static boolean matches(RegEx re, CharSequence input) {
+		count(re);
+		long start = startTiming();
+		boolean matches = sPatterns[re.ordinal()].matcher(input).matches();
+		stopTiming(re, start);
+		return matches;
+	}
+
+	/**
+	 * 等价于 get(re).matcher(input).replaceAll(replacement)
+	 * 
+	 * @param re
+	 * @param input
+	 * @param replacement
+	 * @return 替换后的字符串
+	 */
+	public static String replaceAll(RegEx re, CharSequence input, String replacement) {
+		count(re);
+		long start = startTiming();
+		String result = sPatterns[re.ordinal()].matcher(input).replaceAll(replacement);
+		stopTiming(re, start);
+		return result;
+	}
+
+	/**
+	 * 等价于 get(re).split(input)
+	 * 
+	 * @param re
+	 * @param input
+	 * @return 分割后的字符串
+	 */
+	public static String[] split(RegEx re, CharSequence input) {
+		count(re);
+		long start = startTiming();
+		String[] result = sPatterns[re.ordinal()].split(input);
+		stopTiming(re, start);
+		return result;
+	}
+
+	/**
+	 * 开始计时, 用于在 {@link #get(RegEx)} 返回的 Pattern 上直接使用 Matcher 的地方
+	 * 
+	 * @return 开始时间, 没有打开计时时为 NOT_TIMED
+	 */
+	static long startTiming() {
+		return sTimingEnabled ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * 把从 start 开始的一次匹配记入 re 的次数和耗时
+	 * 
+	 * @param re
+	 * @param start
+	 *            {@link #startTiming()} 的返回值
+	 */
+	static void stopTiming(RegEx re, long start) {
+		if (start != NOT_TIMED) {
+			sMatchNanos[re.ordinal()].add(System.nanoTime() - start);
+			sMatchCounts[re.ordinal()].increment();
+		}
+	}
+
+	private static void count(RegEx re) {
+		ExtractionMetrics.count(ExtractionMetrics.Counter.REGEX_EVALUATIONS, 1);
+		CostReport.regex(re);
+	}
+
+	/**
+	 * 编译依赖运行时数据的正则, 固定的正则应该加到 {@link RegEx} 中
+	 * 
+	 * @param regex
+	 * @param flags
+	 * @return Pattern
+	 */
+	public static Pattern compile(String regex, int flags) {
+		sCompileCount.incrementAndGet();
+		return Pattern.compile(regex, flags);
+	}
+
+	/**
+	 * @return 从类加载开始一共编译的正则数量, 包括 {@link RegEx} 中的
+	 */
+	public static long getCompileCount() {
+		return sCompileCount.get();
+	}
+
+	/**
+	 * 打开或关闭匹配的计数和计时, 默认关闭
+	 * 
+	 * @param enabled
+	 */
+	public static void setTimingEnabled(boolean enabled) {
+		sTimingEnabled = enabled;
+	}
+
+	public static long getMatchCount(RegEx re) {
+		return sMatchCounts[re.ordinal()].sum();
+	}
+
+	public static long getMatchNanos(RegEx re) {
+		return sMatchNanos[re.ordinal()].sum();
+	}
+
+	/**
+	 * 清空匹配次数和耗时, 不影响编译计数
+	 */
+	public static void resetMatchStats() {
+		for (int i = 0; i < sPatterns.length; i++) {
+			sMatchCounts[i].reset();
+			sMatchNanos[i].reset();
+		}
+	}
+}
@@ -4,8 +4,8 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -14,10 +14,20 @@ import org.jsoup.select.Elements;
 
 public class Readability {
 
-    private static final String CONTENT_SCORE  = "readabilityContentScore";
-
     private final Document mDocument;
-    private String mBodyCache;
+    private ScoreStore mContentScores = new IdentityScoreStore();
+    /** grabArticle 中对文档的修改, 第一遍没有找到正文时用来恢复 */
+    private UndoJournal mUndoJournal;
+    /** grabArticle 中构造的文本统计 */
+    private TextStats mTextStats;
+    /** 是否输出调试信息, 默认不输出 */
+    private boolean mDebug;
+    /** 分数明细, 为null时不记录 */
+    private ScoreTrace mScoreTrace;
+    /** init 中的JFR事件, grabArticle 填写节点数、候选数和最高分 */
+    private JfrEvents.Extraction mEvent;
+    /** 抽取的开销, 为null时不记录 */
+    private CostReport mCostReport;
 
     public Readability(String html) {
         super();
@@ -45,12 +55,22 @@ public class Readability {
         mDocument = doc;
     }
 
+    /**
+     * @param doc
+     * @param contentScores 保存正文分数, 默认为 {@link IdentityScoreStore}
+     */
+    public Readability(Document doc, ScoreStore contentScores) {
+        super();
+        mDocument = doc;
+        mContentScores = contentScores;
+    }
+
     // @formatter:off
     /**
      * Runs readability.
      * 
      * Workflow: 
-     * 1. Prep the document by removing script tags, css, etc. 
+     * 1. Prep the document by removing script tags, css, etc. (once, in init()) 
      * 2. Build readability's DOM tree. 
      * 3. Grab the article content from the current dom tree. 
      * 4. Replace the current DOM tree with the new one. 
@@ -60,17 +80,19 @@ public class Readability {
      */
     // @formatter:on
     private void init(boolean preserveUnlikelyCandidates) {
-        if (mDocument.body() != null && mBodyCache == null) {
-            mBodyCache = mDocument.body().html();
-        }
-
-        prepDocument();
+        mUndoJournal = new UndoJournal(!preserveUnlikelyCandidates);
 
         /* Build readability's DOM tree */
         Element overlay = mDocument.createElement("div");
         Element innerDiv = mDocument.createElement("div");
         Element articleTitle = getArticleTitle();
-        Element articleContent = grabArticle(preserveUnlikelyCandidates);
+        Element articleContent;
+        ExtractionMetrics.Span articleSpan = ExtractionMetrics.start(ExtractionMetrics.Phase.GRAB_ARTICLE);
+        try {
+            articleContent = grabArticle(preserveUnlikelyCandidates);
+        } finally {
+            articleSpan.end();
+        }
 
         /**
          * If we attempted to strip unlikely candidates on the first run
@@ -81,7 +103,11 @@ public class Readability {
          */
         if (isEmpty(getInnerText(articleContent, false))) {
             if (!preserveUnlikelyCandidates) {
-                mDocument.body().html(mBodyCache);
+                if (mEvent != null) {
+                    mEvent.retried = true;
+                }
+                WorkerMetrics.add(WorkerMetrics.Total.INIT_RETRIES, 1);
+                mUndoJournal.undo();
                 init(true);
                 return;
             } else {
@@ -104,7 +130,31 @@ public class Readability {
      * Runs readability.
      */
     public final void init() {
-        init(false);
+        long start = System.nanoTime();
+        SlowPageCapture.Capture capture = SlowPageCapture.begin("Readability.init", mDocument);
+        mEvent = new JfrEvents.Extraction();
+        mEvent.begin();
+        if (mEvent.isEnabled()) {
+            mEvent.bytes = JfrEvents.htmlBytes(mDocument);
+        }
+        CostReport.begin(mCostReport);
+        try {
+            ExtractionMetrics.Span prepSpan = ExtractionMetrics.start(ExtractionMetrics.Phase.PREP_DOCUMENT);
+            try {
+                prepDocument();
+            } finally {
+                prepSpan.end();
+            }
+            init(false);
+        } finally {
+            CostReport.end(mCostReport);
+            mEvent.extractor = "Readability";
+            mEvent.url = mDocument.location();
+            mEvent.commit();
+            mEvent = null;
+            WorkerMetrics.extraction(getClass(), System.nanoTime() - start);
+            SlowPageCapture.end(capture);
+        }
     }
 
     /**
@@ -125,6 +175,44 @@ public class Readability {
         return mDocument.outerHtml();
     }
 
+    /**
+     * 是否通过 {@link #dbg(String)} 输出调试信息, 默认不输出, 不输出时不构造调试字符串
+     * 
+     * @param debug
+     */
+    public void setDebug(boolean debug) {
+        mDebug = debug;
+    }
+
+    public boolean isDebug() {
+        return mDebug;
+    }
+
+    /**
+     * 记录每次加减正文分数的明细, 为null时不记录(默认)
+     * 
+     * @param scoreTrace
+     */
+    public void setScoreTrace(ScoreTrace scoreTrace) {
+        mScoreTrace = scoreTrace;
+    }
+
+    /**
+     * init 时记录抽取的开销, 为null时不记录(默认)
+     * 
+     * @param costReport
+     */
+    public void setCostReport(CostReport costReport) {
+        mCostReport = costReport;
+    }
+
+    /**
+     * @return setCostReport 设置的 CostReport, init 之后读取
+     */
+    public CostReport getCostReport() {
+        return mCostReport;
+    }
+
     /**
      * Get the article title as an H1. Currently just uses document.title, we
      * might want to be smarter in the future.
@@ -172,15 +260,8 @@ public class Readability {
             styleTag.remove();
         }
 
-        /* Turn all double br's into p's */
-        /*
-         * TODO: this is pretty costly as far as processing goes. Maybe optimize
-         * later.
-         */
-        mDocument.body().html(
-                mDocument.body().html()
-                        .replaceAll(Patterns.REGEX_REPLACE_BRS, "</p><p>")
-                        .replaceAll(Patterns.REGEX_REPLACE_FONTS, "<$1span>"));
+        /* Turn all double br's into p's, and font's into span's */
+        DomHelper.replaceBrsAndFonts(mDocument.body());
     }
 
     /**
@@ -189,45 +270,15 @@ public class Readability {
      */
     private void prepArticle(Element articleContent) {
         cleanStyles(articleContent);
-        killBreaks(articleContent);
-
-        /* 清除文章内容中的垃圾  */
-        clean(articleContent, "form");
-        clean(articleContent, "object");
-        clean(articleContent, "h1");
-        
-        /* 删除可能存在的副标题 H2 */
-        if (getElementsByTag(articleContent, "h2").size() == 1) {
-            clean(articleContent, "h2");
-        }
-        clean(articleContent, "iframe");
+        DomHelper.killBreaks(articleContent);
 
-        cleanHeaders(articleContent);
-
-        /*
-         * 清除tag元素中可疑杂质节点
-         */
-        cleanConditionally(articleContent, "table");
-        cleanConditionally(articleContent, "ul");
-        cleanConditionally(articleContent, "div");
-
-        /* 清除多余空白段落 */
-        Elements articleParagraphs = getElementsByTag(articleContent, "p");
-        for (Element articleParagraph : articleParagraphs) {
-            int imgCount = getElementsByTag(articleParagraph, "img").size();
-            int embedCount = getElementsByTag(articleParagraph, "embed").size();
-            int objectCount = getElementsByTag(articleParagraph, "object")
-                    .size();
-
-            if (imgCount == 0 && embedCount == 0 && objectCount == 0
-                    && isEmpty(getInnerText(articleParagraph, false))) {
-                articleParagraph.remove();
-            }
-        }
+        ArticleCleaner.clean(articleContent, Readability::getClassWeight,
+                node -> dbg(() -> "Cleaning Conditionally (" + node.className() + ":" + node.id() + ")"
+                        + getContentScore(node)));
 
         try {
-            articleContent.html(articleContent.html().replaceAll(
-                    "(?i)<br[^>]*>\\s*<p", "<p"));
+            articleContent.html(Patterns.replaceAll(Patterns.RegEx.BR_BEFORE_P,
+                    CostReport.html(articleContent), "<p"));
         } catch (Exception e) {
             dbg("Cleaning innerHTML of breaks failed. This is an IE strict-block-elements bug. Ignoring.",
                     e);
@@ -239,36 +290,13 @@ public class Readability {
      * 
      * @param node
      */
-    private static void initializeNode(Element node) {
-        node.attr(CONTENT_SCORE, Integer.toString(0));
-
-        String tagName = node.tagName();
-        if ("div".equalsIgnoreCase(tagName)) {
-            incrementContentScore(node, 5);
-        } else if ("pre".equalsIgnoreCase(tagName)
-                || "td".equalsIgnoreCase(tagName)
-                || "blockquote".equalsIgnoreCase(tagName)) {
-            incrementContentScore(node, 3);
-        } else if ("address".equalsIgnoreCase(tagName)
-                || "ol".equalsIgnoreCase(tagName)
-                || "ul".equalsIgnoreCase(tagName)
-                || "dl".equalsIgnoreCase(tagName)
-                || "dd".equalsIgnoreCase(tagName)
-                || "dt".equalsIgnoreCase(tagName)
-                || "li".equalsIgnoreCase(tagName)
-                || "form".equalsIgnoreCase(tagName)) {
-            incrementContentScore(node, -3);
-        } else if ("h1".equalsIgnoreCase(tagName)
-                || "h2".equalsIgnoreCase(tagName)
-                || "h3".equalsIgnoreCase(tagName)
-                || "h4".equalsIgnoreCase(tagName)
-                || "h5".equalsIgnoreCase(tagName)
-                || "h6".equalsIgnoreCase(tagName)
-                || "th".equalsIgnoreCase(tagName)) {
-            incrementContentScore(node, -5);
-        }
-
-        incrementContentScore(node, getClassWeight(node));
+    private void initializeNode(Element node) {
+        mContentScores.set(node, 0);
+
+        /* 标签的基础分数见 TagWeights.Table.CONTENT */
+        incrementContentScore(node, TagWeights.weight(TagWeights.Table.CONTENT, node), "tag");
+
+        incrementContentScore(node, getClassWeight(node), "class/id");
     }
 
     /**
@@ -283,21 +311,26 @@ public class Readability {
 		 * 并将div转换为p标记使用不当（例如，它们不包含其他块级元素。）
 		 * 
          **/
-        for (Element node : mDocument.getAllElements()) {
+        mContentScores.clear();
+        Set<Element> divsWithBlocks = DomHelper.findDivsWithBlocks(mDocument,
+                Patterns.RegEx.DIV_TO_P_ELEMENTS);
+        Elements allElements = mDocument.getAllElements();
+        ExtractionMetrics.count(ExtractionMetrics.Counter.NODES_VISITED, allElements.size());
+        if (mEvent != null) {
+            mEvent.nodes = allElements.size();
+        }
+        if (mCostReport != null) {
+            mCostReport.addElements(allElements.size());
+        }
+        for (Element node : allElements) {
         	/* 删除RegEx中定义的标签class、id含有相关垃圾属性的标签  */
             if (!preserveUnlikelyCandidates) {
-                String unlikelyMatchString = node.className() + node.id();
-                Matcher unlikelyCandidatesMatcher = Patterns.get(
-                        Patterns.RegEx.UNLIKELY_CANDIDATES).matcher(
-                        unlikelyMatchString);
-                Matcher maybeCandidateMatcher = Patterns.get(
-                        Patterns.RegEx.OK_MAYBE_ITS_A_CANDIDATE).matcher(
-                        unlikelyMatchString);
-                if (unlikelyCandidatesMatcher.find()
-                        && !maybeCandidateMatcher.find()
+                int keywords = ClassIdCache.get(node.className(), node.id()).joined;
+                if (KeywordClassifier.has(keywords, Patterns.RegEx.UNLIKELY_CANDIDATES)
+                        && !KeywordClassifier.has(keywords, Patterns.RegEx.OK_MAYBE_ITS_A_CANDIDATE)
                         && !"body".equalsIgnoreCase(node.tagName())) {
-                    node.remove();
-                    dbg("Removing unlikely candidate - " + unlikelyMatchString);
+                    mUndoJournal.remove(node);
+                    dbg(() -> "Removing unlikely candidate - " + node.className() + node.id());
                     continue;
                 }
             }
@@ -306,13 +339,10 @@ public class Readability {
              * 将除了RegEx.DIV_TO_P_ELEMENTS之外的标签元素全部改为P
              */
             if ("div".equalsIgnoreCase(node.tagName())) {
-                Matcher matcher = Patterns
-                        .get(Patterns.RegEx.DIV_TO_P_ELEMENTS).matcher(
-                                node.html());
-                if (!matcher.find()) {
-                    dbg("Alternating div to p: " + node);
+                if (!divsWithBlocks.contains(node)) {
+                    dbg(() -> "Alternating div to p: " + node);
                     try {
-                        node.tagName("p");
+                        mUndoJournal.tagName(node, "p");
                     } catch (Exception e) {
                         dbg("Could not alter div to p, probably an IE restriction, reverting back to div.",
                                 e);
@@ -325,29 +355,30 @@ public class Readability {
          * 遍历所有段落标签(P),将计算的分数增加到各自父节点
          * 分数是由标签名称、class、id属性值、该node元素下文本的权重分数计算得出
          */
+        mTextStats = TextStats.of(mDocument);
         Elements allParagraphs = mDocument.getElementsByTag("p");
         ArrayList<Element> candidates = new ArrayList<Element>();
 
         for (Element node : allParagraphs) {
             Element parentNode = node.parent();
             Element grandParentNode = parentNode.parent();
-            String innerText = getInnerText(node, true);
+            int innerTextLength = mTextStats.normalizedLength(node);
 
             /*
              * 如果该node元素下纯文本(去除空白字符)长度小于25个,则跳过计算
              */
-            if (innerText.length() < 25) {
+            if (innerTextLength < 25) {
                 continue;
             }
 
             /* 初始化node元素的父级标签分数权重值  */
-            if (!parentNode.hasAttr(CONTENT_SCORE)) {
+            if (!mContentScores.has(parentNode)) {
                 initializeNode(parentNode);
                 candidates.add(parentNode);
             }
 
             /* 初始化node元素的父级的父级标签分数权重值  */
-            if (!grandParentNode.hasAttr(CONTENT_SCORE)) {
+            if (!mContentScores.has(grandParentNode)) {
                 initializeNode(grandParentNode);
                 candidates.add(grandParentNode);
             }
@@ -358,16 +389,16 @@ public class Readability {
             contentScore++;
 
             /* 为本段落中的任何逗号增加与逗号个数相应的分数 */
-            contentScore += innerText.split(",|，").length;
+            contentScore += mTextStats.commaSegments(node);
 
             /*
              * 为该node元素下每100个字符(包含空白字符)增加最多3分
              */
-            contentScore += Math.min(Math.floor((double)innerText.length() / 100), 3);
+            contentScore += Math.min(Math.floor((double)innerTextLength / 100), 3);
 
             /* 将计算的父级元素权重分数添加至元素中, 祖父级元素获取父级元素1/2权重 */
-            incrementContentScore(parentNode, contentScore);
-            incrementContentScore(grandParentNode, contentScore / 2);
+            incrementContentScore(parentNode, contentScore, "paragraph");
+            incrementContentScore(grandParentNode, contentScore / 2, "grandchild paragraph");
         }
 
         /**
@@ -380,13 +411,20 @@ public class Readability {
         	 * 内容应具有相对较小的链接密度（5%或更小）
         	 */
             scaleContentScore(candidate, 1 - getLinkDensity(candidate));
-            dbg("Candidate: (" + candidate.className() + ":" + candidate.id()
+            dbg(() -> "Candidate: (" + candidate.className() + ":" + candidate.id()
                     + ") with score " + getContentScore(candidate));
             if (topCandidate == null
                     || getContentScore(candidate) > getContentScore(topCandidate)) {
                 topCandidate = candidate;
             }
         }
+        if (mEvent != null) {
+            mEvent.candidates = candidates.size();
+            mEvent.topScore = topCandidate == null ? 0 : getContentScore(topCandidate);
+        }
+        if (mCostReport != null) {
+            mCostReport.addContentCandidates(candidates.size());
+        }
 
         /**
          * 如果计算最高得分元素为空或元素是Body块,则新创建一个块元素并将原始HTML放入，重新初始化节点分数
@@ -394,9 +432,9 @@ public class Readability {
         if (topCandidate == null
                 || "body".equalsIgnoreCase(topCandidate.tagName())) {
             topCandidate = mDocument.createElement("div");
-            topCandidate.html(mDocument.body().html());
-            mDocument.body().html("");
-            mDocument.body().appendChild(topCandidate);
+            topCandidate.html(CostReport.html(mDocument.body()));
+            mUndoJournal.removeChildren(mDocument.body());
+            mUndoJournal.append(mDocument.body(), topCandidate);
             initializeNode(topCandidate);
         }
 
@@ -412,7 +450,7 @@ public class Readability {
         for (Element siblingNode : siblingNodes) {
             boolean append = false;
 
-            dbg("Looking at sibling node: (" + siblingNode.className() + ":"
+            dbg(() -> "Looking at sibling node: (" + siblingNode.className() + ":"
                     + siblingNode.id() + ")" + " with score "
                     + getContentScore(siblingNode));
 
@@ -426,20 +464,19 @@ public class Readability {
 
             if ("p".equalsIgnoreCase(siblingNode.tagName())) {
                 float linkDensity = getLinkDensity(siblingNode);
-                String nodeContent = getInnerText(siblingNode, true);
-                int nodeLength = nodeContent.length();
+                int nodeLength = mTextStats.normalizedLength(siblingNode);
 
                 if (nodeLength > 80 && linkDensity < 0.25f) {
                     append = true;
                 } else if (nodeLength < 80 && linkDensity == 0.0f
-                        && nodeContent.matches(".*\\.( |$).*")) {
+                        && Patterns.matches(Patterns.RegEx.SENTENCE_END, getInnerText(siblingNode, true))) {
                     append = true;
                 }
             }
 
             if (append) {
-                dbg("Appending node: " + siblingNode);
-                articleContent.appendChild(siblingNode);
+                dbg(() -> "Appending node: " + siblingNode);
+                articleContent.appendChild(takeSibling(siblingNode));
                 continue;
             }
         }
@@ -447,11 +484,50 @@ public class Readability {
         /*
          * 最后清理可疑节点
          */
-        prepArticle(articleContent);
+        ExtractionMetrics.Span cleanSpan = ExtractionMetrics.start(ExtractionMetrics.Phase.PREP_ARTICLE);
+        try {
+            prepArticle(articleContent);
+        } finally {
+            cleanSpan.end();
+        }
 
         return articleContent;
     }
 
+    /**
+     * 取出要放进正文的同胞节点 <BR>
+     * 记录撤销日志时文档不能在日志之外被修改, 放进正文的是副本, 副本带上原节点及其后代的分数 <BR>
+     * 是否重试要到 prepArticle 修改完正文之后才知道, 不能等到重试时再复制; 复制的开销见 ReadabilityBenchmark.siblingCopy
+     * 
+     * @param siblingNode
+     * @return
+     */
+    private Element takeSibling(Element siblingNode) {
+        if (!mUndoJournal.isRecording()) {
+            return siblingNode;
+        }
+        return copyWithScores(siblingNode, mContentScores);
+    }
+
+    /**
+     * 复制元素, 副本中的元素带上原来对应元素的分数
+     * 
+     * @param e
+     * @param contentScores
+     * @return
+     */
+    static Element copyWithScores(Element e, ScoreStore contentScores) {
+        Element copy = e.clone();
+        Elements originals = e.getAllElements();
+        Elements copies = copy.getAllElements();
+        for (int i = 0; i < originals.size(); i++) {
+            if (contentScores.has(originals.get(i))) {
+                contentScores.set(copies.get(i), contentScores.get(originals.get(i)));
+            }
+        }
+        return copy;
+    }
+
     /**
      * 获取元素e下所有文本,包含空白字符
      * 
@@ -463,25 +539,12 @@ public class Readability {
         String textContent = e.text().trim();
 
         if (normalizeSpaces) {
-            textContent = textContent.replaceAll(Patterns.REGEX_NORMALIZE, "");
+            textContent = Patterns.replaceAll(Patterns.RegEx.NORMALIZE, textContent, "");
         }
 
         return textContent;
     }
 
-    /**
-     * 获取字符串s在节点e中出现的次数
-     * @param e
-     * @param s
-     * @return
-     */
-    private static int getCharCount(Element e, String s) {
-        if (s == null || s.length() == 0) {
-            s = ",";
-        }
-        return getInnerText(e, true).split(s).length;
-    }
-
     /**
      * 递归清除元素中的 style 属性
      * @param e
@@ -506,14 +569,8 @@ public class Readability {
      * @param e
      * @return
      */
-    private static float getLinkDensity(Element e) {
-        Elements links = getElementsByTag(e, "a");
-        int textLength = getInnerText(e, true).length();
-        float linkLength = 0.0F;
-        for (Element link : links) {
-            linkLength += getInnerText(link, true).length();
-        }
-        return linkLength / textLength;
+    private float getLinkDensity(Element e) {
+        return (float) mTextStats.linkLength(e) / mTextStats.normalizedLength(e);
     }
 
     /**
@@ -524,150 +581,35 @@ public class Readability {
      */
     private static int getClassWeight(Element e) {
         int weight = 0;
+        ClassIdCache.Keywords keywords = ClassIdCache.get(e.className(), e.id());
 
         /* 根据标签class属性值计算得分: 匹配NEGATIVE减25分, 匹配POSITIVE 加25分*/
-        String className = e.className();
-        if (!isEmpty(className)) {
-            Matcher negativeMatcher = Patterns.get(Patterns.RegEx.NEGATIVE)
-                    .matcher(className);
-            Matcher positiveMatcher = Patterns.get(Patterns.RegEx.POSITIVE)
-                    .matcher(className);
-            if (negativeMatcher.find()) {
-                weight -= 25;
-            }
-            if (positiveMatcher.find()) {
-                weight += 25;
-            }
+        if (KeywordClassifier.has(keywords.className, Patterns.RegEx.NEGATIVE)) {
+            weight -= 25;
+        }
+        if (KeywordClassifier.has(keywords.className, Patterns.RegEx.POSITIVE)) {
+            weight += 25;
         }
 
         /* 根据标签class属性值计算得分: 匹配NEGATIVE减25分, 匹配POSITIVE 加25分*/
-        String id = e.id();
-        if (!isEmpty(id)) {
-            Matcher negativeMatcher = Patterns.get(Patterns.RegEx.NEGATIVE)
-                    .matcher(id);
-            Matcher positiveMatcher = Patterns.get(Patterns.RegEx.POSITIVE)
-                    .matcher(id);
-            if (negativeMatcher.find()) {
-                weight -= 25;
-            }
-            if (positiveMatcher.find()) {
-                weight += 25;
-            }
+        if (KeywordClassifier.has(keywords.id, Patterns.RegEx.NEGATIVE)) {
+            weight -= 25;
+        }
+        if (KeywordClassifier.has(keywords.id, Patterns.RegEx.POSITIVE)) {
+            weight += 25;
         }
 
         return weight;
     }
 
     /**
-     * 替换删除元素e中多个连续的br标签为1个
-     * 
-     * @param e
-     */
-    private static void killBreaks(Element e) {
-        e.html(e.html().replaceAll(Patterns.REGEX_KILL_BREAKS, "<br />"));
-    }
-
-    /**
-     * 清除所有tag元素,保留 Patterns.RegEx.VIDEO 元素
-     * @param e
-     * @param tag
-     */
-    private static void clean(Element e, String tag) {
-        Elements targetList = getElementsByTag(e, tag);
-        boolean isEmbed = "object".equalsIgnoreCase(tag)
-                       || "embed".equalsIgnoreCase(tag)
-                       || "iframe".equalsIgnoreCase(tag);
-
-        for (Element target : targetList) {
-            Matcher matcher = Patterns.get(Patterns.RegEx.VIDEO).matcher(
-                    target.outerHtml());
-            if (isEmbed && matcher.find()) {
-                continue;
-            }
-            target.remove();
-        }
-    }
-
-    /**
-     * 根据内容长度、class属性、A链接密度、图片数量等判断tag元素的可能性,并进行清除
+     * Print debug logs, msg 只在输出时才计算
      * 
-     * @param e
-     * @param tag
-     */
-    private void cleanConditionally(Element e, String tag) {
-        Elements tagsList = getElementsByTag(e, tag);
-
-        /**
-         * 计算节点中的权重进行删除
-         */
-        for (Element node : tagsList) {
-            int weight = getClassWeight(node);
-
-            dbg("Cleaning Conditionally (" + node.className() + ":" + node.id()
-                    + ")" + getContentScore(node));
-
-            if (weight < 0) {
-                node.remove();
-            } else if (getCharCount(node, ",") < 10) {
-            	/**
-            	 * 如果逗号不多，那么非段落元素多于段落或其他,则将其删除
-            	*/
-                int p = getElementsByTag(node, "p").size();
-                int img = getElementsByTag(node, "img").size();
-                int li = getElementsByTag(node, "li").size() - 100;
-                int input = getElementsByTag(node, "input").size();
-
-                int embedCount = 0;
-                Elements embeds = getElementsByTag(node, "embed");
-                for (Element embed : embeds) {
-                    if (!Patterns.get(Patterns.RegEx.VIDEO)
-                            .matcher(embed.absUrl("src")).find()) {
-                        embedCount++;
-                    }
-                }
-
-                float linkDensity = getLinkDensity(node);
-                int contentLength = getInnerText(node, true).length();
-                boolean toRemove = false;
-
-                if (img > p) {
-                    toRemove = true;
-                } else if (li > p && !"ul".equalsIgnoreCase(tag)
-                        && !"ol".equalsIgnoreCase(tag)) {
-                    toRemove = true;
-                } else if (input > Math.floor(p / 3)) {
-                    toRemove = true;
-                } else if (contentLength < 25 && (img == 0 || img > 2)) {
-                    toRemove = true;
-                } else if (weight < 25 && linkDensity > 0.2f) {
-                    toRemove = true;
-                } else if (weight > 25 && linkDensity > 0.5f) {
-                    toRemove = true;
-                } else if ((embedCount == 1 && contentLength < 75)
-                        || embedCount > 1) {
-                    toRemove = true;
-                }
-
-                if (toRemove) {
-                    node.remove();
-                }
-            }
-        }
-    }
-
-    /**
-	 * 清除元素中的假标题
-     * @param e
+     * @param msg
      */
-    private static void cleanHeaders(Element e) {
-        for (int headerIndex = 1; headerIndex < 7; headerIndex++) {
-            Elements headers = getElementsByTag(e, "h" + headerIndex);
-            for (Element header : headers) {
-                if (getClassWeight(header) < 0
-                        || getLinkDensity(header) > 0.33f) {
-                    header.remove();
-                }
-            }
+    protected final void dbg(Supplier<String> msg) {
+        if (mDebug) {
+            dbg(msg.get());
         }
     }
 
@@ -687,98 +629,21 @@ public class Readability {
      * @param t
      */
     protected void dbg(String msg, Throwable t) {
+        if (!mDebug) {
+            return;
+        }
         System.out.println(msg + (t != null ? ("\n" + t.getMessage()) : "")
                 + (t != null ? ("\n" + t.getStackTrace()) : ""));
     }
 
-    private static class Patterns {
-        private static Pattern sUnlikelyCandidatesRe;
-        private static Pattern sOkMaybeItsACandidateRe;
-        private static Pattern sPositiveRe;
-        private static Pattern sNegativeRe;
-        private static Pattern sDivToPElementsRe;
-        private static Pattern sVideoRe;
-        private static final String REGEX_REPLACE_BRS = "(?i)(<br[^>]*>[ \n\r\t]*){2,}";
-        private static final String REGEX_REPLACE_FONTS = "(?i)<(\\/?)font[^>]*>";// </font src=a >
-        /* Java has String.trim() */
-        // private static final String REGEX_TRIM = "^\\s+|\\s+$";
-        private static final String REGEX_NORMALIZE = "\\s{2,}";
-        private static final String REGEX_KILL_BREAKS = "(<br\\s*\\/?>(\\s|&nbsp;?)*){1,}";
-
-        public enum RegEx {
-            UNLIKELY_CANDIDATES, OK_MAYBE_ITS_A_CANDIDATE, POSITIVE, NEGATIVE, DIV_TO_P_ELEMENTS, VIDEO;
-        }
-
-        public static Pattern get(RegEx re) {
-            switch (re) {
-            case UNLIKELY_CANDIDATES: {
-                if (sUnlikelyCandidatesRe == null) {
-                    sUnlikelyCandidatesRe = Pattern
-                            .compile(
-                                    "combx|comment|disqus|foot|header|menu|meta|nav|rss|shoutbox|sidebar|sponsor",
-                                    Pattern.CASE_INSENSITIVE);
-                }
-                return sUnlikelyCandidatesRe;
-            }
-            case OK_MAYBE_ITS_A_CANDIDATE: {
-                if (sOkMaybeItsACandidateRe == null) {
-                    sOkMaybeItsACandidateRe = Pattern.compile(
-                            "and|article|body|column|main",
-                            Pattern.CASE_INSENSITIVE);
-                }
-                return sOkMaybeItsACandidateRe;
-            }
-            case POSITIVE: {
-                if (sPositiveRe == null) {
-                    sPositiveRe = Pattern
-                            .compile(
-                                    "article|body|content|entry|hentry|page|pagination|post|text",
-                                    Pattern.CASE_INSENSITIVE);
-                }
-                return sPositiveRe;
-            }
-            case NEGATIVE: {
-                if (sNegativeRe == null) {
-                    sNegativeRe = Pattern
-                            .compile(
-                                    "combx|comment|contact|foot|footer|footnote|link|media|meta|promo|related|scroll|shoutbox|sponsor|tags|widget",
-                                    Pattern.CASE_INSENSITIVE);
-                }
-                return sNegativeRe;
-            }
-            case DIV_TO_P_ELEMENTS: {
-                if (sDivToPElementsRe == null) {
-                    sDivToPElementsRe = Pattern.compile(
-                            "<(a|blockquote|dl|div|img|ol|p|pre|table|ul)",
-                            Pattern.CASE_INSENSITIVE);
-                }
-                return sDivToPElementsRe;
-            }
-            case VIDEO: {
-                if (sVideoRe == null) {
-                    sVideoRe = Pattern.compile(
-                            "http:\\/\\/(www\\.)?(youtube|vimeo)\\.com",
-                            Pattern.CASE_INSENSITIVE);
-                }
-                return sVideoRe;
-            }
-            }
-            return null;
-        }
-    }
-
     /**
      * 获取元素节点分数
      * 
      * @param node
      * @return
      */
-    private static int getContentScore(Element node) {
-        try {
-            return Integer.parseInt(node.attr(CONTENT_SCORE));
-        } catch (NumberFormatException e) {
-            return 0;
-        }
+    private int getContentScore(Element node) {
+        return mContentScores.get(node);
     }
 
     /**
@@ -786,12 +651,16 @@ public class Readability {
      * 
      * @param node
      * @param increment
+     * @param reason
+     *            记入分数明细的原因
      * @return
      */
-    private static Element incrementContentScore(Element node, int increment) {
-        int contentScore = getContentScore(node);
-        contentScore += increment;
-        node.attr(CONTENT_SCORE, Integer.toString(contentScore));
+    private Element incrementContentScore(Element node, int increment, String reason) {
+        int contentScore = mContentScores.get(node) + increment;
+        mContentScores.set(node, contentScore);
+        if (mScoreTrace != null && increment != 0) {
+            mScoreTrace.add(ScoreTrace.Score.CONTENT, node, reason, increment, contentScore);
+        }
         return node;
     }
 
@@ -802,10 +671,14 @@ public class Readability {
      * @param scale
      * @return
      */
-    private static Element scaleContentScore(Element node, float scale) {
-        int contentScore = getContentScore(node);
+    private Element scaleContentScore(Element node, float scale) {
+        int original = getContentScore(node);
+        int contentScore = original;
         contentScore *= scale;
-        node.attr(CONTENT_SCORE, Integer.toString(contentScore));
+        mContentScores.set(node, contentScore);
+        if (mScoreTrace != null && contentScore != original) {
+            mScoreTrace.add(ScoreTrace.Score.CONTENT, node, "link density", contentScore - original, contentScore);
+        }
         return node;
     }
 
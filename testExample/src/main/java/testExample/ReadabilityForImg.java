@@ -3,19 +3,17 @@ package testExample;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import org.apache.commons.io.FileUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -23,11 +21,21 @@ import org.jsoup.select.Elements;
 
 public class ReadabilityForImg {
 
-	private static final String CONTENT_SCORE = "readabilityContentScore";
-	private static final String IMG_SCORE = "readabilityImgScore";
-
 	private final Document mDocument;
-	private String mBodyCache;
+	private ScoreStore mContentScores = new IdentityScoreStore();
+	private ScoreStore mImgScores = new IdentityScoreStore();
+	/** grabArticle 中构造的文本统计 */
+	private TextStats mTextStats;
+	/** grabImg 开始时取一次的网页时间 */
+	private PageDates mPageDates;
+	/** 是否输出调试信息, 默认不输出 */
+	private boolean mDebug;
+	/** 分数明细, 为null时不记录 */
+	private ScoreTrace mScoreTrace;
+	/** init 中的JFR事件, grabArticle 填写节点数、候选数和最高分 */
+	private JfrEvents.Extraction mEvent;
+	/** 抽取的开销, 为null时不记录 */
+	private CostReport mCostReport;
 	private Map<String, Integer> pictext = new HashMap<String, Integer>();
 
 	// 构造方法
@@ -56,6 +64,20 @@ public class ReadabilityForImg {
 		mDocument = doc;
 	}
 
+	/**
+	 * @param doc
+	 * @param contentScores
+	 *            保存正文分数, 默认为 {@link IdentityScoreStore}
+	 * @param imgScores
+	 *            保存图片分数, 默认为 {@link IdentityScoreStore}
+	 */
+	public ReadabilityForImg(Document doc, ScoreStore contentScores, ScoreStore imgScores) {
+		super();
+		mDocument = doc;
+		mContentScores = contentScores;
+		mImgScores = imgScores;
+	}
+
 	/*
 	 * 获取图片列表
 	 */
@@ -71,6 +93,14 @@ public class ReadabilityForImg {
 		return picVector;
 	}
 
+	/*
+	 * 获取图片列表
+	 */
+	public List<String> getImgList() {
+		return pictext.entrySet().stream().filter(entry -> entry.getValue() == 1 && !isEmpty(entry.getKey()))
+				.map(Map.Entry::getKey).collect(Collectors.toList());
+	}
+
 	/*
 	 * 方案：抽取正文图片 先对正文评分，然后在此基础上对图片评分
 	 */
@@ -88,18 +118,25 @@ public class ReadabilityForImg {
 	 */
 	// @formatter:on
 	private void init(boolean preserveUnlikelyCandidates) {
-		if (mDocument.body() != null && mBodyCache == null) {
-			mBodyCache = mDocument.body().html();
+		ExtractionMetrics.Span prepSpan = ExtractionMetrics.start(ExtractionMetrics.Phase.PREP_DOCUMENT);
+		try {
+			prepDocument();
+		} finally {
+			prepSpan.end();
 		}
 
-		prepDocument();
-
 		/* Build readability's DOM tree */
 		Element overlay = mDocument.createElement("div");
 		Element innerDiv = mDocument.createElement("div");
 		Element articleTitle = getArticleTitle();
 		// System.out.println("after prepare Docement: "+mDocument.html());
-		Element articleContent = grabArticle(preserveUnlikelyCandidates);
+		Element articleContent;
+		ExtractionMetrics.Span articleSpan = ExtractionMetrics.start(ExtractionMetrics.Phase.GRAB_ARTICLE);
+		try {
+			articleContent = grabArticle(preserveUnlikelyCandidates);
+		} finally {
+			articleSpan.end();
+		}
 		return;
 
 		/**
@@ -135,7 +172,29 @@ public class ReadabilityForImg {
 	 * Runs readability.
 	 */
 	public final void init() {
-		init(false);
+		long start = System.nanoTime();
+		SlowPageCapture.Capture capture = SlowPageCapture.begin("ReadabilityForImg.init", mDocument);
+		mEvent = new JfrEvents.Extraction();
+		mEvent.begin();
+		if (mEvent.isEnabled()) {
+			mEvent.bytes = JfrEvents.htmlBytes(mDocument);
+		}
+		CostReport.begin(mCostReport);
+		try {
+			init(false);
+		} finally {
+			CostReport.end(mCostReport);
+			mEvent.extractor = "ReadabilityForImg";
+			mEvent.url = mDocument.location();
+			if (mEvent.isEnabled() || ExtractionMetrics.isEnabled()) {
+				mEvent.images = getImgList().size();
+				WorkerMetrics.add(WorkerMetrics.Total.IMAGES_EXTRACTED, mEvent.images);
+			}
+			mEvent.commit();
+			mEvent = null;
+			WorkerMetrics.extraction(getClass(), System.nanoTime() - start);
+			SlowPageCapture.end(capture);
+		}
 	}
 
 	/**
@@ -156,6 +215,44 @@ public class ReadabilityForImg {
 		return mDocument.outerHtml();
 	}
 
+	/**
+	 * 是否通过 {@link #dbg(String)} 输出调试信息, 默认不输出, 不输出时不构造调试字符串
+	 * 
+	 * @param debug
+	 */
+	public void setDebug(boolean debug) {
+		mDebug = debug;
+	}
+
+	public boolean isDebug() {
+		return mDebug;
+	}
+
+	/**
+	 * 记录每次加减正文分数和图片分数的明细, 为null时不记录(默认)
+	 * 
+	 * @param scoreTrace
+	 */
+	public void setScoreTrace(ScoreTrace scoreTrace) {
+		mScoreTrace = scoreTrace;
+	}
+
+	/**
+	 * init 时记录抽取的开销, 为null时不记录(默认)
+	 * 
+	 * @param costReport
+	 */
+	public void setCostReport(CostReport costReport) {
+		mCostReport = costReport;
+	}
+
+	/**
+	 * @return setCostReport 设置的 CostReport, init 之后读取
+	 */
+	public CostReport getCostReport() {
+		return mCostReport;
+	}
+
 	/**
 	 * Get the article title as an H1. Currently just uses document.title, we
 	 * might want to be smarter in the future.
@@ -205,13 +302,8 @@ public class ReadabilityForImg {
 
 		/* TODO: Remove comments <!-- --> */
 
-		/* Turn all double br's into p's */
-		/*
-		 * TODO: this is pretty costly as far as processing goes. Maybe optimize
-		 * later.
-		 */
-		mDocument.body().html(mDocument.body().html().replaceAll(Patterns.REGEX_REPLACE_BRS, "</p><p>")
-				.replaceAll(Patterns.REGEX_REPLACE_FONTS, "<$1span>"));
+		/* Turn all double br's into p's, and font's into span's */
+		DomHelper.replaceBrsAndFonts(mDocument.body());
 	}
 
 	/**
@@ -221,43 +313,14 @@ public class ReadabilityForImg {
 	 */
 	private void prepArticle(Element articleContent) {
 		cleanStyles(articleContent);
-		killBreaks(articleContent);
-
-		/* 清除文章内容中的垃圾 */
-		clean(articleContent, "form");
-		clean(articleContent, "object");
-		clean(articleContent, "h1");
+		DomHelper.killBreaks(articleContent);
 
-		/* 删除可能存在的副标题 H2 */
-		if (getElementsByTag(articleContent, "h2").size() == 1) {
-			clean(articleContent, "h2");
-		}
-		clean(articleContent, "iframe");
-
-		cleanHeaders(articleContent);
-
-		/*
-		 * 清除tag元素中可疑杂质节点
-		 */
-		cleanConditionally(articleContent, "table");
-		cleanConditionally(articleContent, "ul");
-		cleanConditionally(articleContent, "div");
-
-		/* 清除多余空白段落 */
-		Elements articleParagraphs = getElementsByTag(articleContent, "p");
-		for (Element articleParagraph : articleParagraphs) {
-			int imgCount = getElementsByTag(articleParagraph, "img").size();
-			int embedCount = getElementsByTag(articleParagraph, "embed").size();
-			int objectCount = getElementsByTag(articleParagraph, "object").size();
-
-			if (imgCount == 0 && embedCount == 0 && objectCount == 0
-					&& isEmpty(getInnerText(articleParagraph, false))) {
-				articleParagraph.remove();
-			}
-		}
+		ArticleCleaner.clean(articleContent, ReadabilityForImg::getClassWeight,
+				node -> dbg(() -> "Cleaning Conditionally (" + node.className() + ":" + node.id() + ")"
+						+ getContentScore(node)));
 
 		try {
-			articleContent.html(articleContent.html().replaceAll("(?i)<br[^>]*>\\s*<p", "<p"));
+			articleContent.html(Patterns.replaceAll(Patterns.RegEx.BR_BEFORE_P, CostReport.html(articleContent), "<p"));
 		} catch (Exception e) {
 			dbg("Cleaning innerHTML of breaks failed. This is an IE strict-block-elements bug. Ignoring.", e);
 		}
@@ -275,87 +338,57 @@ public class ReadabilityForImg {
 	private static int estimateWidthAndHeight(Element node) {
 		/*
 		 * 长宽属性一般只减分（考虑到有可能噪声图片有长宽属性，但正文图片没有） 当有属性特别大的时候酌情加分 长宽有4种写法： 数字， 数字加px
-		 * Px pX PX, 百分数，auto; 是百分数不要，去掉px
+		 * Px pX PX, 百分数，auto; 是百分数不要，去掉px; 小数和em、rem见 CssDimension
 		 */
 		int score = 0;
-		String width = node.attr("width").replaceAll("auto", "");
-		String height = node.attr("height").replaceAll("auto", "");
-		if (isEmpty(width) && isEmpty(height)) {
+		int width = CssDimension.parse(node.attr("width"));
+		int height = CssDimension.parse(node.attr("height"));
+		/*
+		 * 属性无法解析(如 width="100abc")时与没有属性一样, 改为从 style 中取值; 原来只要属性不为空就不看 style
+		 */
+		if (width == CssDimension.NONE && height == CssDimension.NONE) {
 			// 从style属性中寻找width, height
 			String styleStr = node.attr("style");
-			Pattern compileWidth = Pattern.compile("width(\\s)?:(\\s)?[0-9]+(([pP][xX])|%)?;",
-					Pattern.CASE_INSENSITIVE);
-			Matcher matcher = compileWidth.matcher(styleStr);
-			if (matcher.find()){
-				if(matcher.group().contains("%")){
-					return -100;
-				}else{
-					String widthStr = matcher.group();
-					compileWidth = Pattern.compile("[0-9]+",
-							Pattern.CASE_INSENSITIVE);
-					matcher = compileWidth.matcher(widthStr);
-					if(matcher.find()){
-						width = matcher.group();
-					}
-				}
+			width = CssDimension.fromStyle(styleStr, "width");
+			if (width == CssDimension.PERCENT) {
+				return -100;
 			}
-
-			Pattern compileHeight = Pattern.compile("height(\\s)?:(\\s)?[0-9]+(([pP][xX])|%)?;",
-					Pattern.CASE_INSENSITIVE);
-			matcher = compileHeight.matcher(styleStr);
-			if (matcher.find()){
-				if(matcher.group().contains("%")){
-					return -100;
-				}else{
-					String heightStr = matcher.group();
-					compileWidth = Pattern.compile("[0-9]+",
-							Pattern.CASE_INSENSITIVE);
-					matcher = compileWidth.matcher(heightStr);
-					if(matcher.find()){
-						height = matcher.group();
-					}
-				}
+			height = CssDimension.fromStyle(styleStr, "height");
+			if (height == CssDimension.PERCENT) {
+				return -100;
 			}
 		}
-		if (!isEmpty(width) && !isEmpty(height) && width.indexOf("%") == -1 && height.indexOf("%") == -1) {
-			String widthReplace = width.replaceAll("[pP][xX]", "");
-			String heightReplace = height.replaceAll("[pP][xX]", "");
-			int widthLength = Integer.parseInt(widthReplace);
-			int heightLength = Integer.parseInt(heightReplace);
-			if (widthLength <= 100 && heightLength <= 100) {
+		if (width >= 0 && height >= 0) {
+			if (width <= 100 && height <= 100) {
 				score -= 500;
-			} else if (widthLength < 150 && heightLength < 150) {
-				score -= 50 + (300 - widthLength - heightLength);
-			} else if (widthLength < 200 && heightLength < 200) {
+			} else if (width < 150 && height < 150) {
+				score -= 50 + (300 - width - height);
+			} else if (width < 200 && height < 200) {
 				score -= 25;
-			} else if (widthLength < 100 || heightLength < 100) {
+			} else if (width < 100 || height < 100) {
 				score -= 30;
-			} else if (widthLength < 150 || heightLength < 150) {
+			} else if (width < 150 || height < 150) {
 				score -= 10;
-			} else if ((widthLength > 300 || heightLength > 300) && (widthLength + heightLength) > 550) {
-				score += (int) (0.5 * (widthLength + heightLength - 550));
+			} else if ((width > 300 || height > 300) && (width + height) > 550) {
+				score += (int) (0.5 * (width + height - 550));
 			}
-		} else if (!isEmpty(width) && width.indexOf("%") == -1) {
-			String widthReplace = width.replaceAll("[pP][xX]", "");
-			int widthLength = Integer.parseInt(widthReplace);
-			if (widthLength < 100) {
+		} else if (width >= 0) {
+			if (width < 100) {
 				score -= 25;
-			} else if (widthLength < 150) {
+			} else if (width < 150) {
 				score -= 15;
-			} else if (widthLength > 400) {
+			} else if (width > 400) {
 				score += 15;
 			}
-		} else if (!isEmpty(height) && height.indexOf("%") == -1) {
-			String heightReplace = height.replaceAll("[pP][xX]", "");
-			int heightLength = Integer.parseInt(heightReplace);
-			if (heightLength < 100) {
+		} else if (height >= 0) {
+			if (height < 100) {
 				score -= 25;
-			} else if (heightLength < 150) {
+			} else if (height < 150) {
 				score -= 15;
-			} else if (heightLength > 400) {
+			} else if (height > 400) {
 				score += 15;
 			}
-		} else if ((!isEmpty(width) && width.indexOf("%") >= 0) || (!isEmpty(height) && height.indexOf("%") >= 0)) {
+		} else if (width == CssDimension.PERCENT || height == CssDimension.PERCENT) {
 			score -= 100;// 基本判定不是图片
 		}
 		if (score > 40)
@@ -369,26 +402,12 @@ public class ReadabilityForImg {
 	 * 
 	 * @param node
 	 */
-	private static void initializeNode(Element node) {
-		node.attr(CONTENT_SCORE, Integer.toString(0));
+	private void initializeNode(Element node) {
+		mContentScores.set(node, 0);
 
-		String tagName = node.tagName();
-		if ("div".equalsIgnoreCase(tagName)) {
-			incrementContentScore(node, 5);
-		} else if ("pre".equalsIgnoreCase(tagName) || "td".equalsIgnoreCase(tagName)
-				|| "blockquote".equalsIgnoreCase(tagName)) {
-			incrementContentScore(node, 3);
-		} else if ("address".equalsIgnoreCase(tagName) || "ol".equalsIgnoreCase(tagName)
-				|| "ul".equalsIgnoreCase(tagName) || "dl".equalsIgnoreCase(tagName) || "dd".equalsIgnoreCase(tagName)
-				|| "dt".equalsIgnoreCase(tagName) || "li".equalsIgnoreCase(tagName)
-				|| "form".equalsIgnoreCase(tagName)) {
-			incrementContentScore(node, -3);
-		} else if ("h1".equalsIgnoreCase(tagName) || "h2".equalsIgnoreCase(tagName) || "h3".equalsIgnoreCase(tagName)
-				|| "h4".equalsIgnoreCase(tagName) || "h5".equalsIgnoreCase(tagName) || "h6".equalsIgnoreCase(tagName)
-				|| "th".equalsIgnoreCase(tagName) || "noscript".equalsIgnoreCase(tagName)) {
-			incrementContentScore(node, -5);
-		}
-		incrementContentScore(node, getClassWeight(node));
+		/* 标签的基础分数见 TagWeights.Table.IMG_ARTICLE_CONTENT */
+		incrementContentScore(node, TagWeights.weight(TagWeights.Table.IMG_ARTICLE_CONTENT, node), "tag");
+		incrementContentScore(node, getClassWeight(node), "class/id");
 	}
 
 	/**
@@ -396,27 +415,15 @@ public class ReadabilityForImg {
 	 * 
 	 * @param node
 	 */
-	private static void initializeImgScore(Element node) {
-		node.attr(IMG_SCORE, Integer.toString(0));
+	private void initializeImgScore(Element node) {
+		mImgScores.set(node, 0);
 		/*
 		 * 根据标签给分，依照主流网站规律来看，一般p是img父标签，div是祖父标签 根据经验测试，目前基本都要扣5分
 		 */
 		String tagName = node.tagName();
-		if ("p".equalsIgnoreCase(tagName) || "article".equalsIgnoreCase(tagName)) {
-			incrementImgScore(node, 7);
-		} else if ("div".equalsIgnoreCase(tagName) || "span".equalsIgnoreCase(tagName)
-				|| "figure".equalsIgnoreCase(tagName)) {
-			incrementImgScore(node, 5);
-		} else if ("address".equalsIgnoreCase(tagName) || "ol".equalsIgnoreCase(tagName)
-				|| "ul".equalsIgnoreCase(tagName) || "dl".equalsIgnoreCase(tagName) || "dd".equalsIgnoreCase(tagName)
-				|| "dt".equalsIgnoreCase(tagName) || "li".equalsIgnoreCase(tagName) || "form".equalsIgnoreCase(tagName)
-				|| "td".equalsIgnoreCase(tagName) || "blockquote".equalsIgnoreCase(tagName)
-				|| "pre".equalsIgnoreCase(tagName) || "h1".equalsIgnoreCase(tagName) || "h2".equalsIgnoreCase(tagName)
-				|| "h3".equalsIgnoreCase(tagName) || "h4".equalsIgnoreCase(tagName) || "h5".equalsIgnoreCase(tagName)
-				|| "h6".equalsIgnoreCase(tagName) || "th".equalsIgnoreCase(tagName)
-				|| "noscript".equalsIgnoreCase(tagName)) {
-			incrementImgScore(node, -10);
-		} else if ("a".equalsIgnoreCase(tagName)) {
+		/* 标签的基础分数见 TagWeights.Table.IMG */
+		incrementImgScore(node, TagWeights.weight(TagWeights.Table.IMG, node), "tag");
+		if ("a".equalsIgnoreCase(tagName)) {
 			if (node.hasAttr("href") && !isEmpty(node.absUrl("href"))) {
 				String imgName = node.attr("href");
 				/*
@@ -430,26 +437,26 @@ public class ReadabilityForImg {
 						Element imgNode = node.getElementsByTag("img").first();
 						if (imgNode.hasAttr("src") && !isEmpty(imgNode.attr("src"))
 								&& imgNode.attr("src").equals(imgName)) {
-							incrementImgScore(node, 30);
+							incrementImgScore(node, 30, "a href");
 							// System.out.println("img src and a href are
 							// same");
 						} else if (imgNode.hasAttr("src") && !isEmpty(imgNode.attr("src"))
 								&& (imgNode.attr("src").contains(imgName) || imgName.contains(imgNode.attr("src")))) {
-							incrementImgScore(node, 15);
+							incrementImgScore(node, 15, "a href");
 						} else if (imgName.endsWith(".jpg") || imgName.endsWith(".jpeg") || imgName.endsWith(".gif")
 								|| imgName.endsWith(".png")) {
-							incrementImgScore(node, 10);
+							incrementImgScore(node, 10, "a href");
 						} else if (imgName.indexOf(".jpg?") > -1 || imgName.indexOf(".jpeg?") > -1
 								|| imgName.indexOf(".gif?") > -1 || imgName.indexOf(".png?") > -1) {
-							incrementImgScore(node, 5);
+							incrementImgScore(node, 5, "a href");
 						} else if (imgName.indexOf(".jpg%") > -1 || imgName.indexOf(".jpeg%") > -1
 								|| imgName.indexOf(".gif%") > -1 || imgName.indexOf(".png%") > -1) {
-							incrementImgScore(node, 5);
+							incrementImgScore(node, 5, "a href");
 						} else {
-							incrementImgScore(node, -150);
+							incrementImgScore(node, -150, "a href");
 						}
 					} else {
-						incrementImgScore(node, -20);
+						incrementImgScore(node, -20, "a href");
 					}
 
 				}
@@ -465,21 +472,17 @@ public class ReadabilityForImg {
 		attrScore += estimateWidthAndHeight(node);
 		String styleAttr = node.attr("style");
 		if (!isEmpty(styleAttr)) {
-			Matcher imgCandidatesMatcher = Patterns.get(Patterns.RegEx.IMGPARENT_CANDIDATES).matcher(styleAttr);
-			if (imgCandidatesMatcher.find()) {
+			if (Patterns.find(Patterns.RegEx.IMGPARENT_CANDIDATES, styleAttr)) {
 				attrScore += 10;
 			}
-			Matcher imgUnlikelyCandidatesMatcher = Patterns.get(Patterns.RegEx.IMG_UNLIKELY_CANDIDATES)
-					.matcher(styleAttr);
-			if (imgUnlikelyCandidatesMatcher.find()) {
+			if (Patterns.find(Patterns.RegEx.IMG_UNLIKELY_CANDIDATES, styleAttr)) {
 				attrScore -= 200;
 			}
 		}
 
 		String alignAttr = node.attr("align");
 		if (!isEmpty(alignAttr)) {
-			Matcher imgCandidatesMatcher1 = Patterns.get(Patterns.RegEx.IMGPARENT_CANDIDATES).matcher(alignAttr);
-			if (imgCandidatesMatcher1.find()) {
+			if (Patterns.find(Patterns.RegEx.IMGPARENT_CANDIDATES, alignAttr)) {
 				attrScore += 10;
 			} else {
 				attrScore -= 10;
@@ -488,25 +491,20 @@ public class ReadabilityForImg {
 
 		/* 根据class属性加减分数 */
 		/* 根据标签class id属性值计算得分: 匹配NEGATIVE减15分, 匹配POSITIVE 加15分 */
-		String className = node.className() + " " + node.id();
-		//System.out.println("class: " + className);
-		if (!isEmpty(className)) {
-			Matcher negativeMatcher = Patterns.get(Patterns.RegEx.NEGATIVE_IMG).matcher(className);
-			Matcher positiveMatcher = Patterns.get(Patterns.RegEx.POSITIVE_IMG).matcher(className);
-			Matcher removeMatcher = Patterns.get(Patterns.RegEx.REMOVE_IMG).matcher(className);
-			if (negativeMatcher.find()) {
-				attrScore -= 15;
-			}
-			if (positiveMatcher.find()) {
-				attrScore += 15;
-			}
-			if (removeMatcher.find()) {
-				attrScore -= 40;
-			}
+		//System.out.println("class: " + node.className() + " " + node.id());
+		int keywords = ClassIdCache.get(node.className(), node.id()).spaced;
+		if (KeywordClassifier.has(keywords, Patterns.RegEx.NEGATIVE_IMG)) {
+			attrScore -= 15;
+		}
+		if (KeywordClassifier.has(keywords, Patterns.RegEx.POSITIVE_IMG)) {
+			attrScore += 15;
+		}
+		if (KeywordClassifier.has(keywords, Patterns.RegEx.REMOVE_IMG)) {
+			attrScore -= 40;
 		}
 
-		int contentScore = getContentScore(node);
-		incrementImgScore(node, attrScore + contentScore);
+		incrementImgScore(node, attrScore, "attributes");
+		incrementImgScore(node, getContentScore(node), "content score");
 	}
 
 	/**
@@ -514,7 +512,7 @@ public class ReadabilityForImg {
 	 * 
 	 * @param node
 	 */
-	private static void initImgTagScore(Element node) {
+	private void initImgTagScore(Element node) {
 		/*
 		 * 为img本身特点加分
 		 *  1. 为src属性评分
@@ -525,161 +523,119 @@ public class ReadabilityForImg {
 		 *  6. style属性
 		 */
 
-		int imgScore = 0;
-		String srcImg = null;
-		if (node.hasAttr("data-src") && !isEmpty(node.attr("data-src"))) {
-			srcImg = node.attr("abs:data-src");
-		} else if (!isEmpty(node.attr("src"))) {
-			srcImg = node.attr("abs:src");
-		}
+		String srcImg = getImgSrc(node);
 
-		String imgTime = new TimeUtil().getDateFromUrl(srcImg);
 		if (!isEmpty(srcImg)) {
-			Matcher negativeMatcher = Patterns.get(Patterns.RegEx.NEGATIVE_IMG).matcher(srcImg);
-			Matcher positiveMatcher = Patterns.get(Patterns.RegEx.POSITIVE_IMG).matcher(srcImg);
-			Matcher removeMatcher = Patterns.get(Patterns.RegEx.REMOVE_IMG).matcher(srcImg);
-			if (negativeMatcher.find()) {
-				imgScore -= 25;
+			int keywords = KeywordClassifier.classify(srcImg);
+			if (KeywordClassifier.has(keywords, Patterns.RegEx.NEGATIVE_IMG)) {
+				incrementImgScore(node, -25, "src");
 			}
-			if (positiveMatcher.find()) {
-				imgScore += 25;
+			if (KeywordClassifier.has(keywords, Patterns.RegEx.POSITIVE_IMG)) {
+				incrementImgScore(node, 25, "src");
 			}
-			if (removeMatcher.find()) {
-				imgScore -= 60;
+			if (KeywordClassifier.has(keywords, Patterns.RegEx.REMOVE_IMG)) {
+				incrementImgScore(node, -60, "src");
 			}
-			System.out.println("src attr score: " + imgScore);
 			/*
 			 * 检测时间距离
 			 */
+			String imgTime = PageDates.TIME_UTIL.getDateFromUrl(srcImg);
 			if (!isEmpty(imgTime)) {
 				// System.out.println("get img time: "+imgTime);
-				Date imgDate = string2Date(imgTime);
-				// System.out.println("url: " + node.root().baseUri());
-				String pubTime = new TimeUtil().getDateFromUrl(node.root().baseUri());
-				if (!isEmpty(pubTime)) {
-					// System.out.println("get pub time: "+pubTime);
-					Date pubDate = string2Date(pubTime);
+				LocalDateTime imgDate = PageDates.toDateTime(imgTime);
+				if (mPageDates.hasPublishTime) {
+					LocalDateTime pubDate = mPageDates.published;
 					if (imgDate != null && pubDate != null) {
 						int differentDays = timeDifference(imgDate, pubDate);
 						if (differentDays > 15 && differentDays < 30) {
-							imgScore -= differentDays;
+							incrementImgScore(node, -differentDays, "date");
 						} else if (differentDays > 30) {
-							imgScore -= 40;
+							incrementImgScore(node, -40, "date");
 						} else if (differentDays >= 0 && differentDays < 1) {
-							imgScore += 30;
+							incrementImgScore(node, 30, "date");
 						} else if (differentDays >= 0 && differentDays < 3) {
-							imgScore += 20;
+							incrementImgScore(node, 20, "date");
 						} else if (differentDays >= 0 && differentDays < 7) {
-							imgScore += 10;
+							incrementImgScore(node, 10, "date");
 						}
 					}
 				} else {
 
-					Date date = new Date();
-					if (imgDate != null && date != null) {
+					LocalDateTime date = mPageDates.now;
+					if (imgDate != null) {
 						int differentDays = timeDifference(imgDate, date);
 						if (differentDays > 15 && differentDays < 30) {
-							imgScore -= differentDays / 3;
+							incrementImgScore(node, -(differentDays / 3), "date");
 						} else if (differentDays > 30) {
-							imgScore -= 20;
+							incrementImgScore(node, -20, "date");
 						} else if (differentDays >= 0 && differentDays < 1) {
-							imgScore += 30;
+							incrementImgScore(node, 30, "date");
 						} else if (differentDays >= 0 && differentDays < 3) {
-							imgScore += 20;
+							incrementImgScore(node, 20, "date");
 						} else if (differentDays >= 0 && differentDays < 7) {
-							imgScore += 10;
+							incrementImgScore(node, 10, "date");
 						}
 					}
 				}
-				//System.out.println("src time score: " + imgScore);
 			}
 		} else {// 没有src属性
-			imgScore -= 500;
+			incrementImgScore(node, -500, "src");
 		}
-		//System.out.println("src score: " + imgScore);
 		/*
 		 * TODO: 考虑title, alt包含标题的情况
 		 */
 		String altAttr = node.attr("alt") + node.attr("title");
 		if (!isEmpty(altAttr) && altAttr.length() < 30) {
-			Matcher negativeMatcher = Patterns.get(Patterns.RegEx.NEGATIVE_IMG).matcher(altAttr);
-			Matcher positiveMatcher = Patterns.get(Patterns.RegEx.POSITIVE_IMG).matcher(altAttr);
-			Matcher removeMatcher = Patterns.get(Patterns.RegEx.REMOVE_IMG).matcher(altAttr);
-			if (negativeMatcher.find()) {
-				imgScore -= 10;
+			int keywords = KeywordClassifier.classify(altAttr);
+			if (KeywordClassifier.has(keywords, Patterns.RegEx.NEGATIVE_IMG)) {
+				incrementImgScore(node, -10, "alt/title");
 			}
-			if (positiveMatcher.find()) {
-				imgScore += 10;
+			if (KeywordClassifier.has(keywords, Patterns.RegEx.POSITIVE_IMG)) {
+				incrementImgScore(node, 10, "alt/title");
 			}
-			if (removeMatcher.find()) {
-				imgScore -= 40;
+			if (KeywordClassifier.has(keywords, Patterns.RegEx.REMOVE_IMG)) {
+				incrementImgScore(node, -40, "alt/title");
 			}
 		}
-		//System.out.println("title and alt: " + altAttr + altAttr.length() + "; score: " + imgScore);
 
-		imgScore += estimateWidthAndHeight(node);
+		incrementImgScore(node, estimateWidthAndHeight(node), "size");
 		/*
 		 * 根据align="center"给分
 		 */
 		String alignAttr = node.attr("align");
 		if (!isEmpty(alignAttr)) {
-			Matcher imgCandidatesMatcher1 = Patterns.get(Patterns.RegEx.IMGPARENT_CANDIDATES).matcher(alignAttr);
-			if (imgCandidatesMatcher1.find()) {
-				imgScore += 10;
+			if (Patterns.find(Patterns.RegEx.IMGPARENT_CANDIDATES, alignAttr)) {
+				incrementImgScore(node, 10, "align");
 			} else {
-				imgScore -= 10;
+				incrementImgScore(node, -10, "align");
 			}
 		}
-		//System.out.println("align score: " + imgScore);
 
 		/*
 		 * href 减分
 		 */
 		if (node.hasAttr("href") && !isEmpty(node.attr("href"))) {
-			imgScore -= 200;
+			incrementImgScore(node, -200, "href");
 		}
-		//System.out.println("href score: " + imgScore);
 		/*
 		 * style 评分
 		 */
 		String styleAttr = node.attr("style");
 		if (!isEmpty(styleAttr) && styleAttr.length() < 30) {
-			Matcher negativeMatcher = Patterns.get(Patterns.RegEx.IMGPARENT_CANDIDATES).matcher(styleAttr);
-			Matcher positiveMatcher = Patterns.get(Patterns.RegEx.IMG_UNLIKELY_CANDIDATES).matcher(styleAttr);
-			if (negativeMatcher.find()) {
-				imgScore -= 30;
+			if (Patterns.find(Patterns.RegEx.IMGPARENT_CANDIDATES, styleAttr)) {
+				incrementImgScore(node, -30, "style");
 			}
-			if (positiveMatcher.find()) {
-				imgScore += 10;
+			if (Patterns.find(Patterns.RegEx.IMG_UNLIKELY_CANDIDATES, styleAttr)) {
+				incrementImgScore(node, 10, "style");
 			}
 		}
-		//System.out.println("href score: " + imgScore);
-		incrementImgScore(node, imgScore);
-	}
-
-	/*
-	 * 将yyyy-mm-dd格式字符串转换成date
-	 */
-	private static Date string2Date(String time) {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-		Date date = null;
-		try {
-			date = sdf.parse(time);
-		} catch (ParseException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-
-		return date;
-
 	}
 
 	/*
 	 * 比较两个date的天数差距
 	 */
-	private static int timeDifference(Date date1, Date date2) {
-		int days = (int) ((date2.getTime() - date1.getTime()) / (1000 * 3600 * 24));
-		return days;
+	private static int timeDifference(LocalDateTime date1, LocalDateTime date2) {
+		return (int) Duration.between(date1, date2).toDays();
 	}
 
 	private static Element checkStrong(Element node) {
@@ -702,18 +658,27 @@ public class ReadabilityForImg {
 		 * 垃圾节点看起来很粗糙（就像类名称“comment”等）， 并将div转换为p标记使用不当（例如，它们不包含其他块级元素。）
 		 * 
 		 **/
-		for (Element node : mDocument.getAllElements()) {
+		mContentScores.clear();
+		mImgScores.clear();
+		Set<Element> divsWithBlocks = DomHelper.findDivsWithBlocks(mDocument,
+				Patterns.RegEx.DIV_TO_P_ELEMENTS);
+		Elements allElements = mDocument.getAllElements();
+		ExtractionMetrics.count(ExtractionMetrics.Counter.NODES_VISITED, allElements.size());
+		if (mEvent != null) {
+			mEvent.nodes = allElements.size();
+		}
+		if (mCostReport != null) {
+			mCostReport.addElements(allElements.size());
+		}
+		for (Element node : allElements) {
 			/* 删除RegEx中定义的标签class、id含有相关垃圾属性的标签 */
 			if (!preserveUnlikelyCandidates) {
-				String unlikelyMatchString = node.className() + node.id();
-				Matcher unlikelyCandidatesMatcher = Patterns.get(Patterns.RegEx.UNLIKELY_CANDIDATES)
-						.matcher(unlikelyMatchString);
-				Matcher maybeCandidateMatcher = Patterns.get(Patterns.RegEx.OK_MAYBE_ITS_A_CANDIDATE)
-						.matcher(unlikelyMatchString);
-				if (unlikelyCandidatesMatcher.find() && !maybeCandidateMatcher.find()
+				int keywords = ClassIdCache.get(node.className(), node.id()).joined;
+				if (KeywordClassifier.has(keywords, Patterns.RegEx.IMG_ARTICLE_UNLIKELY_CANDIDATES)
+						&& !KeywordClassifier.has(keywords, Patterns.RegEx.OK_MAYBE_ITS_A_CANDIDATE)
 						&& !"body".equalsIgnoreCase(node.tagName())) {
 					node.remove();
-					dbg("Removing unlikely candidate - " + unlikelyMatchString);
+					dbg(() -> "Removing unlikely candidate - " + node.className() + node.id());
 					continue;
 				}
 			}
@@ -723,8 +688,7 @@ public class ReadabilityForImg {
 			 */
 			// Q:为什么要把div转换成p啊？待思考
 			if ("div".equalsIgnoreCase(node.tagName())) {
-				Matcher matcher = Patterns.get(Patterns.RegEx.DIV_TO_P_ELEMENTS).matcher(node.html());
-				if (!matcher.find()) {
+				if (!divsWithBlocks.contains(node)) {
 					// dbg("Alternating div to p: " + node);
 					try {
 						node.tagName("p");
@@ -738,29 +702,30 @@ public class ReadabilityForImg {
 		/**
 		 * 遍历所有段落标签(P),将计算的分数增加到各自父节点 分数是由标签名称、class、id属性值、该node元素下文本的权重分数计算得出
 		 */
+		mTextStats = TextStats.of(mDocument);
 		Elements allParagraphs = mDocument.getElementsByTag("p");
 		ArrayList<Element> candidates = new ArrayList<Element>();
 
 		for (Element node : allParagraphs) {
 			Element parentNode = node.parent();
 			Element grandParentNode = parentNode.parent();
-			String innerText = getInnerText(node, true);
+			int innerTextLength = mTextStats.normalizedLength(node);
 
 			/*
 			 * 如果该node元素下纯文本(去除空白字符)长度小于25个,则跳过计算
 			 */
-			if (innerText.length() < 25) {
+			if (innerTextLength < 25) {
 				continue;
 			}
 
 			/* 初始化node元素的父级标签分数权重值 */
-			if (!parentNode.hasAttr(CONTENT_SCORE)) {
+			if (!mContentScores.has(parentNode)) {
 				initializeNode(parentNode);
 				candidates.add(parentNode);
 			}
 
 			/* 初始化node元素的父级的父级标签分数权重值 */
-			if (!grandParentNode.hasAttr(CONTENT_SCORE)) {
+			if (!mContentScores.has(grandParentNode)) {
 				initializeNode(grandParentNode);
 				candidates.add(grandParentNode);
 			}
@@ -771,23 +736,16 @@ public class ReadabilityForImg {
 			contentScore++;
 
 			/* 为本段落中的任何逗号增加与逗号个数相应的分数 */
-			contentScore += innerText.split(",|，").length;
+			contentScore += mTextStats.commaSegments(node);
 
 			/*
 			 * 为该node元素下每100个字符(包含空白字符)增加最多3分
 			 */
-			contentScore += Math.min(Math.floor((double) innerText.length() / 100), 3);
+			contentScore += Math.min(Math.floor((double) innerTextLength / 100), 3);
 
 			/* 将计算的父级元素权重分数添加至元素中, 祖父级元素获取父级元素1/2权重 */
-			incrementContentScore(parentNode, contentScore);
-			incrementContentScore(grandParentNode, contentScore / 2);
-		}
-
-		try {
-			File newsFile = new File("test/newsHTML.txt");
-			FileUtils.writeStringToFile(newsFile, mDocument.html(), false);
-		} catch (IOException e) {
-			e.printStackTrace();
+			incrementContentScore(parentNode, contentScore, "paragraph");
+			incrementContentScore(grandParentNode, contentScore / 2, "grandchild paragraph");
 		}
 
 		/**
@@ -799,23 +757,35 @@ public class ReadabilityForImg {
 			 * 根据链接密度调整最终正文候选标签的权重分数 内容应具有相对较小的链接密度（5%或更小）
 			 */
 			scaleContentScore(candidate, 1 - getLinkDensity(candidate));
-			dbg("Candidate: (" + candidate.className() + ":" + candidate.id() + ") with score "
+			dbg(() -> "Candidate: (" + candidate.className() + ":" + candidate.id() + ") with score "
 					+ getContentScore(candidate));
 			if (topCandidate == null || getContentScore(candidate) > getContentScore(topCandidate)) {
 				topCandidate = candidate;
 			}
 		}
+		if (mEvent != null) {
+			mEvent.candidates = candidates.size();
+			mEvent.topScore = topCandidate == null ? 0 : getContentScore(topCandidate);
+		}
+		if (mCostReport != null) {
+			mCostReport.addContentCandidates(candidates.size());
+		}
 		/*
 		 * grabImg function（获取URL） 方案一：直接拿html里面所有的img标签，打分
 		 */
-		this.grabImg(mDocument, topCandidate);
+		ExtractionMetrics.Span imgSpan = ExtractionMetrics.start(ExtractionMetrics.Phase.GRAB_IMG);
+		try {
+			this.grabImg(mDocument, topCandidate);
+		} finally {
+			imgSpan.end();
+		}
 
 		/**
 		 * 如果计算最高得分元素为空或元素是Body块,则新创建一个块元素并将原始HTML放入，重新初始化节点分数
 		 */
 		if (topCandidate == null || "body".equalsIgnoreCase(topCandidate.tagName())) {
 			topCandidate = mDocument.createElement("div");
-			topCandidate.html(mDocument.body().html());
+			topCandidate.html(CostReport.html(mDocument.body()));
 			mDocument.body().html("");
 			mDocument.body().appendChild(topCandidate);
 			initializeNode(topCandidate);
@@ -831,7 +801,7 @@ public class ReadabilityForImg {
 		for (Element siblingNode : siblingNodes) {
 			boolean append = false;
 
-			dbg("Looking at sibling node: (" + siblingNode.className() + ":" + siblingNode.id() + ")" + " with score "
+			dbg(() -> "Looking at sibling node: (" + siblingNode.className() + ":" + siblingNode.id() + ")" + " with score "
 					+ getContentScore(siblingNode));
 
 			if (siblingNode == topCandidate) {
@@ -844,18 +814,18 @@ public class ReadabilityForImg {
 
 			if ("p".equalsIgnoreCase(siblingNode.tagName())) {
 				float linkDensity = getLinkDensity(siblingNode);
-				String nodeContent = getInnerText(siblingNode, true);
-				int nodeLength = nodeContent.length();
+				int nodeLength = mTextStats.normalizedLength(siblingNode);
 
 				if (nodeLength > 80 && linkDensity < 0.25f) {
 					append = true;
-				} else if (nodeLength < 80 && linkDensity == 0.0f && nodeContent.matches(".*\\.( |$).*")) {
+				} else if (nodeLength < 80 && linkDensity == 0.0f
+						&& Patterns.matches(Patterns.RegEx.SENTENCE_END, getInnerText(siblingNode, true))) {
 					append = true;
 				}
 			}
 
 			if (append) {
-				dbg("Appending node: " + siblingNode);
+				dbg(() -> "Appending node: " + siblingNode);
 				articleContent.appendChild(siblingNode);
 				continue;
 			}
@@ -867,7 +837,12 @@ public class ReadabilityForImg {
 		/*
 		 * 最后清理可疑节点
 		 */
-		prepArticle(articleContent);
+		ExtractionMetrics.Span cleanSpan = ExtractionMetrics.start(ExtractionMetrics.Phase.PREP_ARTICLE);
+		try {
+			prepArticle(articleContent);
+		} finally {
+			cleanSpan.end();
+		}
 
 		return articleContent;
 	}
@@ -879,9 +854,24 @@ public class ReadabilityForImg {
 	 * @param text
 	 */
 	public void grabImg(Element document, Element text) {
+		JfrEvents.GrabImg event = new JfrEvents.GrabImg();
+		event.begin();
+		int selected = pictext.size();
+		try {
+			grabImg(document, text, event);
+		} finally {
+			event.url = mDocument.location();
+			event.selected = pictext.size() - selected;
+			event.commit();
+		}
+	}
+
+	private void grabImg(Element document, Element text, JfrEvents.GrabImg event) {
 		Elements imgTag = document.getElementsByTag("img");
 		int ImgNumber = imgTag.size();
-		dbg("HTML一共有" + ImgNumber + "张图片");
+		ExtractionMetrics.count(ExtractionMetrics.Counter.NODES_VISITED, ImgNumber);
+		event.images = ImgNumber;
+		dbg(() -> "HTML一共有" + ImgNumber + "张图片");
 		if (ImgNumber == 0) {
 			return;
 		}
@@ -892,7 +882,9 @@ public class ReadabilityForImg {
 				text = text.parent();
 			}
 			textScore = getContentScore(text);
-			dbg("正文节点: " + text.id() + text.className() + "\n分数: " + textScore);
+			Element textNode = text;
+			int score = textScore;
+			dbg(() -> "正文节点: " + textNode.id() + textNode.className() + "\n分数: " + score);
 		}
 		//
 
@@ -900,6 +892,7 @@ public class ReadabilityForImg {
 		 * 遍历所有图片标签,将父节点的分数增加到自身身上 分数是由class、id，src属性值
 		 */
 		ArrayList<Element> candidates = new ArrayList<Element>();
+		mPageDates = PageDates.of(document.root());
 
 		for (Element node : imgTag) {
 			/*
@@ -937,23 +930,23 @@ public class ReadabilityForImg {
 				}
 
 				/* 初始化node元素的父级标签分数权重值 */
-				if (!parentNode.hasAttr(IMG_SCORE)) {
+				if (!mImgScores.has(parentNode)) {
 					initializeImgScore(parentNode);
 				}
 
 				/* 初始化node元素的父级的父级标签分数权重值 */
-				if (!grandParentNode.hasAttr(IMG_SCORE)) {
+				if (!mImgScores.has(grandParentNode)) {
 					initializeImgScore(grandParentNode);
 				}
 
 				/* 初始化node元素的父级的父级的父级标签分数权重值 */
-				if (!greatGrandParentNode.hasAttr(IMG_SCORE)) {
+				if (!mImgScores.has(greatGrandParentNode)) {
 					initializeImgScore(greatGrandParentNode);
 				}
 
 				/* 初始化node元素的分数 */
-				if (!node.hasAttr(IMG_SCORE)) {
-					node.attr(IMG_SCORE, Integer.toString(0));
+				if (!mImgScores.has(node)) {
+					mImgScores.set(node, 0);
 					initImgTagScore(node);
 				}
 
@@ -961,11 +954,11 @@ public class ReadabilityForImg {
 				/*
 				 * 反其道而行之，将父级元素权重分数添加至img元素中
 				 */
-				incrementImgScore(node, getImgScore(parentNode));
+				incrementImgScore(node, getImgScore(parentNode), "parent");
 				//System.out.println("parent: " + parentNode.className() + " : " + getImgScore(node));
-				incrementImgScore(node, getImgScore(grandParentNode));
+				incrementImgScore(node, getImgScore(grandParentNode), "grandparent");
 				//System.out.println("grandParent: " + grandParentNode.className() + " : " + getImgScore(node));
-				incrementImgScore(node, getImgScore(greatGrandParentNode) / 2);
+				incrementImgScore(node, getImgScore(greatGrandParentNode) / 2, "great-grandparent");
 				//System.out.println("greatGrandParent: " + greatGrandParentNode.className() + " : " + getImgScore(node));
 				/*
 				 * 考虑标签层级过多问题： 1. 当img标签分数较高，检测父节点的子节点个数，如果都为1或2，可以继续向上寻找正文节点
@@ -975,9 +968,9 @@ public class ReadabilityForImg {
 						&& grandParentNode.siblingElements().size()
 								+ greatGrandParentNode.siblingElements().size() < 1) {
 					if (getContentScore(greatGrandParentNode.parent()) > 0) { // 判断条件threshold可根据正文分数调整
-						incrementImgScore(node, getImgScore(greatGrandParentNode.parent()) / 2);
+						incrementImgScore(node, getImgScore(greatGrandParentNode.parent()) / 2, "ancestor");
 					} else if (getContentScore(greatGrandParentNode.parent().parent()) > 0) {
-						incrementImgScore(node, getImgScore(greatGrandParentNode.parent().parent()) / 2);
+						incrementImgScore(node, getImgScore(greatGrandParentNode.parent().parent()) / 2, "ancestor");
 					}
 				}
 				//System.out.println("add parent score: " + node.attr("abs:src") + " : " + getImgScore(node));
@@ -997,7 +990,14 @@ public class ReadabilityForImg {
 			}
 		}
 		int topScore = getImgScore(topCandidate);
-		dbg("TopCandidate: (" + topCandidate.attr("src") + ":" + topCandidate.id() + ") with score " + topScore);
+		event.candidates = candidates.size();
+		event.topScore = topScore;
+		if (mCostReport != null) {
+			mCostReport.addImgCandidates(candidates.size());
+		}
+		Element top = topCandidate;
+		int score = topScore;
+		dbg(() -> "TopCandidate: (" + top.attr("src") + ":" + top.id() + ") with score " + score);
 		if (topScore < 30) {// 可根据情况调整
 			return;
 		}
@@ -1025,22 +1025,24 @@ public class ReadabilityForImg {
 			Elements greatGrandParentImgTag = greatGrandParentNode.getElementsByTag("img");
 			for (Element node : greatGrandParentImgTag) {
 				if (node.parent().parent().parent().equals(greatGrandParentNode)) {
-					incrementImgScore(node, 5);
+					incrementImgScore(node, 5, "same great-grandparent as top");
 					addScoreTimes++;
 					if (node.parent().parent().equals(grandParentNode)) {
-						incrementImgScore(node, 10);
+						incrementImgScore(node, 10, "same grandparent as top");
 					}
 				}
 			}
 			if (addScoreTimes == 1) {
-				incrementImgScore(topCandidate, -15);
+				incrementImgScore(topCandidate, -15, "alone under great-grandparent");
 			}
 		} else {
 			/*
 			 * 原因： 1. 正文和图片分离 2. 正文节点错误 3. 正文无图片
 			 */
 			if (text != null){
-				dbg("警告：分数最高的节点不在正文节点下\n" + "正文节点id, className： " + text.id() + " ; " + text.className());
+				Element textNode = text;
+				dbg(() -> "警告：分数最高的节点不在正文节点下\n" + "正文节点id, className： " + textNode.id() + " ; "
+						+ textNode.className());
 			}
 		}
 		/*
@@ -1055,39 +1057,30 @@ public class ReadabilityForImg {
 		 */
 
 		topScore = getImgScore(topCandidate);
-		String topSrcImg = null;
-		if (topCandidate.hasAttr("data-src") && !isEmpty(topCandidate.attr("data-src"))) {
-			topSrcImg = topCandidate.attr("abs:data-src");
-		} else if (!isEmpty(topCandidate.attr("src"))) {
-			topSrcImg = topCandidate.attr("abs:src");
-		}
+		String topSrcImg = getImgSrc(topCandidate);
 		if (topScore > 50) {// 根据经验确定，还可以调整
 			for (Element candidate : candidates) {
-				String srcImg = null;
-				if (candidate.hasAttr("data-src") && !isEmpty(candidate.attr("data-src"))) {
-					srcImg = candidate.attr("abs:data-src");
-				} else if (!isEmpty(candidate.attr("src"))) {
-					srcImg = candidate.attr("abs:src");
-				}
+				String srcImg = getImgSrc(candidate);
 				/*
 				 * 1. 检验字符串长度 2. 检验属性 3. 检验分数
 				 */
 				if ((getImgScore(candidate) > 80 || topScore - getImgScore(candidate) < 20)
 						&& topSrcImg.length() == srcImg.length()) {
-					incrementImgScore(candidate, (int) (0.5 * (topScore - getImgScore(candidate))));
+					incrementImgScore(candidate, (int) (0.5 * (topScore - getImgScore(candidate))), "close to top");
 				}
 
 				if (!candidate.equals(topCandidate) && getImgScore(candidate) > 100 && !isEmpty(candidate.className())
 						&& !isEmpty(topCandidate.className())
 						&& candidate.className().equals(topCandidate.className())) {
-					incrementImgScore(candidate, Math.min(candidate.className().split(" ").length * 6, 20));
+					incrementImgScore(candidate, Math.min(candidate.className().split(" ").length * 6, 20),
+							"same class as top");
 				}
 				/*
 				 * 重复的src 应该不是正文图片， 不抽取
 				 */
 				if (topScore < 100) {
 					if (getImgScore(candidate) > 0.75 * topScore && topScore - getImgScore(candidate) < 20) {
-						dbg("Candidate: (" + srcImg + ":" + candidate.id() + ") with score " + getImgScore(candidate));
+						dbg(() -> "Candidate: (" + srcImg + ":" + candidate.id() + ") with score " + getImgScore(candidate));
 						if (pictext.containsKey(srcImg)) {
 							pictext.replace(srcImg, pictext.get(srcImg) + 1);
 						} else {
@@ -1099,7 +1092,7 @@ public class ReadabilityForImg {
 					 * 当分数很高的时候，可能差距会因为正文分数拉大
 					 */
 				} else if (getImgScore(candidate) > topScore - Math.max(textScore / 3, 0.3 * topScore) || getImgScore(candidate) > 200) {// 如果没有正文节点，textScore默认0
-					dbg("Candidate: (" + srcImg + ":" + candidate.id() + ") with score " + getImgScore(candidate));
+					dbg(() -> "Candidate: (" + srcImg + ":" + candidate.id() + ") with score " + getImgScore(candidate));
 					if (pictext.containsKey(srcImg)) {
 						pictext.replace(srcImg, pictext.get(srcImg) + 1);
 					} else {
@@ -1121,26 +1114,12 @@ public class ReadabilityForImg {
 		String textContent = e.text().trim();
 
 		if (normalizeSpaces) {
-			textContent = textContent.replaceAll(Patterns.REGEX_NORMALIZE, "");
+			textContent = Patterns.replaceAll(Patterns.RegEx.NORMALIZE, textContent, "");
 		}
 
 		return textContent;
 	}
 
-	/**
-	 * 获取字符串s在节点e中出现的次数
-	 * 
-	 * @param e
-	 * @param s
-	 * @return
-	 */
-	private static int getCharCount(Element e, String s) {
-		if (s == null || s.length() == 0) {
-			s = ",";
-		}
-		return getInnerText(e, true).split(s).length;
-	}
-
 	/**
 	 * 递归清除元素中的 style 属性
 	 * 
@@ -1166,14 +1145,8 @@ public class ReadabilityForImg {
 	 * @param e
 	 * @return
 	 */
-	private static float getLinkDensity(Element e) {
-		Elements links = getElementsByTag(e, "a");
-		int textLength = getInnerText(e, true).length();
-		float linkLength = 0.0F;
-		for (Element link : links) {
-			linkLength += getInnerText(link, true).length();
-		}
-		return linkLength / textLength;
+	private float getLinkDensity(Element e) {
+		return (float) mTextStats.linkLength(e) / mTextStats.normalizedLength(e);
 	}
 
 	/**
@@ -1184,141 +1157,35 @@ public class ReadabilityForImg {
 	 */
 	private static int getClassWeight(Element e) {
 		int weight = 0;
+		ClassIdCache.Keywords keywords = ClassIdCache.get(e.className(), e.id());
 
 		/* 根据标签class属性值计算得分: 匹配NEGATIVE减25分, 匹配POSITIVE 加25分 */
-		String className = e.className();
-		if (!isEmpty(className)) {
-			Matcher negativeMatcher = Patterns.get(Patterns.RegEx.NEGATIVE).matcher(className);
-			Matcher positiveMatcher = Patterns.get(Patterns.RegEx.POSITIVE).matcher(className);
-			if (negativeMatcher.find()) {
-				weight -= 25;
-			}
-			if (positiveMatcher.find()) {
-				weight += 25;
-			}
+		if (KeywordClassifier.has(keywords.className, Patterns.RegEx.IMG_ARTICLE_NEGATIVE)) {
+			weight -= 25;
+		}
+		if (KeywordClassifier.has(keywords.className, Patterns.RegEx.IMG_ARTICLE_POSITIVE)) {
+			weight += 25;
 		}
 
 		/* 根据标签id属性值计算得分: 匹配NEGATIVE减25分, 匹配POSITIVE 加25分 */
-		String id = e.id();
-		if (!isEmpty(id)) {
-			Matcher negativeMatcher = Patterns.get(Patterns.RegEx.NEGATIVE).matcher(id);
-			Matcher positiveMatcher = Patterns.get(Patterns.RegEx.POSITIVE).matcher(id);
-			if (negativeMatcher.find()) {
-				weight -= 25;
-			}
-			if (positiveMatcher.find()) {
-				weight += 25;
-			}
+		if (KeywordClassifier.has(keywords.id, Patterns.RegEx.IMG_ARTICLE_NEGATIVE)) {
+			weight -= 25;
 		}
-
-		return weight;
-	}
-
-	/**
-	 * 替换删除元素e中多个连续的br标签为1个
-	 * 
-	 * @param e
-	 */
-	private static void killBreaks(Element e) {
-		e.html(e.html().replaceAll(Patterns.REGEX_KILL_BREAKS, "<br />"));
-	}
-
-	/**
-	 * 清除所有tag元素,保留 Patterns.RegEx.VIDEO 元素
-	 * 
-	 * @param e
-	 * @param tag
-	 */
-	private static void clean(Element e, String tag) {
-		Elements targetList = getElementsByTag(e, tag);
-		boolean isEmbed = "object".equalsIgnoreCase(tag) || "embed".equalsIgnoreCase(tag)
-				|| "iframe".equalsIgnoreCase(tag);
-
-		for (Element target : targetList) {
-			Matcher matcher = Patterns.get(Patterns.RegEx.VIDEO).matcher(target.outerHtml());
-			if (isEmbed && matcher.find()) {
-				continue;
-			}
-			target.remove();
+		if (KeywordClassifier.has(keywords.id, Patterns.RegEx.IMG_ARTICLE_POSITIVE)) {
+			weight += 25;
 		}
-	}
-
-	/**
-	 * 根据内容长度、class属性、A链接密度、图片数量等判断tag元素的可能性,并进行清除
-	 * 
-	 * @param e
-	 * @param tag
-	 */
-	private void cleanConditionally(Element e, String tag) {
-		Elements tagsList = getElementsByTag(e, tag);
-
-		/**
-		 * 计算节点中的权重进行删除
-		 */
-		for (Element node : tagsList) {
-			int weight = getClassWeight(node);
 
-			dbg("Cleaning Conditionally (" + node.className() + ":" + node.id() + ")" + getContentScore(node));
-
-			if (weight < 0) {
-				node.remove();
-			} else if (getCharCount(node, ",") < 10) {
-				/**
-				 * 如果逗号不多，那么非段落元素多于段落或其他,则将其删除
-				 */
-				int p = getElementsByTag(node, "p").size();
-				int img = getElementsByTag(node, "img").size();
-				int li = getElementsByTag(node, "li").size() - 100;
-				int input = getElementsByTag(node, "input").size();
-
-				int embedCount = 0;
-				Elements embeds = getElementsByTag(node, "embed");
-				for (Element embed : embeds) {
-					if (!Patterns.get(Patterns.RegEx.VIDEO).matcher(embed.absUrl("src")).find()) {
-						embedCount++;
-					}
-				}
-
-				float linkDensity = getLinkDensity(node);
-				int contentLength = getInnerText(node, true).length();
-				boolean toRemove = false;
-
-				if (img > p) {
-					toRemove = true;
-				} else if (li > p && !"ul".equalsIgnoreCase(tag) && !"ol".equalsIgnoreCase(tag)) {
-					toRemove = true;
-				} else if (input > Math.floor(p / 3)) {
-					toRemove = true;
-				} else if (contentLength < 25 && (img == 0 || img > 2)) {
-					toRemove = true;
-				} else if (weight < 25 && linkDensity > 0.2f) {
-					toRemove = true;
-				} else if (weight > 25 && linkDensity > 0.5f) {
-					toRemove = true;
-				} else if ((embedCount == 1 && contentLength < 75) || embedCount > 1) {
-					toRemove = true;
-				}
-
-				if (toRemove) {
-					node.remove();
-				}
-			}
-		}
+		return weight;
 	}
 
 	/**
-	 * 清除元素中的假标题
+	 * Print debug logs, msg 只在输出时才计算
 	 * 
-	 * @param e
+	 * @param msg
 	 */
-	private static void cleanHeaders(Element e) {
-		for (int headerIndex = 1; headerIndex < 7; headerIndex++) {
-			Elements headers = getElementsByTag(e, "h" + headerIndex);
-			for (Element header : headers) {
-				if (getClassWeight(header) < 0 || getLinkDensity(header) > 0.33f) {
-					header.remove();
-				}
-			}
+	protected final void dbg(Supplier<String> msg) {
+		if (mDebug) {
+			dbg(msg.get());
 		}
 	}
 
@@ -1338,148 +1205,25 @@ public class ReadabilityForImg {
 	 * @param t
 	 */
 	protected void dbg(String msg, Throwable t) {
+		if (!mDebug) {
+			return;
+		}
 		System.out.println(
 				msg + (t != null ? ("\n" + t.getMessage()) : "") + (t != null ? ("\n" + t.getStackTrace()) : ""));
 	}
 
-	private static class Patterns {
-		private static Pattern sUnlikelyCandidatesRe;
-		private static Pattern sOkMaybeItsACandidateRe;
-		private static Pattern sPositiveRe;
-		private static Pattern sNegativeRe;
-		private static Pattern sDivToPElementsRe;
-		private static Pattern sVideoRe;
-		private static Pattern sImgParentsCandidatesRe;
-		private static Pattern sImgParentsUnlikelyCandidatesRe;
-		private static Pattern sPositiveImgRe;
-		private static Pattern sNegativeImgRe;
-		private static Pattern sRemoveImgRe;
-
-		private static final String REGEX_REPLACE_BRS = "(?i)(<br[^>]*>[ \n\r\t]*){2,}";
-		private static final String REGEX_REPLACE_FONTS = "(?i)<(\\/?)font[^>]*>";// </font
-																					// src=a
-																					// >
-		/* Java has String.trim() */
-		// private static final String REGEX_TRIM = "^\\s+|\\s+$";
-		private static final String REGEX_NORMALIZE = "\\s{2,}";
-		private static final String REGEX_KILL_BREAKS = "(<br\\s*\\/?>(\\s|&nbsp;?)*){1,}";
-
-		public enum RegEx {
-			UNLIKELY_CANDIDATES, OK_MAYBE_ITS_A_CANDIDATE, POSITIVE, NEGATIVE, DIV_TO_P_ELEMENTS, VIDEO, IMGPARENT_CANDIDATES, IMG_UNLIKELY_CANDIDATES, POSITIVE_IMG, NEGATIVE_IMG, REMOVE_IMG;
-		}
-
-		public static Pattern get(RegEx re) {
-			switch (re) {
-			case UNLIKELY_CANDIDATES: {
-				if (sUnlikelyCandidatesRe == null) {
-					sUnlikelyCandidatesRe = Pattern.compile(
-							"combx|comment|disqus|foot|menu|meta|nav|rss|shoutbox|sidebar|sponsor",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sUnlikelyCandidatesRe;
-			}
-			case OK_MAYBE_ITS_A_CANDIDATE: {
-				if (sOkMaybeItsACandidateRe == null) {
-					sOkMaybeItsACandidateRe = Pattern.compile("and|article|body|column|main", Pattern.CASE_INSENSITIVE);
-				}
-				return sOkMaybeItsACandidateRe;
-			}
-			case POSITIVE: {
-				if (sPositiveRe == null) {
-					sPositiveRe = Pattern.compile("article|body|content|entry|hentry|page|pagination|post|text|main",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sPositiveRe;
-			}
-			case NEGATIVE: {
-				if (sNegativeRe == null) {
-					sNegativeRe = Pattern.compile(
-							"combx|comment|contact|foot|footer|footnote|link|media|meta|promo|related|scroll|shoutbox|sponsor|tags|widget|share|scan",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sNegativeRe;
-			}
-			case DIV_TO_P_ELEMENTS: {
-				if (sDivToPElementsRe == null) {
-					sDivToPElementsRe = Pattern.compile("<(a|blockquote|dl|div|img|ol|p|pre|table|ul)",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sDivToPElementsRe;
-			}
-			case VIDEO: {
-				if (sVideoRe == null) {
-					sVideoRe = Pattern.compile("http:\\/\\/(www\\.)?(youtube|vimeo)\\.com", Pattern.CASE_INSENSITIVE);
-				}
-				return sVideoRe;
-			}
-			case IMGPARENT_CANDIDATES: {
-				if (sImgParentsCandidatesRe == null) {
-					sImgParentsCandidatesRe = Pattern.compile("center|text-align(\\s)?:(\\s)?center",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sImgParentsCandidatesRe;
-			}
-			case IMG_UNLIKELY_CANDIDATES: {
-				if (sImgParentsUnlikelyCandidatesRe == null) {
-					sImgParentsUnlikelyCandidatesRe = Pattern.compile("display(\\s)?:(\\s)?none",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sImgParentsUnlikelyCandidatesRe;
-			}
-			case POSITIVE_IMG: {
-				if (sPositiveImgRe == null) {
-					sPositiveImgRe = Pattern.compile(
-							"article|body|content|entry|hentry|image-container|main|news|page|photo|post|text",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sPositiveImgRe;
-			}
-			case NEGATIVE_IMG: {
-				if (sNegativeImgRe == null) {
-					sNegativeImgRe = Pattern.compile(
-							"bar|combx|cursor|header|link|pointer|promo|related|scroll|share|shoutbox|uppage|widget",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sNegativeImgRe;
-			}
-			case REMOVE_IMG: {
-				if (sRemoveImgRe == null) {
-					sRemoveImgRe = Pattern.compile(
-							"-ads|ad1|ad2|^[a-zA-Z]ads|advertise|comment|contact|facebook|flashplayer|foot|icon|logo"
-									+ "|meta|qq|qrcode|scan|sina|sponsor|tags|twitter|vote|weibo|weixin|点赞|分享|参与互动|微信公众号",
-							Pattern.CASE_INSENSITIVE);
-				}
-				return sRemoveImgRe;
-			}
-
-			}
-			return null;
-		}
-	}
-
 	/**
 	 * 获取元素节点分数
 	 * 
 	 * @param node
 	 * @return
 	 */
-	private static int getContentScore(Element node) {
-		try {
-			if (node != null && node.hasAttr(CONTENT_SCORE) && node.attr(CONTENT_SCORE) != null) {
-				return Integer.parseInt(node.attr(CONTENT_SCORE));
-			}
-		} catch (NumberFormatException e) {
-			return 0;
-		}
-		return 0;
+	private int getContentScore(Element node) {
+		return mContentScores.get(node);
 	}
 
-	private static int getImgScore(Element node) {
-		try {
-			return Integer.parseInt(node.attr(IMG_SCORE));
-		} catch (NumberFormatException e) {
-			return 0;
-		}
+	private int getImgScore(Element node) {
+		return mImgScores.get(node);
 	}
 
 	/**
@@ -1487,19 +1231,25 @@ public class ReadabilityForImg {
 	 * 
 	 * @param node
 	 * @param increment
+	 * @param reason
+	 *            记入分数明细的原因
 	 * @return
 	 */
-	private static Element incrementContentScore(Element node, int increment) {
-		int contentScore = getContentScore(node);
-		contentScore += increment;
-		node.attr(CONTENT_SCORE, Integer.toString(contentScore));
+	private Element incrementContentScore(Element node, int increment, String reason) {
+		int contentScore = mContentScores.get(node) + increment;
+		mContentScores.set(node, contentScore);
+		if (mScoreTrace != null && increment != 0) {
+			mScoreTrace.add(ScoreTrace.Score.CONTENT, node, reason, increment, contentScore);
+		}
 		return node;
 	}
 
-	private static Element incrementImgScore(Element node, int increment) {
-		int imgScore = getImgScore(node);
-		imgScore += increment;
-		node.attr(IMG_SCORE, Integer.toString(imgScore));
+	private Element incrementImgScore(Element node, int increment, String reason) {
+		int imgScore = mImgScores.get(node) + increment;
+		mImgScores.set(node, imgScore);
+		if (mScoreTrace != null && increment != 0) {
+			mScoreTrace.add(ScoreTrace.Score.IMG, node, reason, increment, imgScore);
+		}
 		return node;
 	}
 
@@ -1510,10 +1260,14 @@ public class ReadabilityForImg {
 	 * @param scale
 	 * @return
 	 */
-	private static Element scaleContentScore(Element node, float scale) {
-		int contentScore = getContentScore(node);
+	private Element scaleContentScore(Element node, float scale) {
+		int original = getContentScore(node);
+		int contentScore = original;
 		contentScore *= scale;
-		node.attr(CONTENT_SCORE, Integer.toString(contentScore));
+		mContentScores.set(node, contentScore);
+		if (mScoreTrace != null && contentScore != original) {
+			mScoreTrace.add(ScoreTrace.Score.CONTENT, node, "link density", contentScore - original, contentScore);
+		}
 		return node;
 	}
 
@@ -1530,6 +1284,19 @@ public class ReadabilityForImg {
 		return es;
 	}
 
+	/**
+	 * @param img
+	 * @return 图片的绝对地址, 优先取 data-src, 都没有时为null
+	 */
+	private static String getImgSrc(Element img) {
+		if (img.hasAttr("data-src") && !isEmpty(img.attr("data-src"))) {
+			return img.attr("abs:data-src");
+		} else if (!isEmpty(img.attr("src"))) {
+			return img.attr("abs:src");
+		}
+		return null;
+	}
+
 	/**
 	 * 参数字符串是否为空
 	 * 
@@ -0,0 +1,30 @@
+package testExample;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * 元素分数表, 按元素对象(identity)保存 readability 计算的分数 <BR>
+ * 默认实现是 {@link IdentityScoreStore}, 不修改DOM; {@link AttributeScoreStore} 把分数写进元素属性, 便于在输出的html中查看
+ *
+ */
+public interface ScoreStore {
+
+	/**
+	 * @param e
+	 * @return 元素是否已经有分数
+	 */
+	boolean has(Element e);
+
+	/**
+	 * @param e
+	 * @return 元素的分数, 没有时返回0
+	 */
+	int get(Element e);
+
+	void set(Element e, int score);
+
+	/**
+	 * 清空所有分数
+	 */
+	void clear();
+}
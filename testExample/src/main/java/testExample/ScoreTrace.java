@@ -0,0 +1,129 @@
+package testExample;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * 分数明细: 记录每次加减分的元素、原因、增量和加完后的分数 <BR>
+ * 1. 通过 Readability.setScoreTrace、ReadabilityForImg.setScoreTrace 设置, 不设置时不记录, 也不构造任何字符串 <BR>
+ * 2. 一次抽取用一个, 不是线程安全的; Readability 重试时第一遍的明细保留在前面
+ *
+ */
+public final class ScoreTrace {
+
+	/**
+	 * 分数的种类
+	 */
+	public enum Score {
+		/** 正文分数 */
+		CONTENT,
+		/** 图片分数 */
+		IMG
+	}
+
+	/**
+	 * 一次加减分
+	 */
+	public static final class Entry {
+		private final Score score;
+		private final Element node;
+		private final String reason;
+		private final int delta;
+		private final int total;
+
+		Entry(Score score, Element node, String reason, int delta, int total) {
+			this.score = score;
+			this.node = node;
+			this.reason = reason;
+			this.delta = delta;
+			this.total = total;
+		}
+
+		public Score getScore() {
+			return score;
+		}
+
+		public Element getNode() {
+			return node;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+
+		public int getDelta() {
+			return delta;
+		}
+
+		/**
+		 * @return 加减分之后的分数
+		 */
+		public int getTotal() {
+			return total;
+		}
+
+		@Override
+		public String toString() {
+			return score + " " + describe(node) + " " + reason + " " + (delta >= 0 ? "+" : "") + delta + " = "
+					+ total;
+		}
+	}
+
+	private final List<Entry> mEntries = new ArrayList<Entry>();
+
+	void add(Score score, Element node, String reason, int delta, int total) {
+		mEntries.add(new Entry(score, node, reason, delta, total));
+	}
+
+	/**
+	 * @return 按发生顺序排列的所有明细
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(mEntries);
+	}
+
+	/**
+	 * @param score
+	 * @param node
+	 * @return node 的 score 分数的明细
+	 */
+	public List<Entry> getEntries(Score score, Element node) {
+		List<Entry> entries = new ArrayList<Entry>();
+		for (Entry entry : mEntries) {
+			if (entry.score == score && entry.node == node) {
+				entries.add(entry);
+			}
+		}
+		return entries;
+	}
+
+	public void clear() {
+		mEntries.clear();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Entry entry : mEntries) {
+			sb.append(entry).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 元素的简短描述: 标签名#id.class
+	 */
+	static String describe(Element node) {
+		StringBuilder sb = new StringBuilder(node.tagName());
+		if (node.id().length() != 0) {
+			sb.append('#').append(node.id());
+		}
+		for (String className : node.classNames()) {
+			sb.append('.').append(className);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,110 @@
+package testExample;
+
+import java.util.Arrays;
+
+/**
+ * 网页中 script、style 和注释所占区间的索引 <BR>
+ * 1. 构造时线性扫描一次网页, 标签名不区分大小写 <BR>
+ * 2. 区间按起点排序且互不重叠, {@link #contains(int)} 用二分查找, O(log n) <BR>
+ * 3. 没有结束标签的 script/style 和没有结束的注释不算区间
+ *
+ */
+final class ScriptIndex {
+
+	private static final String[] RAW_TEXT_TAGS = { "script", "style" };
+
+	private final int[] mStarts;
+	private final int[] mEnds;
+	private final int mSize;
+
+	private ScriptIndex(int[] starts, int[] ends, int size) {
+		mStarts = starts;
+		mEnds = ends;
+		mSize = size;
+	}
+
+	/**
+	 * @param html
+	 * @return html 的索引
+	 */
+	static ScriptIndex of(String html) {
+		int[] starts = new int[16];
+		int[] ends = new int[16];
+		int size = 0;
+		int length = html.length();
+		int i = html.indexOf('<');
+		while (i >= 0 && i < length) {
+			int end = -1;
+			if (html.startsWith("<!--", i)) {
+				int close = html.indexOf("-->", i + 4);
+				if (close >= 0) {
+					end = close + 3;
+				}
+			} else {
+				for (String tag : RAW_TEXT_TAGS) {
+					if (isStartTag(html, i, tag)) {
+						end = findEndTag(html, i + 1 + tag.length(), tag);
+						break;
+					}
+				}
+			}
+			if (end < 0) {
+				i = html.indexOf('<', i + 1);
+				continue;
+			}
+			if (size == starts.length) {
+				starts = Arrays.copyOf(starts, size * 2);
+				ends = Arrays.copyOf(ends, size * 2);
+			}
+			starts[size] = i;
+			ends[size] = end;
+			size++;
+			i = html.indexOf('<', end);
+		}
+		return new ScriptIndex(starts, ends, size);
+	}
+
+	/**
+	 * @param index
+	 * @return index 是否在 script、style 或注释中
+	 */
+	boolean contains(int index) {
+		int k = Arrays.binarySearch(mStarts, 0, mSize, index);
+		if (k < 0) {
+			k = -k - 2;
+		}
+		return k >= 0 && index < mEnds[k];
+	}
+
+	/**
+	 * html 在 i 处是否为 &lt;tag 开始标签, 标签名后必须是空白、'/'、'&gt;' 或结尾
+	 */
+	private static boolean isStartTag(String html, int i, String tag) {
+		if (!html.regionMatches(true, i + 1, tag, 0, tag.length())) {
+			return false;
+		}
+		int next = i + 1 + tag.length();
+		if (next >= html.length()) {
+			return true;
+		}
+		char c = html.charAt(next);
+		return c == '>' || c == '/' || Character.isWhitespace(c);
+	}
+
+	/**
+	 * 从 from 开始查找 &lt;/tag, 不区分大小写
+	 *
+	 * @return 结束标签之后的位置, 没有结束标签时为-1
+	 */
+	private static int findEndTag(String html, int from, String tag) {
+		int i = html.indexOf("</", from);
+		while (i >= 0) {
+			if (html.regionMatches(true, i + 2, tag, 0, tag.length())) {
+				int gt = html.indexOf('>', i + 2 + tag.length());
+				return gt < 0 ? html.length() : gt + 1;
+			}
+			i = html.indexOf("</", i + 2);
+		}
+		return -1;
+	}
+}
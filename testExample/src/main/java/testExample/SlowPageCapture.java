@@ -0,0 +1,275 @@
+package testExample;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.jsoup.nodes.Document;
+
+/**
+ * 慢网页抓取: 把耗时超过阈值的网页的HTML、URL和各阶段耗时写到磁盘上, 用来复现偶尔出现的慢网页 <BR>
+ * 1. 包住 Readability.init、ReadabilityForImg.init 和 TimeUtil.getDateFromHtml, 默认关闭, 关闭时只读一个 volatile 字段 <BR>
+ * 2. 按当前线程的CPU时间判断是否超过阈值, JVM不支持线程CPU时间时按墙钟时间 <BR>
+ * 3. 开始时就要保存原始HTML(之后文档会被修改), 所以只对抽样的调用生效: 每 sampleEvery 次随机选一次 <BR>
+ * 4. 各阶段耗时来自 {@link ExtractionMetrics} 的阶段, 不打开统计也会记录 <BR>
+ * 5. 文件写成一个环: slow-&lt;槽位&gt;.html 和 slow-&lt;槽位&gt;.txt, 槽位数固定, 旧的被新的覆盖; 先删掉旧的 .txt, .txt 最后写,
+ * 有 .txt 的槽位两个文件总是同一次调用的 <BR>
+ * 6. 写失败不影响抽取, 次数见 {@link #getWriteFailures()}
+ *
+ */
+public final class SlowPageCapture {
+
+	private static final ExtractionMetrics.Phase[] PHASES = ExtractionMetrics.Phase.values();
+
+	private static final ThreadLocal<Capture> sCurrent = new ThreadLocal<Capture>();
+	private static final AtomicLong sSequence = new AtomicLong();
+	private static final AtomicLong sWriteFailures = new AtomicLong();
+	private static volatile Config sConfig;
+
+	private SlowPageCapture() {
+	}
+
+	private static final class Config {
+		final File dir;
+		final long thresholdNanos;
+		final int ringSize;
+		final int sampleEvery;
+
+		Config(File dir, long thresholdNanos, int ringSize, int sampleEvery) {
+			this.dir = dir;
+			this.thresholdNanos = thresholdNanos;
+			this.ringSize = ringSize;
+			this.sampleEvery = sampleEvery;
+		}
+	}
+
+	/**
+	 * 一次被抽样的调用
+	 */
+	static final class Capture {
+		private final Capture parent;
+		private final String source;
+		private final String url;
+		private final String html;
+		private final long startCpu;
+		private final long startNanos;
+		private final long[] phaseNanos = new long[PHASES.length];
+
+		private Capture(Capture parent, String source, String url, String html) {
+			this.parent = parent;
+			this.source = source;
+			this.url = url;
+			this.html = html;
+			this.startCpu = cpuNanos();
+			this.startNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * 打开抓取
+	 *
+	 * @param dir
+	 *            保存的目录, 不存在时创建
+	 * @param thresholdMillis
+	 *            CPU时间阈值(毫秒), 不小于它的调用被保存
+	 * @param ringSize
+	 *            最多保存的网页数
+	 * @param sampleEvery
+	 *            平均每多少次调用抽样一次, 1 表示每次都抽样
+	 * @throws IOException
+	 *             目录无法创建
+	 */
+	public static void enable(File dir, long thresholdMillis, int ringSize, int sampleEvery) throws IOException {
+		if (ringSize < 1 || sampleEvery < 1) {
+			throw new IllegalArgumentException("ringSize and sampleEvery must be positive");
+		}
+		FileUtils.forceMkdir(dir);
+		sConfig = new Config(dir, thresholdMillis * 1000000L, ringSize, sampleEvery);
+	}
+
+	/**
+	 * 关闭抓取, 正在进行的调用仍按打开时的设置结束
+	 */
+	public static void disable() {
+		sConfig = null;
+	}
+
+	public static boolean isEnabled() {
+		return sConfig != null;
+	}
+
+	/**
+	 * @return 写文件失败的次数, 不随关闭清零
+	 */
+	public static long getWriteFailures() {
+		return sWriteFailures.get();
+	}
+
+	/**
+	 * 开始一次调用, 必须在 finally 中调用 {@link #end(Capture)}
+	 *
+	 * @param source
+	 *            调用的方法, 写入 .txt
+	 * @param document
+	 *            还没有被修改的网页, 不带缩进地序列化, 缩进会改变文本节点从而改变分数
+	 * @return 没有打开或没有被抽样时为null
+	 */
+	static Capture begin(String source, Document document) {
+		if (!sampled()) {
+			return null;
+		}
+		Document.OutputSettings settings = document.outputSettings();
+		boolean prettyPrint = settings.prettyPrint();
+		String html;
+		try {
+			settings.prettyPrint(false);
+			html = document.outerHtml();
+		} finally {
+			settings.prettyPrint(prettyPrint);
+		}
+		return push(source, document.location(), html);
+	}
+
+	/**
+	 * @param source
+	 * @param url
+	 *            不知道时为null
+	 * @param html
+	 * @return 没有打开或没有被抽样时为null
+	 */
+	static Capture begin(String source, String url, String html) {
+		if (!sampled()) {
+			return null;
+		}
+		return push(source, url, html);
+	}
+
+	/**
+	 * 结束一次调用, 超过阈值时写入磁盘
+	 *
+	 * @param capture
+	 *            {@link #begin} 的返回值, 可以为null
+	 */
+	static void end(Capture capture) {
+		if (capture == null) {
+			return;
+		}
+		long cpu = cpuNanos() - capture.startCpu;
+		long wall = System.nanoTime() - capture.startNanos;
+		sCurrent.set(capture.parent);
+		if (capture.parent != null) {
+			for (int i = 0; i < PHASES.length; i++) {
+				capture.parent.phaseNanos[i] += capture.phaseNanos[i];
+			}
+		}
+		Config config = sConfig;
+		if (config != null && cpu >= config.thresholdNanos) {
+			write(config, capture, cpu, wall);
+		}
+	}
+
+	/**
+	 * 记录当前线程上正在抓取的调用中一个阶段的自身耗时, 由 ExtractionMetrics.Span 调用
+	 *
+	 * @param phase
+	 * @param nanos
+	 */
+	static void phase(ExtractionMetrics.Phase phase, long nanos) {
+		if (sConfig == null) {
+			return;
+		}
+		Capture capture = sCurrent.get();
+		if (capture != null) {
+			capture.phaseNanos[phase.ordinal()] += nanos;
+		}
+	}
+
+	/**
+	 * @return 当前线程上是否有正在抓取的调用
+	 */
+	static boolean isCapturing() {
+		return sConfig != null && sCurrent.get() != null;
+	}
+
+	private static boolean sampled() {
+		Config config = sConfig;
+		return config != null
+				&& (config.sampleEvery == 1 || ThreadLocalRandom.current().nextInt(config.sampleEvery) == 0);
+	}
+
+	private static Capture push(String source, String url, String html) {
+		Capture capture = new Capture(sCurrent.get(), source, url, html);
+		sCurrent.set(capture);
+		return capture;
+	}
+
+	private static void write(Config config, Capture capture, long cpu, long wall) {
+		String name = "slow-" + (sSequence.getAndIncrement() % config.ringSize);
+		StringBuilder sb = new StringBuilder();
+		sb.append("source: ").append(capture.source).append('\n');
+		if (capture.url != null) {
+			sb.append("url: ").append(capture.url).append('\n');
+		}
+		sb.append("time: ").append(LocalDateTime.now()).append('\n');
+		sb.append("thread: ").append(Thread.currentThread().getName()).append('\n');
+		sb.append("html chars: ").append(capture.html.length()).append('\n');
+		sb.append("cpu millis: ").append(millis(cpu)).append('\n');
+		sb.append("wall millis: ").append(millis(wall)).append('\n');
+		for (int i = 0; i < PHASES.length; i++) {
+			if (capture.phaseNanos[i] != 0) {
+				sb.append(PHASES[i]).append(" millis: ").append(millis(capture.phaseNanos[i])).append('\n');
+			}
+		}
+		File txt = new File(config.dir, name + ".txt");
+		try {
+			/* 环转过一圈后槽位里是旧的记录, 先删 .txt, 否则中途失败会让新的 .html 配上旧的耗时 */
+			if (txt.exists() && !txt.delete()) {
+				throw new IOException("Unable to delete " + txt);
+			}
+			FileUtils.writeStringToFile(new File(config.dir, name + ".html"), capture.html, "UTF-8");
+			FileUtils.writeStringToFile(txt, sb.toString(), "UTF-8");
+		} catch (IOException e) {
+			/* 只用于诊断, 写失败时放弃这一次, 不影响抽取; 没有 .txt 的槽位不是完整的记录 */
+			sWriteFailures.incrementAndGet();
+		}
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+
+	/**
+	 * 第一次抽样时才初始化 JMX
+	 */
+	private static final class Threads {
+		static final ThreadMXBean BEAN = threadMXBean();
+	}
+
+	private static ThreadMXBean threadMXBean() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled()) {
+			return bean;
+		}
+		return null;
+	}
+
+	/**
+	 * @return 当前线程的CPU时间, 不支持时为墙钟时间
+	 */
+	private static long cpuNanos() {
+		ThreadMXBean bean = Threads.BEAN;
+		if (bean != null) {
+			long nanos = bean.getCurrentThreadCpuTime();
+			if (nanos >= 0) {
+				return nanos;
+			}
+		}
+		return System.nanoTime();
+	}
+}
@@ -0,0 +1,180 @@
+package testExample;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * 按标签名给出的基础分数表 <BR>
+ * 1. 标签名在表中映射为一个小整数, 每个 {@link Table} 是以它为下标的int数组, 查分数是一次查表, 不再逐个 equalsIgnoreCase <BR>
+ * 2. 默认值与原来 initializeNode、initializeImgScore 中的分数相同, 不在表中的标签为0 <BR>
+ * 3. 可以通过 {@link #set(Table, String, int)} 修改, 修改时复制整张表再替换(copy-on-write), 读取不加锁
+ *
+ */
+public final class TagWeights {
+
+	/**
+	 * 分数表
+	 */
+	public enum Table {
+		/** Readability.initializeNode */
+		CONTENT,
+		/** ReadabilityForImg.initializeNode */
+		IMG_ARTICLE_CONTENT,
+		/** ReadabilityForImg.initializeImgScore */
+		IMG
+	}
+
+	private static volatile State sState = defaults();
+
+	private TagWeights() {
+	}
+
+	/**
+	 * @param table
+	 * @param e
+	 * @return e 的标签在 table 中的分数, 不在表中时为0
+	 */
+	static int weight(Table table, Element e) {
+		State state = sState;
+		int id = state.id(e.normalName(), e.tagName());
+		return id < 0 ? 0 : state.weights[table.ordinal()][id];
+	}
+
+	/**
+	 * @param table
+	 * @param tagName
+	 *            不区分大小写
+	 * @return 标签在 table 中的分数, 不在表中时为0
+	 */
+	public static int get(Table table, String tagName) {
+		State state = sState;
+		int id = state.id(tagName.toLowerCase(Locale.ENGLISH), tagName);
+		return id < 0 ? 0 : state.weights[table.ordinal()][id];
+	}
+
+	/**
+	 * 修改标签的分数, 之后开始的计算使用新值
+	 *
+	 * @param table
+	 * @param tagName
+	 *            不区分大小写
+	 * @param weight
+	 */
+	public static synchronized void set(Table table, String tagName, int weight) {
+		State state = sState.copy();
+		state.put(table, tagName.toLowerCase(Locale.ENGLISH), weight);
+		sState = state;
+	}
+
+	/**
+	 * 恢复所有默认分数
+	 */
+	public static synchronized void reset() {
+		sState = defaults();
+	}
+
+	private static State defaults() {
+		State state = new State();
+		state.put(Table.CONTENT, 5, "div");
+		state.put(Table.CONTENT, 3, "pre", "td", "blockquote");
+		state.put(Table.CONTENT, -3, "address", "ol", "ul", "dl", "dd", "dt", "li", "form");
+		state.put(Table.CONTENT, -5, "h1", "h2", "h3", "h4", "h5", "h6", "th");
+
+		state.put(Table.IMG_ARTICLE_CONTENT, 5, "div");
+		state.put(Table.IMG_ARTICLE_CONTENT, 3, "pre", "td", "blockquote");
+		state.put(Table.IMG_ARTICLE_CONTENT, -3, "address", "ol", "ul", "dl", "dd", "dt", "li", "form");
+		state.put(Table.IMG_ARTICLE_CONTENT, -5, "h1", "h2", "h3", "h4", "h5", "h6", "th", "noscript");
+
+		/* 依照主流网站规律来看, 一般p是img父标签, div是祖父标签 */
+		state.put(Table.IMG, 7, "p", "article");
+		state.put(Table.IMG, 5, "div", "span", "figure");
+		state.put(Table.IMG, -10, "address", "ol", "ul", "dl", "dd", "dt", "li", "form", "td", "blockquote", "pre",
+				"h1", "h2", "h3", "h4", "h5", "h6", "th", "noscript");
+		return state;
+	}
+
+	/**
+	 * 标签名到下标的映射和各个表, 发布之后不再修改
+	 */
+	private static final class State {
+
+		final Map<String, Integer> ids;
+		String[] names;
+		int[][] weights;
+
+		State() {
+			ids = new HashMap<String, Integer>();
+			names = new String[0];
+			weights = new int[Table.values().length][0];
+		}
+
+		private State(State other) {
+			ids = new HashMap<String, Integer>(other.ids);
+			names = other.names.clone();
+			weights = new int[other.weights.length][];
+			for (int t = 0; t < weights.length; t++) {
+				weights[t] = other.weights[t].clone();
+			}
+		}
+
+		State copy() {
+			return new State(this);
+		}
+
+		/**
+		 * @param normalName
+		 *            小写的标签名
+		 * @param tagName
+		 *            原来的标签名
+		 * @return 下标, 不在表中时为-1
+		 */
+		int id(String normalName, String tagName) {
+			Integer id = ids.get(normalName);
+			if (id != null) {
+				return id;
+			}
+			if (!isAscii(tagName)) {
+				/* 与 equalsIgnoreCase 一致, 非ASCII字符可能与表中的标签名相等 */
+				for (int i = 0; i < names.length; i++) {
+					if (names[i].equalsIgnoreCase(tagName)) {
+						return i;
+					}
+				}
+			}
+			return -1;
+		}
+
+		void put(Table table, int weight, String... tagNames) {
+			for (String tagName : tagNames) {
+				put(table, tagName, weight);
+			}
+		}
+
+		void put(Table table, String tagName, int weight) {
+			Integer id = ids.get(tagName);
+			if (id == null) {
+				id = names.length;
+				ids.put(tagName, id);
+				names = Arrays.copyOf(names, id + 1);
+				names[id] = tagName;
+				for (int t = 0; t < weights.length; t++) {
+					weights[t] = Arrays.copyOf(weights[t], id + 1);
+				}
+			}
+			weights[table.ordinal()][id] = weight;
+		}
+
+		private static boolean isAscii(String s) {
+			for (int i = 0; i < s.length(); i++) {
+				if (s.charAt(i) >= 128) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,325 @@
+package testExample;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.jsoup.internal.StringUtil;
+import org.jsoup.nodes.CDataNode;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+/**
+ * 元素文本统计表 <BR>
+ * 1. 构造时按 Element.text() 的规则遍历一次子树, 拼出整段文本, 并记录每个元素的文本在其中的区间 <BR>
+ * 2. 每个元素的文本长度、去空白后的长度、逗号分段数、链接文本长度存在int数组里, 查询是O(1), 不再重复拼接子树文本 <BR>
+ * 3. 结果与 text().trim() 加 RegEx.NORMALIZE 得到的字符串完全一致; 删除节点前调用 {@link #invalidateAncestors(Element)},
+ * 之后不在表中的元素直接计算
+ *
+ */
+final class TextStats {
+
+	private final Map<Element, Integer> mIndex;
+	/** text().trim() 的长度 */
+	private final int[] mLength;
+	/** 删除连续空白后的长度 */
+	private final int[] mNormalizedLength;
+	/** 按 RegEx.COMMAS 分割的段数 */
+	private final int[] mCommaSegments;
+	/** 按 "," 分割的段数 */
+	private final int[] mAsciiCommaSegments;
+	/** 后代 a 标签去空白后的长度之和 */
+	private final int[] mLinkLength;
+
+	private TextStats(Map<Element, Integer> index, int size) {
+		mIndex = index;
+		mLength = new int[size];
+		mNormalizedLength = new int[size];
+		mCommaSegments = new int[size];
+		mAsciiCommaSegments = new int[size];
+		mLinkLength = new int[size];
+	}
+
+	/**
+	 * 统计 root 及其所有后代元素
+	 *
+	 * @param root
+	 * @return TextStats
+	 */
+	static TextStats of(Element root) {
+		return of(root, null);
+	}
+
+	/**
+	 * 统计 root 及其所有后代元素, 同一次遍历中把每个节点也交给 visitor
+	 *
+	 * @param root
+	 * @param visitor
+	 *            可以为null
+	 * @return TextStats
+	 */
+	static TextStats of(Element root, NodeVisitor visitor) {
+		TextCollector collector = new TextCollector(visitor);
+		NodeTraversor.traverse(collector, root);
+		TextStats stats = new TextStats(collector.index, collector.size);
+		stats.measure(collector);
+		return stats;
+	}
+
+	/**
+	 * @param e
+	 * @return e.text().trim() 的长度
+	 */
+	int length(Element e) {
+		Integer index = mIndex.get(e);
+		return index != null ? mLength[index] : e.text().trim().length();
+	}
+
+	/**
+	 * @param e
+	 * @return 去掉连续空白(RegEx.NORMALIZE)后的文本长度
+	 */
+	int normalizedLength(Element e) {
+		Integer index = mIndex.get(e);
+		return index != null ? mNormalizedLength[index] : normalizedText(e).length();
+	}
+
+	/**
+	 * @param e
+	 * @return 去空白后的文本按中英文逗号分割的段数, 与 split 的结果一致
+	 */
+	int commaSegments(Element e) {
+		Integer index = mIndex.get(e);
+		return index != null ? mCommaSegments[index]
+				: Patterns.split(Patterns.RegEx.COMMAS, normalizedText(e)).length;
+	}
+
+	/**
+	 * @param e
+	 * @return 去空白后的文本按英文逗号分割的段数, 与 split 的结果一致
+	 */
+	int asciiCommaSegments(Element e) {
+		Integer index = mIndex.get(e);
+		return index != null ? mAsciiCommaSegments[index] : normalizedText(e).split(",").length;
+	}
+
+	/**
+	 * @param e
+	 * @return e 的所有后代 a 标签(不含 e 自己)去空白后的文本长度之和
+	 */
+	int linkLength(Element e) {
+		Integer index = mIndex.get(e);
+		if (index != null) {
+			return mLinkLength[index];
+		}
+		int linkLength = 0;
+		for (Element link : e.getElementsByTag("a")) {
+			if (link != e) {
+				linkLength += normalizedLength(link);
+			}
+		}
+		return linkLength;
+	}
+
+	/**
+	 * e 将被删除或修改, e 的祖先的统计不再有效, 之后改为直接计算 <BR>
+	 * 必须在 e.remove() 之前调用
+	 *
+	 * @param e
+	 */
+	void invalidateAncestors(Element e) {
+		for (Element parent = e.parent(); parent != null; parent = parent.parent()) {
+			mIndex.remove(parent);
+		}
+	}
+
+	private static String normalizedText(Element e) {
+		return Patterns.replaceAll(Patterns.RegEx.NORMALIZE, e.text().trim(), "");
+	}
+
+	/**
+	 * 根据拼出的整段文本计算每个元素的统计值
+	 */
+	private void measure(TextCollector collector) {
+		CharSequence text = collector.accum;
+		int n = text.length();
+
+		/* nextSolid[i]: i及之后第一个不会被trim掉的字符; prevSolid[i]: i之前最后一个 */
+		int[] nextSolid = new int[n + 1];
+		int[] prevSolid = new int[n + 1];
+		nextSolid[n] = n;
+		for (int i = n - 1; i >= 0; i--) {
+			nextSolid[i] = text.charAt(i) > ' ' ? i : nextSolid[i + 1];
+		}
+		prevSolid[0] = -1;
+		for (int i = 0; i < n; i++) {
+			prevSolid[i + 1] = text.charAt(i) > ' ' ? i : prevSolid[i];
+		}
+
+		/* 连续2个以上的空白会被 RegEx.NORMALIZE 删除, 前缀和记录被删除的字符数和逗号数 */
+		int[] removed = new int[n + 1];
+		int[] commas = new int[n + 1];
+		int[] asciiCommas = new int[n + 1];
+		/* 去空白后以 i 结尾的连续逗号个数 */
+		int[] commaRun = new int[n];
+		int[] asciiCommaRun = new int[n];
+		int run = 0;
+		int asciiRun = 0;
+		for (int i = 0; i < n;) {
+			char c = text.charAt(i);
+			if (isRegexWhitespace(c)) {
+				int end = i + 1;
+				while (end < n && isRegexWhitespace(text.charAt(end))) {
+					end++;
+				}
+				boolean remove = end - i >= 2;
+				for (; i < end; i++) {
+					removed[i + 1] = removed[i] + (remove ? 1 : 0);
+					commas[i + 1] = commas[i];
+					asciiCommas[i + 1] = asciiCommas[i];
+					if (!remove) {
+						run = 0;
+						asciiRun = 0;
+					}
+					commaRun[i] = run;
+					asciiCommaRun[i] = asciiRun;
+				}
+				continue;
+			}
+			boolean ascii = c == ',';
+			boolean comma = ascii || c == '，';
+			run = comma ? run + 1 : 0;
+			asciiRun = ascii ? asciiRun + 1 : 0;
+			removed[i + 1] = removed[i];
+			commas[i + 1] = commas[i] + (comma ? 1 : 0);
+			asciiCommas[i + 1] = asciiCommas[i] + (ascii ? 1 : 0);
+			commaRun[i] = run;
+			asciiCommaRun[i] = asciiRun;
+			i++;
+		}
+
+		int size = collector.size;
+		for (int k = 0; k < size; k++) {
+			int start = nextSolid[collector.starts[k]];
+			int end = prevSolid[collector.ends[k]] + 1;
+			if (start >= end) {
+				mCommaSegments[k] = 1;
+				mAsciiCommaSegments[k] = 1;
+				continue;
+			}
+			int normalized = end - start - (removed[end] - removed[start]);
+			mLength[k] = end - start;
+			mNormalizedLength[k] = normalized;
+			mCommaSegments[k] = segments(commas[end] - commas[start], commaRun[end - 1], normalized);
+			mAsciiCommaSegments[k] = segments(asciiCommas[end] - asciiCommas[start], asciiCommaRun[end - 1],
+					normalized);
+		}
+
+		/* 子元素的下标总是大于父元素, 倒序累加链接文本长度 */
+		for (int k = size - 1; k > 0; k--) {
+			int parent = collector.parents[k];
+			mLinkLength[parent] += mLinkLength[k] + (collector.anchors[k] ? mNormalizedLength[k] : 0);
+		}
+	}
+
+	/**
+	 * String.split 的段数: 末尾的空段会被去掉, 全部是分隔符时为0
+	 */
+	private static int segments(int separators, int trailing, int length) {
+		if (separators == length) {
+			return 0;
+		}
+		return separators + 1 - Math.min(trailing, separators);
+	}
+
+	/**
+	 * java.util.regex 中 \s 匹配的字符
+	 */
+	private static boolean isRegexWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+	}
+
+	/**
+	 * 与 Element.text() 相同的遍历, 只是拼出的文本和区间对所有元素共用
+	 */
+	private static final class TextCollector implements NodeVisitor {
+
+		final NodeVisitor visitor;
+		final StringBuilder accum = new StringBuilder();
+		final Map<Element, Integer> index = new IdentityHashMap<Element, Integer>();
+		int[] starts = new int[64];
+		int[] ends = new int[64];
+		int[] parents = new int[64];
+		boolean[] anchors = new boolean[64];
+		int size;
+
+		private int[] stack = new int[32];
+		private int depth;
+
+		TextCollector(NodeVisitor visitor) {
+			this.visitor = visitor;
+		}
+
+		@Override
+		public void head(Node node, int d) {
+			if (node instanceof TextNode) {
+				TextNode textNode = (TextNode) node;
+				String text = textNode.getWholeText();
+				if (DomHelper.preserveWhitespace(textNode.parentNode()) || textNode instanceof CDataNode) {
+					accum.append(text);
+				} else {
+					StringUtil.appendNormalisedWhitespace(accum, text, lastCharIsWhitespace());
+				}
+			} else if (node instanceof Element) {
+				Element element = (Element) node;
+				if (accum.length() > 0 && (element.isBlock() || element.tagName().equals("br"))
+						&& !lastCharIsWhitespace()) {
+					accum.append(' ');
+				}
+				push(element);
+			}
+			if (visitor != null) {
+				visitor.head(node, d);
+			}
+		}
+
+		@Override
+		public void tail(Node node, int d) {
+			if (node instanceof Element) {
+				Element element = (Element) node;
+				ends[stack[--depth]] = accum.length();
+				if (element.isBlock() && (node.nextSibling() instanceof TextNode) && !lastCharIsWhitespace()) {
+					accum.append(' ');
+				}
+			}
+			if (visitor != null) {
+				visitor.tail(node, d);
+			}
+		}
+
+		private void push(Element element) {
+			if (size == starts.length) {
+				starts = Arrays.copyOf(starts, size * 2);
+				ends = Arrays.copyOf(ends, size * 2);
+				parents = Arrays.copyOf(parents, size * 2);
+				anchors = Arrays.copyOf(anchors, size * 2);
+			}
+			if (depth == stack.length) {
+				stack = Arrays.copyOf(stack, depth * 2);
+			}
+			index.put(element, size);
+			starts[size] = accum.length();
+			parents[size] = depth > 0 ? stack[depth - 1] : -1;
+			anchors[size] = "a".equalsIgnoreCase(element.tagName());
+			stack[depth++] = size;
+			size++;
+		}
+
+		private boolean lastCharIsWhitespace() {
+			return accum.length() != 0 && accum.charAt(accum.length() - 1) == ' ';
+		}
+	}
+}
@@ -3,11 +3,15 @@ package testExample;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLConnection;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.Vector;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,6 +22,8 @@ import java.util.regex.Pattern;
  * 2. get time from html <BR>
  * 3. get a net time <BR>
  * 4. get a local time <BR>
+ * 不保存任何状态, 网页内容和标题位置放在每次调用的 {@link HtmlContext} 中, 同一个实例可以被多个线程共用 <BR>
+ * 网页中的日期候选由 {@link DateScanner} 按级别扫描得到, 各级 getHtmlDate 方法只在候选中选择
  * 
  * @author PengX
  * @author Ahui Wang
@@ -36,15 +42,14 @@ public class TimeUtil {
 	 */
 	public static final String EARLIST_TIME = "1990-01-01 00:00:00";
 	
-	private static SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+	private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 	/**
 	 * get a local date
 	 * 
 	 * @return yyyy-mm-dd
 	 */
 	public String getLocalDate() {
-		Calendar now = Calendar.getInstance();
-		return sdf.format(now.getTime());
+		return LocalDateTime.now().format(DATE_TIME_FORMAT);
 	}
 
 	/**
@@ -55,22 +60,21 @@ public class TimeUtil {
 	 * @return yyyy-mm-dd | null when exeption happens
 	 * @throws IOException
 	 */
-	@SuppressWarnings("deprecation")
 	public String getNetDate(String site) {
-		Date d = new Date();
+		long millis;
 		try {
 			URL url = new URL("http://" + site);
 			URLConnection urlcon = url.openConnection();
-			d.setTime(urlcon.getDate());
-			if (d.toString().compareTo("Thu Jan 01 08:00:00 CST 1970") == 0) {
+			millis = urlcon.getDate();
+			if (millis == 0) {
 				throw new IOException("Failed to get a date form " + site
 						+ " using http protocol");
 			}
 		} catch (IOException e) {
 			return null;
 		}
-		return String.format("%04d-%02d-%02d", 1900 + d.getYear(), 1 + d
-				.getMonth(), d.getDate());
+		LocalDate d = Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+		return String.format("%04d-%02d-%02d", d.getYear(), d.getMonthValue(), d.getDayOfMonth());
 	}
 
 	/**
@@ -81,28 +85,35 @@ public class TimeUtil {
 	 * @return  boolean
 	 */
 	public boolean isNormalDate(String year, String month, String day){
-		boolean result = true;
-		Calendar now = Calendar.getInstance();
-		Calendar date = Calendar.getInstance();
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-		
-		if(month != null && month.length() == 1){
-			month = "0" + month;
+		LocalDate date = toLocalDate(year, month, day);
+		return date == null || !date.isAfter(LocalDate.now());
+	}
+
+	/**
+	 * 将yyyy-mm-dd格式字符串转换成日期 <BR>
+	 * 与 SimpleDateFormat 的宽松模式一致, 超出范围的月、日向后顺延, 如 2019-02-30 为 2019-03-02
+	 * 
+	 * @param date
+	 * @return LocalDate OR null
+	 */
+	public static LocalDate parseDate(String date) {
+		if (date == null) {
+			return null;
 		}
-		if(day != null && day.length() == 1){
-			day = "0" + day;
+		String[] fields = date.trim().split("-");
+		if (fields.length < 3) {
+			return null;
 		}
-		
+		return toLocalDate(fields[0], fields[1], fields[2]);
+	}
+
+	private static LocalDate toLocalDate(String year, String month, String day) {
 		try {
-			date.setTime(sdf.parse(year + "-" + month + "-" + day));
-		} catch (ParseException e) {
-			e.printStackTrace();
-		}
-		if(date.after(now)){
-			result = false;
+			return LocalDate.of(Integer.parseInt(year), 1, 1).plusMonths(Integer.parseInt(month) - 1)
+					.plusDays(Integer.parseInt(day) - 1);
+		} catch (NumberFormatException | DateTimeException e) {
+			return null;
 		}
-		
-		return result;
 	}
 	
 	/**
@@ -122,13 +133,10 @@ public class TimeUtil {
 	 * @return yyyy-mm-dd OR null
 	 */
 	private String getFirstDateL1(String str) {
-		Pattern p = null;
-		Matcher m = null;
-		String yyyy_mm_dd = "(?<!\\d)([12][09][0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9])[^\\d]";
-		p = Pattern.compile(yyyy_mm_dd);
-		m = p.matcher(str);
-		if (m.find()) {
-			String[] subStrings = m.group(1).split("[-_./]");
+		MatchResult m = null;
+		m = Patterns.findFirst(Patterns.RegEx.URL_YYYY_MM_DD, str);
+		if (m != null) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, m.group(1));
 			String yyyy = subStrings[0];
 			int mm = Integer.parseInt(subStrings[1]);
 			int dd = Integer.parseInt(subStrings[2]);
@@ -137,10 +145,8 @@ public class TimeUtil {
 			}
 		}
 		
-		String yyyy_mm_dd2 = "(?<!\\d)([12][09][0-9]{2}[01]?[0-9][0123]?[0-9])";
-		p = Pattern.compile(yyyy_mm_dd2);
-		m = p.matcher(str);
-		if (m.find()) {
+		m = Patterns.findFirst(Patterns.RegEx.URL_YYYYMMDD, str);
+		if (m != null) {
 			String subStrings = m.group(1);
 			if(subStrings.length() == 8){
 				String yyyy = subStrings.substring(0, 4);
@@ -156,11 +162,9 @@ public class TimeUtil {
 		/*
 		 * add in 2019/6/18: add format: yyyymm/dd yyyymm-dd
 		 */
-		String yyyy_mm_dd3 = "(?<!\\d)([12][09][0-9]{2}[01]?[0-9][-_./][0123]?[0-9])[^\\d]";
-		p = Pattern.compile(yyyy_mm_dd3);
-		m = p.matcher(str);
-		if (m.find()) {
-			String[] subStrings = m.group(1).split("[-_./]");
+		m = Patterns.findFirst(Patterns.RegEx.URL_YYYYMM_DD, str);
+		if (m != null) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, m.group(1));
 			if(subStrings.length == 2){
 				String yyyy = Integer.parseInt(subStrings[0])/100 +"";
 				int mm = Integer.parseInt(subStrings[0])%100;
@@ -171,11 +175,9 @@ public class TimeUtil {
 			}
 		}
 
-		String mm_dd_yyyy = "(?<!\\d)([0123]?[0-9]/[01]?[0-9]/[12][09][0-9]{2})[^\\d]";
-		p = Pattern.compile(mm_dd_yyyy);
-		m = p.matcher(str);
-		if (m.find()) {
-			String[] subStrings = m.group(1).split("[-_./]");
+		m = Patterns.findFirst(Patterns.RegEx.URL_MM_DD_YYYY, str);
+		if (m != null) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, m.group(1));
 			String yyyy = subStrings[2];
 			int mm = Integer.parseInt(subStrings[0]);
 			int dd = Integer.parseInt(subStrings[1]);
@@ -213,14 +215,11 @@ public class TimeUtil {
 	 * @return yyyy-mm-dd OR null
 	 */
 	private String getFirstDateL2(String str) {
-		Pattern p = null;
-		Matcher m = null;
-
-		String yy_mm_dd = "(?<!\\d)([0-9][0-9][-_./][01]?[0-9][-_./][0123]?[0-9])[^\\d]";
-		p = Pattern.compile(yy_mm_dd);
-		m = p.matcher(str);
-		if (m.find()) {
-			String[] subStrings = m.group(1).split("[-_./]");
+		MatchResult m = null;
+
+		m = Patterns.findFirst(Patterns.RegEx.URL_YY_MM_DD, str);
+		if (m != null) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, m.group(1));
 			String yy = subStrings[0];
 			int mm = Integer.parseInt(subStrings[1]);
 			int dd = Integer.parseInt(subStrings[2]);
@@ -246,6 +245,7 @@ public class TimeUtil {
 		if(url == null || "".equals(url.trim())){
 			return null;
 		}
+		ExtractionMetrics.Span span = ExtractionMetrics.start(ExtractionMetrics.Phase.DATE_URL);
 		try {
 			String date = null;
 			if ((date = this.getFirstDateL1(url)) != null) {
@@ -255,16 +255,13 @@ public class TimeUtil {
 				return date;
 			}
 		} catch (Exception e) {
-			e.printStackTrace();
+			/* 解析失败时返回null */
+		} finally {
+			span.end();
 		}
 		return null;
 	}
 
-	public static void main(String[] args) {
-		TimeUtil time=new TimeUtil();
-		String result=time.getDateFromUrl("http://www.blueridgenow.com/article/20150923/API/309239935");
-		System.out.println(result);
-	}
 	/**
 	 * get date from html string
 	 * 
@@ -281,12 +278,11 @@ public class TimeUtil {
 			 try {
 				 dateTime= getDateFromHtml(new String(html,charset), title);
 			 } catch (Exception e) {
-				 // TODO Auto-generated catch block
-				 e.printStackTrace();
+				 /* 编码不支持或解析失败时使用当前时间 */
 			 }
 		 }
 		 if(dateTime == null){
-			dateTime = sdf.format(new Date());
+			dateTime = LocalDateTime.now().format(DATE_TIME_FORMAT);
 		 }
 		 return dateTime;
 	}
@@ -297,113 +293,129 @@ public class TimeUtil {
 	 * @return yyyy-mm-dd OR null
 	 */
 	public String getDateFromHtml(String html, String title) {
-		Vector<WeightedDate> v = new Vector<WeightedDate>();
-		this.loadHtml(html, title);
-		String ecpochtimeDate = getEpochtimesDate();
+		SlowPageCapture.Capture capture = SlowPageCapture.begin("TimeUtil.getDateFromHtml", null, html);
+		JfrEvents.DateFromHtml event = new JfrEvents.DateFromHtml();
+		event.begin();
+		ExtractionMetrics.Span span = ExtractionMetrics.start(ExtractionMetrics.Phase.DATE_HTML);
+		try {
+			String date = dateFromHtml(html, title);
+			event.date = date;
+			return date;
+		} finally {
+			span.end();
+			event.htmlLength = html.length();
+			event.title = title;
+			event.commit();
+			SlowPageCapture.end(capture);
+		}
+	}
+
+	private String dateFromHtml(String html, String title) {
+		List<WeightedDate> v = new ArrayList<WeightedDate>();
+		HtmlContext ctx = this.loadHtml(html, title);
+		String ecpochtimeDate = getEpochtimesDate(ctx);
 		if(ecpochtimeDate != null){
+			WorkerMetrics.date(WorkerMetrics.DateSource.EPOCH_TIMES);
 			return ecpochtimeDate;
 		}
+		ctx.dates = DateScanner.of(html);
+		ctx.scripts = ScriptIndex.of(html);
 		WeightedDate[] wds = new WeightedDate[10];
-		wds[0] = this.getHtmlDateL1();
-		wds[1] = this.getHtmlDateChL1();
-		wds[2] = this.getHtmlDateEnL1();
+		ExtractionMetrics.Span span = ExtractionMetrics.start(ExtractionMetrics.Phase.DATE_HTML_L1);
+		try {
+			wds[0] = this.getHtmlDateL1(ctx);
+			wds[1] = this.getHtmlDateChL1(ctx);
+			wds[2] = this.getHtmlDateEnL1(ctx);
+		} finally {
+			span.end();
+		}
 		for (int i = 0; i < 3; i++) {
 			if (wds[i] != null) {
 				v.add(wds[i]);
 			}
 		}
 		if (v.size() > 0) {
-			this.unloadHtml();
-			return this.getBest(v).date;
+			return hit(wds, this.getBest(v));
 		}
 
-		wds[3] = this.getHtmlDateL2();
-		wds[4] = this.getHtmlDateChL2();
-		wds[5] = this.getHtmlDateL3();
-		wds[6] = this.getHtmlDateL4();
-		wds[7] = this.getHtmlDateChL3();
-		wds[8] = this.getHtmlDateChL4();
+		span = ExtractionMetrics.start(ExtractionMetrics.Phase.DATE_HTML_L2);
+		try {
+			wds[3] = this.getHtmlDateL2(ctx);
+			wds[4] = this.getHtmlDateChL2(ctx);
+			wds[5] = this.getHtmlDateL3(ctx);
+			wds[6] = this.getHtmlDateL4(ctx);
+			wds[7] = this.getHtmlDateChL3(ctx);
+			wds[8] = this.getHtmlDateChL4(ctx);
+		} finally {
+			span.end();
+		}
 		for (int i = 3; i < 9; i++) {
 			if (wds[i] != null) {
 				v.add(wds[i]);
 			}
 		}
 		if (v.size() > 0) {
-			this.unloadHtml();
-			return this.getBest(v).date;
+			return hit(wds, this.getBest(v));
 		}
 
-		wds[9] = this.getHtmlDateChL5();
-		this.unloadHtml();
+		span = ExtractionMetrics.start(ExtractionMetrics.Phase.DATE_HTML_L3);
+		try {
+			wds[9] = this.getHtmlDateChL5(ctx);
+		} finally {
+			span.end();
+		}
 		if (wds[9] != null) {
-			return wds[9].date;
+			return hit(wds, wds[9]);
 		}
+		WorkerMetrics.date(WorkerMetrics.DateSource.NONE);
 		return null;
 	}
+
+	/**
+	 * 记录选中的日期来自哪一个方法
+	 * 
+	 * @param wds
+	 * @param best
+	 * @return best.date
+	 */
+	private static String hit(WeightedDate[] wds, WeightedDate best) {
+		if (ExtractionMetrics.isEnabled()) {
+			for (int i = 0; i < wds.length; i++) {
+				if (wds[i] == best) {
+					WorkerMetrics.date(i);
+					break;
+				}
+			}
+		}
+		return best.date;
+	}
 	
 	/**
 	 * 特殊处理大纪元网站的时间
 	 * @return  String
 	 */
-	private String getEpochtimesDate(){
-		if(this.html.indexOf("大纪元") < 0 || this.html.indexOf("美东时间:") < 0){
+	private String getEpochtimesDate(HtmlContext ctx){
+		if(ctx.html.indexOf("大纪元") < 0 || ctx.html.indexOf("美东时间:") < 0){
 			return null;
 		}
-		Pattern p = null;
-		Matcher m = null;
+		MatchResult m = null;
 
-		String yyyy_mm_dd_hh_mm_ss = "[12][09][0-9]{2}-[01][0-9]-[0123]?[0-9]\\s+(?:[01]?[0-9]|2[0-4])[:：](?:[0-5]?[0-9]):[0-9]{1,2}";
-		p = Pattern.compile(yyyy_mm_dd_hh_mm_ss);
-		m = p.matcher(this.html);
+		m = Patterns.findFirst(Patterns.RegEx.EPOCHTIMES_DATE_TIME, ctx.html);
 		String subString = null;
-		if (m.find()) {
+		if (m != null) {
 			subString = m.group();
 		}
 		return subString;
 	}
 	
 	/**
-	 * 判断获取的日期是不是在JAVASCRIPT脚本里
+	 * 判断获取的日期是不是在JAVASCRIPT脚本、样式或注释里
 	 * 如果在，则丢弃
 	 * @param index
 	 * @return  boolean
 	 */
-	private boolean isInScript(int index){
-		String script = "script";
-		int scriptEndIndex = this.html.indexOf("</script>", index);
-		if(scriptEndIndex < 0){
-			script = "SCRIPT";
-			scriptEndIndex = this.html.indexOf("</" + script + ">", index);
-			if(scriptEndIndex < 0){
-				return false;
-			}
-		}
-		else{
-			int tmp = this.html.indexOf("</SCRIPT>", index);
-			if(tmp > 0 && tmp < scriptEndIndex){
-				script = "SCRIPT";
-				scriptEndIndex = tmp;
-			}
-		}
-		int scriptBeginIndex = this.html.indexOf("<" + script, index);
-		if(scriptBeginIndex < 0){
-			if(script.equals("SCRIPT")){
-				scriptBeginIndex = this.html.indexOf("<" + script.toLowerCase(), index);
-			}
-			else{
-				scriptBeginIndex = this.html.indexOf("<" + script.toUpperCase(), index);
-			}
-		}
-		if(scriptBeginIndex < 0){
-			scriptBeginIndex = this.html.length();
-		}
-		
-		if(scriptBeginIndex < scriptEndIndex){
-			return false;
-		}
-		else{
-			return true;
-		}
+	private boolean isInScript(HtmlContext ctx, int index){
+		return ctx.scripts.contains(index);
 	}
 
 	/**
@@ -413,7 +425,7 @@ public class TimeUtil {
 	 * @author Ahui Wang
 	 * 
 	 */
-	private class WeightedDate {
+	private static class WeightedDate {
 
 		int weight = Integer.MAX_VALUE;
 
@@ -459,12 +471,12 @@ public class TimeUtil {
 	}
 
 	/**
-	 * get best WeightedDate from a WeightedDate Vector
+	 * get best WeightedDate from a WeightedDate list
 	 * 
 	 * @param wds
 	 * @return best WeightedDate
 	 */
-	private WeightedDate getBest(Vector<WeightedDate> wds) {
+	private WeightedDate getBest(List<WeightedDate> wds) {
 		int size = wds.size();
 		if (size == 0) {
 			return null;
@@ -481,12 +493,40 @@ public class TimeUtil {
 		return best;
 	}
 
+	private static final Patterns.RegEx[] HEADINGS = { Patterns.RegEx.H1, Patterns.RegEx.H2, Patterns.RegEx.H3,
+			Patterns.RegEx.H4, Patterns.RegEx.H5, Patterns.RegEx.H6 };
+
 	/**
-	 * position of lable H
+	 * 一次 getDateFromHtml 调用的上下文
 	 */
-	private int hPosition = 0;
+	private static final class HtmlContext {
 
-	private String html = null;
+		final String html;
+
+		/**
+		 * position of lable H
+		 */
+		int hPosition = 0;
+
+		/**
+		 * 没有年份的日期(如 6月19日)使用当前年份
+		 */
+		final int year = LocalDate.now().getYear();
+
+		/**
+		 * 所有日期格式的候选, 每一级用到时只扫描一次网页
+		 */
+		DateScanner dates;
+
+		/**
+		 * script、style 和注释的区间
+		 */
+		ScriptIndex scripts;
+
+		HtmlContext(String html) {
+			this.html = html;
+		}
+	}
 
 	/**
 	 * load html string <BR>
@@ -494,35 +534,34 @@ public class TimeUtil {
 	 * (parse h1 h2 h3)
 	 * 
 	 * @param html
+	 * @return HtmlContext
 	 */
-	private void loadHtml(String html, String title) {
-		this.html = html;
-		for(int i = 1; i < 7; i++){
-			String hi = "<h" + i + ".*?</h" + i + ">";
-			if(regexH(hi)){
-				return;
+	private HtmlContext loadHtml(String html, String title) {
+		HtmlContext ctx = new HtmlContext(html);
+		for(Patterns.RegEx hi : HEADINGS){
+			if(regexH(ctx, hi)){
+				return ctx;
 			}
 		}
-		if(title != null && this.getTitlePosition(title)){
-			return;
+		if(title != null && this.getTitlePosition(ctx, title)){
+			return ctx;
 		}
-		if(regexH("<STRONG>")){
-			return;
+		if(regexH(ctx, Patterns.RegEx.STRONG)){
+			return ctx;
 		}
-		if(regexH("<B>")){
-			return;
+		if(regexH(ctx, Patterns.RegEx.BOLD)){
+			return ctx;
 		}
 		
-		this.hPosition = this.html.indexOf("<body");
+		ctx.hPosition = ctx.html.indexOf("<body");
+		return ctx;
 	}
 	
-	private boolean regexH(String regex){
-		Pattern p = null;
-		Matcher m = null;
-		p = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
+	private boolean regexH(HtmlContext ctx, Patterns.RegEx re){
+		Matcher m = Patterns.get(re).matcher(ctx.html);
 		int proIndex = 0;
 		int hNum = 0;
+		long start = Patterns.startTiming();
 		while (m.find()) {
 			hNum++;
 			if(proIndex != 0 && m.start() - proIndex > 1000){//处理频道链接使用H标签的情况
@@ -530,13 +569,14 @@ public class TimeUtil {
 				break;
 			}
 			else{
-				if(m.start() < this.html.length() / 8){
+				if(m.start() < ctx.html.length() / 8){
 					proIndex = m.start();
 				}
 			}
 		}
+		Patterns.stopTiming(re, start);
 		if(hNum == 1 || proIndex != 0){
-			this.hPosition = proIndex + 10;
+			ctx.hPosition = proIndex + 10;
 			return true;
 		}
 		return false;
@@ -547,19 +587,19 @@ public class TimeUtil {
 	 * @param title
 	 * @return  boolean
 	 */
-	private boolean getTitlePosition(String title){
-		int bodyIndex = this.html.indexOf("<body");
+	private boolean getTitlePosition(HtmlContext ctx, String title){
+		int bodyIndex = ctx.html.indexOf("<body");
 		if(bodyIndex == -1){
-			bodyIndex = this.html.indexOf("<BODY");
+			bodyIndex = ctx.html.indexOf("<BODY");
 		}
-		int titleIndex = this.strIndex(title, bodyIndex);
+		int titleIndex = ctx.html.indexOf(title, bodyIndex);
 		if(titleIndex == -1){
 			return false;
 		}
 		
 		int tmpIdex = -1;
-		Pattern p = Pattern.compile("<([^>]*)>[^<]*" + title + "[^<]*</([^>]*)>", Pattern.CASE_INSENSITIVE);
-		Matcher m = p.matcher(this.html);
+		Pattern p = Patterns.compile("<([^>]*)>[^<]*" + title + "[^<]*</([^>]*)>", Pattern.CASE_INSENSITIVE);
+		Matcher m = p.matcher(ctx.html);
 		String nodeName = null;
 		while(m.find()){
 			nodeName = m.group(2);
@@ -572,22 +612,10 @@ public class TimeUtil {
 		if(tmpIdex != -1){
 			titleIndex = tmpIdex;
 		}
-		this.hPosition = titleIndex;
+		ctx.hPosition = titleIndex;
 		return true;
 	}
 	
-	private int strIndex(String title, int fromIndex){
-		return this.html.indexOf(title, fromIndex);
-	}
-	
-	/**
-	 * release memory <BR>
-	 * reset hPosition
-	 */
-	private void unloadHtml() {
-		this.hPosition = 0;
-		this.html = null;
-	}
 
 	/**
 	 * get level 1 date from html <BR>
@@ -604,17 +632,12 @@ public class TimeUtil {
 	 * 
 	 * @return the best level 1 weighted date
 	 */
-	private WeightedDate getHtmlDateL1() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-
-		String yyyy_mm_dd_hh_mm_ss = "[12][09][0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9]\\s+(?:[01]?[0-9]|2[0-4])[:：](?:[0-5]?[0-9])([:：][0-9]{1,2}){0,1}";
-		p = Pattern.compile(yyyy_mm_dd_hh_mm_ss);
-		m = p.matcher(this.html);
-		while (m.find()) {
+	private WeightedDate getHtmlDateL1(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_YYYY_MM_DD_HH_MM_SS)) {
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group().replaceAll("\\s{2,}", " ").split("[-_./ :：]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_TIME_SEPARATOR, Patterns.replaceAll(Patterns.RegEx.NORMALIZE, m.group(), " "));
 			try {
 				if (subStrings.length == 5) {
 					wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]),
@@ -628,79 +651,67 @@ public class TimeUtil {
 									.parseInt(subStrings[4]), Integer
 									.parseInt(subStrings[5]));
 				}
-			} catch (Exception e) {
-				e.printStackTrace();
+			} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				/* 不是合法的日期时间, 跳过 */
 				continue;
 			}
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[0]) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[0]) < 1990){
 				continue;
 			}
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm_dd_hh_MM);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm_dd_hh_MM);
 			wds.add(wd);
 		}
 
-		String yyyy_mm_dd = "(?<!\\d)([12][09][0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9])";
-		p = Pattern.compile(yyyy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_YYYY_MM_DD)) {
 			if(m.group(1).split("-").length != 3 && m.group(1).split("_").length != 3 && m.group(1).split("/").length != 3 && m.group(1).split("\\.").length != 3){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group(1).split("[-_./]");
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[0]) < 1990){
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, m.group(1));
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[0]) < 1990){
 				continue;
 			}
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), Integer
 					.parseInt(subStrings[2]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm_dd);
 			wds.add(wd);
 		}
 
-		String mm_dd_yyyy = "(?<!\\d)([01]?[0-9][-_./][0123]?[0-9][-_./][12][09][0-9]{2})";
-		p = Pattern.compile(mm_dd_yyyy);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_MM_DD_YYYY)) {
 			WeightedDate wd = new WeightedDate();
 			String date = m.group(1);
 			if(date.split("-").length != 3 && date.split(".").length != 3 && date.split("/").length != 3){
 				continue;
 			}
-			String[] subStrings = date.split("[-_./]");
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[2]) < 1990){
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, date);
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[2]) < 1990){
 				continue;
 			}
 			wd.setDate(subStrings[2], Integer.parseInt(subStrings[0]), Integer
 					.parseInt(subStrings[1]));
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd_yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd_yyyy);
 			wds.add(wd);
 		}
 		
-		String dd_mm_yyyy = "(?<!\\d)([0123]?[0-9][-_./][01]?[0-9][-_./][12][09][0-9]{2})";
-		p = Pattern.compile(dd_mm_yyyy);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_DD_MM_YYYY)) {
 			WeightedDate wd = new WeightedDate();
 			String date = m.group(1);
 			if(date.split("-").length != 3 && date.split(".").length != 3 && date.split("/").length != 3){
 				continue;
 			}
-			String[] subStrings = date.split("[-_./]");
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[2]) < 1990){
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, date);
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[2]) < 1990){
 				continue;
 			}
 			wd.setDate(subStrings[2], Integer.parseInt(subStrings[1]), Integer
 					.parseInt(subStrings[0]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm_dd);
 			wds.add(wd);
 		}
 
-		String yyyymmdd = "(?<!\\d)([12][09][0-9]{2}[01][0-9][0123][0-9])";
-		p = Pattern.compile(yyyymmdd);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_YYYYMMDD)) {
 			String date = m.group(1);
-			if(this.isInScript(m.start()) || Integer.parseInt(date.substring(0, 4)) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(date.substring(0, 4)) < 1990){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
@@ -709,7 +720,7 @@ public class TimeUtil {
 			}
 			wd.setDate(date.substring(0, 4), Integer.parseInt(date.substring(4,
 					6)), Integer.parseInt(date.substring(6, 8)));
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyymmdd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyymmdd);
 			wds.add(wd);
 		}
 
@@ -728,25 +739,20 @@ public class TimeUtil {
 	 * 
 	 * @return best weighted date
 	 */
-	private WeightedDate getHtmlDateL2() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-
-		String yy_mm_dd = "[^\\d]([0-9]{2}[-_./][01]?[0-9][-_./][0123]?[0-9])[^\\d]";
-		p = Pattern.compile(yy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+	private WeightedDate getHtmlDateL2(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_YY_MM_DD)) {
+			if(this.isInScript(ctx, m.start(1))){
 				continue;
 			}
 			if(m.group(1).split("-").length != 3 && m.group(1).split("_").length != 3 && m.group(1).split("/").length != 3 && m.group(1).split("\\.").length != 3){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group(1).split("[-_./]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, m.group(1));
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), Integer.parseInt(subStrings[2]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yy_mm_dd);
 			wds.add(wd);
 		}
 		return this.getBest(wds);
@@ -764,22 +770,17 @@ public class TimeUtil {
 	 * 
 	 * @return best level 3 date with weight
 	 */
-	private WeightedDate getHtmlDateL3() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-		String mm_dd = "(?<!\\d)[01]?[0-9][-_/][0123]?[0-9]";
-		p = Pattern.compile(mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+	private WeightedDate getHtmlDateL3(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_MM_DD)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group().split("[-_/]");
-			wd.setDate(String.valueOf(Calendar.getInstance().get(Calendar.YEAR)), Integer.parseInt(subStrings[0]), Integer
+			String[] subStrings = Patterns.split(Patterns.RegEx.MONTH_DAY_SEPARATOR, m.group());
+			wd.setDate(String.valueOf(ctx.year), Integer.parseInt(subStrings[0]), Integer
 					.parseInt(subStrings[1]));
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd);
 			wds.add(wd);
 		}
 		return this.getBest(wds);
@@ -795,21 +796,16 @@ public class TimeUtil {
 	 * 
 	 * @return best level 4 date with weight
 	 */
-	private WeightedDate getHtmlDateL4() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-		String yyyy_mm = "[^\\d]([12][09][0-9]{2}[-_./][01]?[0-9])[^\\d]";
-		p = Pattern.compile(yyyy_mm);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+	private WeightedDate getHtmlDateL4(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.HTML_YYYY_MM)) {
+			if(this.isInScript(ctx, m.start(1))){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group(1).split("[-_./]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.DATE_SEPARATOR, m.group(1));
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), 1);
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm);
 			wds.add(wd);
 		}
 		return this.getBest(wds);
@@ -826,18 +822,13 @@ public class TimeUtil {
 	 * 
 	 * @return best level 1 date with weight
 	 */
-	private WeightedDate getHtmlDateChL1() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
+	private WeightedDate getHtmlDateChL1(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
 
 
-		String yyyy_mm_dd_hh_mm = "[12][09][0-9]{2}年[01]?[0-9]月[0123]?[0-9]日\\s+(?:[01]?[0-9]|2[0-4])[:：](?:[0-5]?[0-9])([:：][0-9]{1,2}){0,1}";
-		p = Pattern.compile(yyyy_mm_dd_hh_mm);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			String[] subStrings = m.group().replaceAll("\\s", "").split("[年月日:：]");
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[0]) < 1990){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_MM_DD_HH_MM)) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_DATE_TIME_SEPARATOR, Patterns.replaceAll(Patterns.RegEx.WHITESPACE, m.group(), ""));
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[0]) < 1990){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
@@ -854,56 +845,47 @@ public class TimeUtil {
 									.parseInt(subStrings[4]), Integer
 									.parseInt(subStrings[5]));
 				}
-			} catch (Exception e) {
-				e.printStackTrace();
+			} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				/* 不是合法的日期时间, 跳过 */
 				continue;
 			}
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm_dd_hh_MM);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm_dd_hh_MM);
 			wds.add(wd);
 		}
 		
-		String yyyy_mm_dd = "[12][09][0-9]{2}年[01]?[0-9]月[0123]?[0-9]日";
-		p = Pattern.compile(yyyy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			String[] subStrings = m.group().split("[年月日]");
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[0]) < 1990){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_MM_DD)) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_DATE_SEPARATOR, m.group());
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[0]) < 1990){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), Integer
 					.parseInt(subStrings[2]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm_dd);
 			wds.add(wd);
 		}
 
-		yyyy_mm_dd = "[１２][0０９][0０１２３４５６７８９]{2}年[0０１]?[0０１２３４５６７８９]月[0０１２３]?[0０１２３４５６７８９]日";
-		p = Pattern.compile(yyyy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			String[] subStrings = this.replaceUpperCase(m.group()).split("[年月日]");
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[0]) < 1990){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_MM_DD_FULLWIDTH)) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_DATE_SEPARATOR, this.replaceUpperCase(m.group()));
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[0]) < 1990){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), Integer
 					.parseInt(subStrings[2]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yy_mm_dd);
 			wds.add(wd);
 		}
 
-		yyyy_mm_dd = "([0〇零一二三四五六七八九十两千]{4})年[零0〇一二三四五六七八九十]{1,2}月[0〇零一二三四五六七八九十]{1,3}日";
-		p = Pattern.compile(yyyy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			String[] subStrings = this.replaceChinese(m.group()).split("[年月日]");
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[0]) < 1990){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_MM_DD_HANZI)) {
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_DATE_SEPARATOR, this.replaceChinese(m.group()));
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[0]) < 1990){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), Integer
 					.parseInt(subStrings[2]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yy_mm_dd_CN);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yy_mm_dd_CN);
 			wds.add(wd);
 		}
 
@@ -920,44 +902,32 @@ public class TimeUtil {
 	 * 
 	 * @return best level 1 date with weight
 	 */
-	private WeightedDate getHtmlDateChL2() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-
-		String yy_mm_dd = "[0-9]{2}年[01]?[0-9]月[0123]?[0-9]日";
-		p = Pattern.compile(yy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
+	private WeightedDate getHtmlDateChL2(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YY_MM_DD)) {
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group().split("[年月日]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_DATE_SEPARATOR, m.group());
 			wd.setDate(subStrings[0], Integer
 					.parseInt(subStrings[1]), Integer
 					.parseInt(subStrings[2]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yy_mm_dd);
 			wds.add(wd);
 		}
 
-		yy_mm_dd = "[0０１２３４５６７８９]{2}年[0０１]?[0０１２３４５６７８９]月[0０１２３]?[0０１２３４５６７８９]日";
-		p = Pattern.compile(yy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YY_MM_DD_FULLWIDTH)) {
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = this.replaceUpperCase(m.group()).split(
-					"[年月日]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_DATE_SEPARATOR, this.replaceUpperCase(m.group()));
 			wd.setDate(subStrings[0], Integer
 					.parseInt(subStrings[1]), Integer
 					.parseInt(subStrings[2]));
-			wd.setWeight(m.start(), this.hPosition, Weight.yy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yy_mm_dd);
 			wds.add(wd);
 		}
 
-		yy_mm_dd = "[0〇零一二三四五六七八九十两千]{2}年[0零〇一二三四五六七八九十]{1,2}月[0〇零一二三四五六七八九十]{1,3}日";
-		p = Pattern.compile(yy_mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YY_MM_DD_HANZI)) {
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = this.replaceChinese(m.group()).split("[年月日]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_DATE_SEPARATOR, this.replaceChinese(m.group()));
 			if (subStrings[0].length() == 4) {
 				wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]),
 						Integer.parseInt(subStrings[2]));
@@ -966,7 +936,7 @@ public class TimeUtil {
 						.parseInt(subStrings[1]), Integer
 						.parseInt(subStrings[2]));
 			}
-			wd.setWeight(m.start(), this.hPosition, Weight.yy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yy_mm_dd);
 			wds.add(wd);
 		}
 		return this.getBest(wds);
@@ -982,56 +952,44 @@ public class TimeUtil {
 	 * 
 	 * @return level 3 date with weight
 	 */
-	private WeightedDate getHtmlDateChL3() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-
-		String mm_dd = "[01]?[0-9]月[0123]?[0-9]日";
-		p = Pattern.compile(mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+	private WeightedDate getHtmlDateChL3(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_MM_DD)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group().split("[月日]");
-			wd.setDate(String.valueOf(Calendar.getInstance().get(Calendar.YEAR)), Integer.parseInt(subStrings[0]), Integer
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_MONTH_DAY_SEPARATOR, m.group());
+			wd.setDate(String.valueOf(ctx.year), Integer.parseInt(subStrings[0]), Integer
 					.parseInt(subStrings[1]));
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd);
 			wds.add(wd);
 		}
 
-		mm_dd = "[0０１]?[0０１２３４５６７８９]月[0０１２３]?[0０１２３４５６７８９]日";
-		p = Pattern.compile(mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_MM_DD_FULLWIDTH)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = this.replaceUpperCase(m.group())
-					.split("[月日]");
-			wd.setDate(String.valueOf(Calendar.getInstance().get(Calendar.YEAR)), Integer.parseInt(subStrings[0]), Integer
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_MONTH_DAY_SEPARATOR, this.replaceUpperCase(m.group()));
+			wd.setDate(String.valueOf(ctx.year), Integer.parseInt(subStrings[0]), Integer
 					.parseInt(subStrings[1]));
 
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd);
 			wds.add(wd);
 		}
 
-		mm_dd = "[零0〇一二三四五六七八九十]{1,2}月[0〇零一二三四五六七八九十]{1,3}日";
-		p = Pattern.compile(mm_dd);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_MM_DD_HANZI)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = this.replaceChinese(m.group()).split("[月日]");
-			wd.setDate(String.valueOf(Calendar.getInstance().get(Calendar.YEAR)), Integer.parseInt(subStrings[0]), Integer
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_MONTH_DAY_SEPARATOR, this.replaceChinese(m.group()));
+			wd.setDate(String.valueOf(ctx.year), Integer.parseInt(subStrings[0]), Integer
 					.parseInt(subStrings[1]));
 
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd);
 			wds.add(wd);
 		}
 		return this.getBest(wds);
@@ -1047,51 +1005,39 @@ public class TimeUtil {
 	 * 
 	 * @return level 4 date with weight
 	 */
-	private WeightedDate getHtmlDateChL4() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-
-		String yyyy_mm = "[12][09][0-9]{2}年[01]?[0-9]月";
-		p = Pattern.compile(yyyy_mm);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+	private WeightedDate getHtmlDateChL4(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_MM)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = m.group().split("[年月]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_YEAR_MONTH_SEPARATOR, m.group());
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), 1);
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm);
 			wds.add(wd);
 		}
 
-		yyyy_mm = "[１２][0０９][0０１２３４５６７８９]{2}年[0０１]?[0０１２３４５６７８９]月";
-		p = Pattern.compile(yyyy_mm);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_MM_FULLWIDTH)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = this.replaceUpperCase(m.group())
-					.split("[年月]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_YEAR_MONTH_SEPARATOR, this.replaceUpperCase(m.group()));
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), 1);
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm);
 			wds.add(wd);
 		}
 
-		yyyy_mm = "([0〇零一二三四五六七八九十两千]{4})年[零0〇一二三四五六七八九十]{1,2}月";
-		p = Pattern.compile(yyyy_mm);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_MM_HANZI)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
-			String[] subStrings = this.replaceChinese(m.group()).split("[年月]");
+			String[] subStrings = Patterns.split(Patterns.RegEx.CN_YEAR_MONTH_SEPARATOR, this.replaceChinese(m.group()));
 			wd.setDate(subStrings[0], Integer.parseInt(subStrings[1]), 1);
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm);
 			wds.add(wd);
 		}
 		return this.getBest(wds);
@@ -1106,49 +1052,38 @@ public class TimeUtil {
 	 * 
 	 * @return level 5 date with weight
 	 */
-	private WeightedDate getHtmlDateChL5() {
-		Pattern p = null;
-		Matcher m = null;
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-
-		String yyyy = "[12][09][0-9]{2}年";
-		p = Pattern.compile(yyyy);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+	private WeightedDate getHtmlDateChL5(HtmlContext ctx) {
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
 			wd.setDate(m.group().substring(0, 4), 1, 1);
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy);
 			wds.add(wd);
 		}
 
-		yyyy = "[１２][0０９][0０１２３４５６７８９]{2}年";
-		p = Pattern.compile(yyyy);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_FULLWIDTH)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
 			String year = this.replaceUpperCase(m.group()).substring(0, 4);
 			wd.setDate(year, 1, 1);
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy);
 			wds.add(wd);
 		}
 
-		yyyy = "([0〇零一二三四五六七八九十两千]{4})年";
-		p = Pattern.compile(yyyy);
-		m = p.matcher(this.html);
-		while (m.find()) {
-			if(this.isInScript(m.start())){
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.CN_YYYY_HANZI)) {
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			WeightedDate wd = new WeightedDate();
 			String year = this.replaceChinese(m.group()).substring(0, 4);
 			wd.setDate(year, 1, 1);
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy);
 			wds.add(wd);
 		}
 		return this.getBest(wds);
@@ -1159,19 +1094,14 @@ public class TimeUtil {
 	 * 
 	 * @return level 1 date with weight
 	 */
-	private WeightedDate getHtmlDateEnL1() {
-		Pattern p = null;
-		Matcher m = null;
-		this.hPosition -= 500;//针对英文新闻时间在标题前面情况
-		Vector<WeightedDate> wds = new Vector<WeightedDate>();
-
-		String hh_MM_mm_dd_yyyy = "(?:[01]?[0-9]|2[0-3]):[0-5][0-9]\\s*,?(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1},?\\s{0,5}\\d{4}";
-		p = Pattern.compile(hh_MM_mm_dd_yyyy, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
-		while (m.find()) {
+	private WeightedDate getHtmlDateEnL1(HtmlContext ctx) {
+		ctx.hPosition -= 500;//针对英文新闻时间在标题前面情况
+		List<WeightedDate> wds = new ArrayList<WeightedDate>();
+
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.EN_HH_MM_MM_DD_YYYY)) {
 			WeightedDate wd = new WeightedDate();
-			String date = m.group().replaceAll("[,:]", " ");
-			String[] subStrings = date.split("\\s+");
+			String date = Patterns.replaceAll(Patterns.RegEx.COMMA_OR_COLON, m.group(), " ");
+			String[] subStrings = Patterns.split(Patterns.RegEx.WHITESPACES, date);
 			if (subStrings.length != 5) {
 				continue;
 			}
@@ -1179,23 +1109,20 @@ public class TimeUtil {
 			if (month == -1) {
 				continue;
 			}
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[4]) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[4]) < 1990){
 				continue;
 			}
 			String dStr = subStrings[3].toLowerCase().replace("st", "")
 					.replace("nd", "").replace("rd", "").replace("th", "");
 			wd.setDate(subStrings[4], month, Integer.parseInt(dStr), Integer.parseInt(subStrings[0]), Integer.parseInt(subStrings[1]), 0);
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd_yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd_yyyy);
 			wds.add(wd);
 		}
 		
-		String mm_dd_yyyy = "(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1},{0,1}\\s{0,5}\\d{4}";
-		p = Pattern.compile(mm_dd_yyyy, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.EN_MM_DD_YYYY)) {
 			WeightedDate wd = new WeightedDate();
 			String date = m.group().replace(",", " ");
-			String[] subStrings = date.split("\\s+");
+			String[] subStrings = Patterns.split(Patterns.RegEx.WHITESPACES, date);
 			if (subStrings.length != 3) {
 				continue;
 			}
@@ -1203,23 +1130,20 @@ public class TimeUtil {
 			if (month == -1) {
 				continue;
 			}
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[2]) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[2]) < 1990){
 				continue;
 			}
 			String dStr = subStrings[1].toLowerCase().replace("st", "")
 					.replace("nd", "").replace("rd", "").replace("th", "");
 			wd.setDate(subStrings[2], month, Integer.parseInt(dStr));
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd_yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd_yyyy);
 			wds.add(wd);
 		}
 
-		String dd_mm_yyyy = "\\d{1,2}(th|st|nd|rd)?\\s{0,5}(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December),{0,1},?\\s{0,5}\\d{4}";
-		p = Pattern.compile(dd_mm_yyyy, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.EN_DD_MM_YYYY)) {
 			WeightedDate wd = new WeightedDate();
 			String date = m.group().replace(",", " ");
-			String[] subStrings = date.split("\\s+");
+			String[] subStrings = Patterns.split(Patterns.RegEx.WHITESPACES, date);
 			if (subStrings.length != 3) {
 				continue;
 			}
@@ -1229,21 +1153,18 @@ public class TimeUtil {
 			if (month == -1) {
 				continue;
 			}
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[2]) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[2]) < 1990){
 				continue;
 			}
 			wd.setDate(subStrings[2], month, Integer.parseInt(dStr));
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd_yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd_yyyy);
 			wds.add(wd);
 		}
 		
-		String dd_mm_yy = "(?<!\\d)\\d{1,2}(th|st|nd|rd)?,?-(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December),{0,1}-\\d{2,4}";
-		p = Pattern.compile(dd_mm_yy, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.EN_DD_MM_YY)) {
 			WeightedDate wd = new WeightedDate();
 			String date = m.group().replace(",", " ");
-			String[] subStrings = date.split("\\s+|-");
+			String[] subStrings = Patterns.split(Patterns.RegEx.WHITESPACES_OR_DASH, date);
 			if (subStrings.length != 3) {
 				continue;
 			}
@@ -1253,21 +1174,18 @@ public class TimeUtil {
 			if (month == -1) {
 				continue;
 			}
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[2]) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[2]) < 1990){
 				continue;
 			}
 			wd.setDate(subStrings[2], month, Integer.parseInt(dStr));
-			wd.setWeight(m.start(), this.hPosition, Weight.yy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yy_mm_dd);
 			wds.add(wd);
 		}
 		
-		String dd_mm_yy2 = "(?<!\\d)\\d{1,2}(th|st|nd|rd)?\\s{0,5}(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December),{0,1},?\\s{0,5}\\d{2}";
-		p = Pattern.compile(dd_mm_yy2, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.EN_DD_MM_YY2)) {
 			WeightedDate wd = new WeightedDate();
 			String date = m.group().replace(",", " ");
-			String[] subStrings = date.split("\\s+|-");
+			String[] subStrings = Patterns.split(Patterns.RegEx.WHITESPACES_OR_DASH, date);
 			if (subStrings.length != 3) {
 				continue;
 			}
@@ -1277,21 +1195,19 @@ public class TimeUtil {
 			if (month == -1) {
 				continue;
 			}
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[2]) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[2]) < 1990){
 				continue;
 			}
 			wd.setDate(subStrings[2], month, Integer.parseInt(dStr));
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd_yyyy);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd_yyyy);
 			wds.add(wd);
 		}
 		
-		String mm_dd_hh_MM = "(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1}\\s*,?\\s*[01]?[0-9]:[0-5]?[0-9]\\s+(AM|PM)?";
-		p = Pattern.compile(mm_dd_hh_MM, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.EN_MM_DD_HH_MM)) {
 			WeightedDate wd = new WeightedDate();
-			String date = m.group().replaceAll("[,:]", " ").replaceAll("\\s{2,}", " ");
-			String[] subStrings = date.split("\\s+");
+			String date = Patterns.replaceAll(Patterns.RegEx.COMMA_OR_COLON, m.group(), " ");
+			date = Patterns.replaceAll(Patterns.RegEx.NORMALIZE, date, " ");
+			String[] subStrings = Patterns.split(Patterns.RegEx.WHITESPACES, date);
 			if (subStrings.length < 4) {
 				continue;
 			}
@@ -1299,7 +1215,7 @@ public class TimeUtil {
 			if (month == -1) {
 				continue;
 			}
-			if(this.isInScript(m.start())){
+			if(this.isInScript(ctx, m.start())){
 				continue;
 			}
 			int hour = Integer.parseInt(subStrings[2]);
@@ -1310,19 +1226,16 @@ public class TimeUtil {
 			}
 			String dStr = subStrings[1].toLowerCase().replace("st", "")
 					.replace("nd", "").replace("rd", "").replace("th", "");
-			wd.setDate(Integer.toString(Calendar.getInstance().get(Calendar.YEAR)), month, 
+			wd.setDate(Integer.toString(ctx.year), month, 
 					Integer.parseInt(dStr), hour, Integer.parseInt(subStrings[3]), 0);
-			wd.setWeight(m.start(), this.hPosition, Weight.mm_dd_hh_MM);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.mm_dd_hh_MM);
 			wds.add(wd);
 		}
 		
-		String yyyy_mm_dd = "\\d{4}\\s*,?(Jan|Feb|Mar|Apr|Jun|Jul|Aug|Sep|Oct|Nov|Dec|January|February|March|April|May|June|July|August|September|October|November|December)\\s{0,5}\\d{1,2}(th|st|nd|rd){0,1},?";
-		p = Pattern.compile(yyyy_mm_dd, Pattern.CASE_INSENSITIVE);
-		m = p.matcher(this.html);
-		while (m.find()) {
+		for (MatchResult m : ctx.dates.matches(Patterns.RegEx.EN_YYYY_MM_DD)) {
 			WeightedDate wd = new WeightedDate();
-			String date = m.group().replaceAll(",", " ");
-			String[] subStrings = date.split("\\s+,");
+			String date = Patterns.replaceAll(Patterns.RegEx.COMMA, m.group(), " ");
+			String[] subStrings = Patterns.split(Patterns.RegEx.WHITESPACES_COMMA, date);
 			if(subStrings.length < 3){
 				continue;
 			}
@@ -1330,17 +1243,17 @@ public class TimeUtil {
 			if (month == -1) {
 				continue;
 			}
-			if(this.isInScript(m.start()) || Integer.parseInt(subStrings[0]) < 1990){
+			if(this.isInScript(ctx, m.start()) || Integer.parseInt(subStrings[0]) < 1990){
 				continue;
 			}
 			String dStr = subStrings[2].toLowerCase().replace("st", "")
 					.replace("nd", "").replace("rd", "").replace("th", "");
 			wd.setDate(subStrings[0], month, Integer.parseInt(dStr));
-			wd.setWeight(m.start(), this.hPosition, Weight.yyyy_mm_dd);
+			wd.setWeight(m.start(), ctx.hPosition, Weight.yyyy_mm_dd);
 			wds.add(wd);
 		}
 
-		this.hPosition += 500;
+		ctx.hPosition += 500;
 		
 		return this.getBest(wds);
 	}
@@ -1553,26 +1466,26 @@ public class TimeUtil {
  */
 class Weight {
 
-	public static int yyyy_mm_dd_hh_MM = 0;
+	public static final int yyyy_mm_dd_hh_MM = 0;
 	
-	public static int yyyy_mm_dd = 10;
+	public static final int yyyy_mm_dd = 10;
 
-	public static int mm_dd_yyyy = 50;
+	public static final int mm_dd_yyyy = 50;
 
-	public static int yyyymmdd = 5000;
+	public static final int yyyymmdd = 5000;
 
-	public static int yy_mm_dd = 500;
+	public static final int yy_mm_dd = 500;
 
-	public static int yy_mm_dd_CN = 10000;
+	public static final int yy_mm_dd_CN = 10000;
 
-	public static int yymmdd = 10000;
+	public static final int yymmdd = 10000;
 
-	public static int mm_dd_hh_MM = 10;
+	public static final int mm_dd_hh_MM = 10;
 	
-	public static int mm_dd = 100000;
+	public static final int mm_dd = 100000;
 
-	public static int yyyy_mm = 20000;
+	public static final int yyyy_mm = 20000;
 
-	public static int yyyy = 200000;
+	public static final int yyyy = 200000;
 
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package testExample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+
+/**
+ * DOM修改的撤销日志 <BR>
+ * 1. 记录删除的节点(原父节点和位置)、改名的元素(原标签名)和追加的节点, {@link #undo()} 倒序恢复成修改前的树 <BR>
+ * 2. 代替 "先把整个body序列化, 失败后再重新解析" 的做法, 恢复的是原来的节点, 不需要序列化和解析 <BR>
+ * 3. 不记录时只执行修改; 修改必须都经过日志, 否则无法恢复
+ *
+ */
+final class UndoJournal {
+
+	private static final int REMOVE = 0;
+	private static final int RENAME = 1;
+	private static final int APPEND = 2;
+
+	private final boolean mRecording;
+	private final List<Entry> mEntries = new ArrayList<Entry>();
+
+	/**
+	 * @param recording
+	 *            是否记录, 为false时只执行修改
+	 */
+	UndoJournal(boolean recording) {
+		mRecording = recording;
+	}
+
+	boolean isRecording() {
+		return mRecording;
+	}
+
+	/**
+	 * 删除节点, 记录它的父节点和位置
+	 *
+	 * @param node
+	 */
+	void remove(Node node) {
+		if (mRecording) {
+			mEntries.add(new Entry(REMOVE, node, (Element) node.parentNode(), node.siblingIndex(), null));
+		}
+		node.remove();
+	}
+
+	/**
+	 * 删除 e 的所有子节点
+	 *
+	 * @param e
+	 */
+	void removeChildren(Element e) {
+		for (int i = e.childNodeSize() - 1; i >= 0; i--) {
+			remove(e.childNode(i));
+		}
+	}
+
+	/**
+	 * 修改标签名, 记录原来的标签名
+	 *
+	 * @param e
+	 * @param tagName
+	 */
+	void tagName(Element e, String tagName) {
+		String original = e.tagName();
+		e.tagName(tagName);
+		if (mRecording) {
+			mEntries.add(new Entry(RENAME, e, null, 0, original));
+		}
+	}
+
+	/**
+	 * 把不在树中的节点追加到 parent 末尾
+	 *
+	 * @param parent
+	 * @param child
+	 */
+	void append(Element parent, Node child) {
+		parent.appendChild(child);
+		if (mRecording) {
+			mEntries.add(new Entry(APPEND, child, null, 0, null));
+		}
+	}
+
+	/**
+	 * 倒序撤销所有记录的修改, 并清空日志
+	 */
+	void undo() {
+		for (int i = mEntries.size() - 1; i >= 0; i--) {
+			Entry entry = mEntries.get(i);
+			switch (entry.kind) {
+			case REMOVE:
+				entry.parent.insertChildren(entry.index, entry.node);
+				break;
+			case RENAME:
+				((Element) entry.node).tagName(entry.tagName);
+				break;
+			default:
+				entry.node.remove();
+				break;
+			}
+		}
+		mEntries.clear();
+	}
+
+	private static final class Entry {
+
+		final int kind;
+		final Node node;
+		/** 删除前的父节点 */
+		final Element parent;
+		/** 删除前在父节点中的位置 */
+		final int index;
+		/** 改名前的标签名 */
+		final String tagName;
+
+		Entry(int kind, Node node, Element parent, int index, String tagName) {
+			this.kind = kind;
+			this.node = node;
+			this.parent = parent;
+			this.index = index;
+			this.tagName = tagName;
+		}
+	}
+}
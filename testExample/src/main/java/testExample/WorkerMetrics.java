@@ -0,0 +1,154 @@
+package testExample;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 长时间运行的抽取程序的累计统计: 下载成功和失败的网页数、每个抽取类的耗时、重试次数、抽取到的图片数和网页日期的来源 <BR>
+ * 1. 与 {@link ExtractionMetrics} 一起打开和关闭, 关闭时什么也不记录 <BR>
+ * 2. 计数用 LongAdder, 耗时用 {@link Histogram}, 记录时不加锁; 读取(如 {@link MetricsServer})只复制当前值, 不影响记录的线程
+ *
+ */
+public final class WorkerMetrics {
+
+	/**
+	 * 累计计数项
+	 */
+	public enum Total {
+		/** 下载并解析成功的网页 */
+		PAGES_FETCHED,
+		/** 下载或解析失败的网页 */
+		PAGES_FAILED,
+		/** Readability 第一遍没有找到正文, 保留可疑元素后重新运行 init(true) */
+		INIT_RETRIES,
+		/** ReadabilityForImg 抽取到的正文图片 */
+		IMAGES_EXTRACTED
+	}
+
+	/**
+	 * TimeUtil.getDateFromHtml 选中的日期来自哪一个方法, 前10项与其中 wds 数组的下标一一对应
+	 */
+	public enum DateSource {
+		/** getHtmlDateL1 */
+		L1,
+		/** getHtmlDateChL1 */
+		CH_L1,
+		/** getHtmlDateEnL1 */
+		EN_L1,
+		/** getHtmlDateL2 */
+		L2,
+		/** getHtmlDateChL2 */
+		CH_L2,
+		/** getHtmlDateL3 */
+		L3,
+		/** getHtmlDateL4 */
+		L4,
+		/** getHtmlDateChL3 */
+		CH_L3,
+		/** getHtmlDateChL4 */
+		CH_L4,
+		/** getHtmlDateChL5 */
+		CH_L5,
+		/** getEpochtimesDate */
+		EPOCH_TIMES,
+		/** 没有找到日期 */
+		NONE
+	}
+
+	private static final Total[] TOTALS = Total.values();
+	private static final DateSource[] DATE_SOURCES = DateSource.values();
+
+	private static final LongAdder[] sTotals = adders(TOTALS.length);
+	private static final LongAdder[] sDateSources = adders(DATE_SOURCES.length);
+	private static final ConcurrentHashMap<String, Histogram> sExtractionNanos = new ConcurrentHashMap<String, Histogram>();
+
+	private WorkerMetrics() {
+	}
+
+	static void add(Total total, long n) {
+		if (ExtractionMetrics.isEnabled()) {
+			sTotals[total.ordinal()].add(n);
+		}
+	}
+
+	/**
+	 * @param index
+	 *            DateSource 的下标
+	 */
+	static void date(int index) {
+		if (ExtractionMetrics.isEnabled()) {
+			sDateSources[index].increment();
+		}
+	}
+
+	static void date(DateSource source) {
+		date(source.ordinal());
+	}
+
+	/**
+	 * 记录一次 init 的耗时
+	 *
+	 * @param type
+	 *            抽取类, 按类的简单名称分别统计
+	 * @param nanos
+	 */
+	static void extraction(Class<?> type, long nanos) {
+		if (!ExtractionMetrics.isEnabled()) {
+			return;
+		}
+		String name = type.getSimpleName();
+		Histogram histogram = sExtractionNanos.get(name);
+		if (histogram == null) {
+			Histogram created = new Histogram();
+			histogram = sExtractionNanos.putIfAbsent(name, created);
+			if (histogram == null) {
+				histogram = created;
+			}
+		}
+		histogram.record(nanos);
+	}
+
+	public static long get(Total total) {
+		return sTotals[total.ordinal()].sum();
+	}
+
+	public static long get(DateSource source) {
+		return sDateSources[source.ordinal()].sum();
+	}
+
+	/**
+	 * @return 按类名排序的每次 init 耗时(纳秒)的分布
+	 */
+	public static Map<String, Histogram.Snapshot> getExtractionNanos() {
+		Map<String, Histogram.Snapshot> snapshots = new TreeMap<String, Histogram.Snapshot>();
+		for (Map.Entry<String, Histogram> entry : sExtractionNanos.entrySet()) {
+			snapshots.put(entry.getKey(), entry.getValue().snapshot());
+		}
+		return snapshots;
+	}
+
+	/**
+	 * 清空所有统计, 与同时进行的记录之间不是原子的
+	 */
+	public static void reset() {
+		for (LongAdder adder : sTotals) {
+			adder.reset();
+		}
+		for (LongAdder adder : sDateSources) {
+			adder.reset();
+		}
+		for (Histogram histogram : sExtractionNanos.values()) {
+			histogram.reset();
+		}
+	}
+
+	private static LongAdder[] adders(int n) {
+		LongAdder[] adders = new LongAdder[n];
+		for (int i = 0; i < n; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+}
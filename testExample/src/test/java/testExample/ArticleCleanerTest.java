@@ -0,0 +1,231 @@
+package testExample;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.Test;
+
+/**
+ * ArticleCleaner.clean 与原来 prepArticle 中逐个 getElementsByTag 的清理代码对比, 比较清理后的HTML
+ */
+public class ArticleCleanerTest {
+
+	/** Readability.getClassWeight 的规则 */
+	private static final ToIntFunction<Element> WEIGHT = e -> classWeight(e, Patterns.RegEx.NEGATIVE,
+			Patterns.RegEx.POSITIVE);
+	/** ReadabilityForImg.getClassWeight 的规则 */
+	private static final ToIntFunction<Element> IMG_WEIGHT = e -> classWeight(e, Patterns.RegEx.IMG_ARTICLE_NEGATIVE,
+			Patterns.RegEx.IMG_ARTICLE_POSITIVE);
+
+	/**
+	 * 每条清理规则, 以及嵌套的元素先被外层删除的情况
+	 */
+	private static final String[] CASES = {
+			"<div><h2>sub</h2><p>text</p><h2 class=x>a</h2></div>",
+			"<div><h2>only subtitle</h2><p>text</p></div>",
+			"<div><h1>t</h1><form><input></form><iframe src=\"http://www.youtube.com/x\"></iframe><iframe></iframe></div>",
+			"<div><object><embed src=\"http://vimeo.com/1\"></object><object><param></object><p>a</p></div>",
+			"<div><h3 class=comment>x</h3><h4><a href=#>all link</a></h4><h5>plain header text here</h5></div>",
+			"<div><div class=footer><div><p>inner</p></div></div><div class=content><p>a, b, c</p></div></div>",
+			"<div><div><img src=a><img src=b><p>x</p></div><div><p>long enough text to keep it here, really</p></div></div>",
+			"<div><div><ul><li>a</li><li>b</li></ul><p>p</p></div><ul class=related><li>r</li></ul></div>",
+			"<div><div><input><input><p>1</p><p>2</p><p>3</p></div></div>",
+			"<div><div><a href=#>mostly links mostly links</a> and some text</div></div>",
+			"<div class=post><div class=post><a href=#>link text that is long enough to count</a> t</div></div>",
+			"<div><div><embed src=x><p>short</p></div><div><embed src=x><embed src=y><p>t</p></div></div>",
+			"<div><div><embed src=\"http://www.youtube.com/v\"><p>video with a caption that is long enough</p></div></div>",
+			"<div><table><tr><td>" + commas(12) + "</td></tr></table><table><tr><td>x</td></tr></table></div>",
+			"<div><p> </p><p><img src=a></p><p><embed src=b></p><p><object></object></p><p> </p><p><br></p></div>",
+			"<div><div><div><div>deep</div></div></div><p>" + commas(3) + "</p></div>",
+			/* 先删除的元素会改变外层元素的计数和文本, 外层的判断要用删除后的值 */
+			"<div><div><img src=a><img src=b><img src=c><p>x</p></div><p>text that is long enough to keep</p></div>",
+			"<div><form><input><input></form><p>1</p><p>2</p><p>3</p>text that is long enough to keep</div>",
+			"<div><table><tr><td><a href=#>many links in the table</a></td></tr></table>short text to keep</div>",
+			"<div><h2><a href=#>link header</a></h2><h3><a href=#>link header</a></h3><p>text long enough, kept</p></div>",
+			"<div><ul><li>a</li></ul><div><embed src=x><p>p</p></div><p>text that is long enough to keep it</p></div>",
+			"<div><p><img src=a></p><div class=footer><p><img src=b></p></div><p> </p></div>",
+			"<div><div><ul class=related><li>" + commas(12) + "</li></ul>short</div></div>" };
+
+	@Test
+	public void cleanMatchesOldCleaningOnTestPages() throws IOException {
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			Document doc = Jsoup.parse(page.getValue());
+			doc.getElementsByTag("script").remove();
+			doc.getElementsByTag("style").remove();
+			assertCleanMatches(page.getKey() + " body", doc.body());
+			for (Element div : doc.body().getElementsByTag("div")) {
+				assertCleanMatches(page.getKey() + " " + div.cssSelector(), div);
+			}
+		}
+	}
+
+	@Test
+	public void cleanMatchesOldCleaningOnEdgeCases() {
+		for (String html : CASES) {
+			assertCleanMatches(html, Jsoup.parse(html).body());
+		}
+	}
+
+	private static void assertCleanMatches(String name, Element article) {
+		for (ToIntFunction<Element> weight : Arrays.asList(WEIGHT, IMG_WEIGHT)) {
+			Element expected = article.clone();
+			Element actual = article.clone();
+			OldCleaner.clean(expected, weight);
+			ArticleCleaner.clean(actual, weight, node -> {
+			});
+			assertEquals(name, expected.outerHtml(), actual.outerHtml());
+		}
+	}
+
+	private static String commas(int n) {
+		StringBuilder sb = new StringBuilder("a");
+		for (int i = 0; i < n; i++) {
+			sb.append(", a");
+		}
+		return sb.toString();
+	}
+
+	private static int classWeight(Element e, Patterns.RegEx negative, Patterns.RegEx positive) {
+		int weight = 0;
+		for (String s : new String[] { e.className(), e.id() }) {
+			if (s.length() != 0) {
+				if (Patterns.get(negative).matcher(s).find()) {
+					weight -= 25;
+				}
+				if (Patterns.get(positive).matcher(s).find()) {
+					weight += 25;
+				}
+			}
+		}
+		return weight;
+	}
+
+	/**
+	 * 原来 prepArticle 中的清理代码, 每个节点都直接查询DOM
+	 */
+	private static final class OldCleaner {
+
+		static void clean(Element articleContent, ToIntFunction<Element> weight) {
+			clean(articleContent, "form");
+			clean(articleContent, "object");
+			clean(articleContent, "h1");
+			if (getElementsByTag(articleContent, "h2").size() == 1) {
+				clean(articleContent, "h2");
+			}
+			clean(articleContent, "iframe");
+
+			cleanHeaders(articleContent, weight);
+
+			cleanConditionally(articleContent, "table", weight);
+			cleanConditionally(articleContent, "ul", weight);
+			cleanConditionally(articleContent, "div", weight);
+
+			for (Element articleParagraph : getElementsByTag(articleContent, "p")) {
+				int imgCount = getElementsByTag(articleParagraph, "img").size();
+				int embedCount = getElementsByTag(articleParagraph, "embed").size();
+				int objectCount = getElementsByTag(articleParagraph, "object").size();
+				if (imgCount == 0 && embedCount == 0 && objectCount == 0
+						&& getInnerText(articleParagraph, false).length() == 0) {
+					articleParagraph.remove();
+				}
+			}
+		}
+
+		private static void clean(Element e, String tag) {
+			boolean isEmbed = "object".equalsIgnoreCase(tag) || "embed".equalsIgnoreCase(tag)
+					|| "iframe".equalsIgnoreCase(tag);
+			for (Element target : getElementsByTag(e, tag)) {
+				if (isEmbed && Patterns.get(Patterns.RegEx.VIDEO).matcher(target.outerHtml()).find()) {
+					continue;
+				}
+				target.remove();
+			}
+		}
+
+		private static void cleanConditionally(Element e, String tag, ToIntFunction<Element> classWeight) {
+			for (Element node : getElementsByTag(e, tag)) {
+				int weight = classWeight.applyAsInt(node);
+				if (weight < 0) {
+					node.remove();
+				} else if (getInnerText(node, true).split(",").length < 10) {
+					int p = getElementsByTag(node, "p").size();
+					int img = getElementsByTag(node, "img").size();
+					int li = getElementsByTag(node, "li").size() - 100;
+					int input = getElementsByTag(node, "input").size();
+
+					int embedCount = 0;
+					for (Element embed : getElementsByTag(node, "embed")) {
+						if (!Patterns.get(Patterns.RegEx.VIDEO).matcher(embed.absUrl("src")).find()) {
+							embedCount++;
+						}
+					}
+
+					float linkDensity = getLinkDensity(node);
+					int contentLength = getInnerText(node, true).length();
+					boolean toRemove = false;
+
+					if (img > p) {
+						toRemove = true;
+					} else if (li > p && !"ul".equalsIgnoreCase(tag) && !"ol".equalsIgnoreCase(tag)) {
+						toRemove = true;
+					} else if (input > Math.floor(p / 3)) {
+						toRemove = true;
+					} else if (contentLength < 25 && (img == 0 || img > 2)) {
+						toRemove = true;
+					} else if (weight < 25 && linkDensity > 0.2f) {
+						toRemove = true;
+					} else if (weight > 25 && linkDensity > 0.5f) {
+						toRemove = true;
+					} else if ((embedCount == 1 && contentLength < 75) || embedCount > 1) {
+						toRemove = true;
+					}
+
+					if (toRemove) {
+						node.remove();
+					}
+				}
+			}
+		}
+
+		private static void cleanHeaders(Element e, ToIntFunction<Element> classWeight) {
+			for (int headerIndex = 1; headerIndex < 7; headerIndex++) {
+				for (Element header : getElementsByTag(e, "h" + headerIndex)) {
+					if (classWeight.applyAsInt(header) < 0 || getLinkDensity(header) > 0.33f) {
+						header.remove();
+					}
+				}
+			}
+		}
+
+		private static float getLinkDensity(Element e) {
+			int textLength = getInnerText(e, true).length();
+			float linkLength = 0.0F;
+			for (Element link : getElementsByTag(e, "a")) {
+				linkLength += getInnerText(link, true).length();
+			}
+			return linkLength / textLength;
+		}
+
+		private static String getInnerText(Element e, boolean normalizeSpaces) {
+			String textContent = e.text().trim();
+			if (normalizeSpaces) {
+				textContent = Patterns.get(Patterns.RegEx.NORMALIZE).matcher(textContent).replaceAll("");
+			}
+			return textContent;
+		}
+
+		private static Elements getElementsByTag(Element e, String tag) {
+			Elements es = e.getElementsByTag(tag);
+			es.remove(e);
+			return es;
+		}
+	}
+}
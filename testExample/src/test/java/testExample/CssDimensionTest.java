@@ -0,0 +1,106 @@
+package testExample;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * CssDimension 对 width/height 属性和 style 中各种写法的解析
+ */
+public class CssDimensionTest {
+
+	@Test
+	public void pixels() {
+		assertEquals(100, CssDimension.parse("100"));
+		assertEquals(100, CssDimension.parse("100px"));
+		assertEquals(100, CssDimension.parse("100PX"));
+		assertEquals(100, CssDimension.parse("100pX"));
+		assertEquals(0, CssDimension.parse("0"));
+	}
+
+	@Test
+	public void percent() {
+		assertEquals(CssDimension.PERCENT, CssDimension.parse("50%"));
+		assertEquals(CssDimension.PERCENT, CssDimension.parse("100.5%"));
+	}
+
+	@Test
+	public void emAndRemAre16Pixels() {
+		assertEquals(32, CssDimension.parse("2em"));
+		assertEquals(32, CssDimension.parse("2EM"));
+		assertEquals(48, CssDimension.parse("3rem"));
+		assertEquals(24, CssDimension.parse("1.5rem"));
+	}
+
+	@Test
+	public void decimalsAreTruncated() {
+		assertEquals(10, CssDimension.parse("10.9"));
+		assertEquals(10, CssDimension.parse("10.9px"));
+		assertEquals(10, CssDimension.parse("10."));
+		assertEquals(8, CssDimension.parse(".5em"));
+	}
+
+	@Test
+	public void autoAndUnknownAreNone() {
+		assertEquals(CssDimension.NONE, CssDimension.parse("auto"));
+		assertEquals(CssDimension.NONE, CssDimension.parse("AUTO"));
+		assertEquals(CssDimension.NONE, CssDimension.parse(""));
+		assertEquals(CssDimension.NONE, CssDimension.parse("   "));
+		assertEquals(CssDimension.NONE, CssDimension.parse("abc"));
+		assertEquals(CssDimension.NONE, CssDimension.parse("100abc"));
+		assertEquals(CssDimension.NONE, CssDimension.parse("100pt"));
+		assertEquals(CssDimension.NONE, CssDimension.parse("-5"));
+		assertEquals(CssDimension.NONE, CssDimension.parse("."));
+	}
+
+	@Test
+	public void whitespace() {
+		assertEquals(100, CssDimension.parse(" 100 "));
+		assertEquals(100, CssDimension.parse("\t100 px\n"));
+		assertEquals(CssDimension.PERCENT, CssDimension.parse(" 50 % "));
+	}
+
+	@Test
+	public void style() {
+		String style = "width:100px;height:50px;";
+		assertEquals(100, CssDimension.fromStyle(style, "width"));
+		assertEquals(50, CssDimension.fromStyle(style, "height"));
+		assertEquals(40, CssDimension.fromStyle("WIDTH : 40PX ; HEIGHT:\t30 px", "width"));
+		assertEquals(30, CssDimension.fromStyle("WIDTH : 40PX ; HEIGHT:\t30 px", "height"));
+		assertEquals(CssDimension.PERCENT, CssDimension.fromStyle("border:0; width: 80%;", "width"));
+		assertEquals(32, CssDimension.fromStyle("width:2em", "width"));
+	}
+
+	@Test
+	public void styleWithoutTrailingSemicolon() {
+		assertEquals(100, CssDimension.fromStyle("width:100px", "width"));
+		assertEquals(100, CssDimension.fromStyle("height:1px;width: 100 ", "width"));
+	}
+
+	@Test
+	public void styleImportant() {
+		assertEquals(100, CssDimension.fromStyle("width:100px!important;", "width"));
+		assertEquals(100, CssDimension.fromStyle("width: 100px !important", "width"));
+		assertEquals(CssDimension.PERCENT, CssDimension.fromStyle("width:50% !IMPORTANT;height:10px", "width"));
+	}
+
+	@Test
+	public void styleFirstParseableValueWins() {
+		/* 与原来的正则一样, max-width、border-width 也算 width, 先出现的有效 */
+		assertEquals(300, CssDimension.fromStyle("max-width:300px;width:100px", "width"));
+		assertEquals(100, CssDimension.fromStyle("width:100px;max-width:300px", "width"));
+		assertEquals(2, CssDimension.fromStyle("border-width:2px;width:300px", "width"));
+		assertEquals(200, CssDimension.fromStyle("width:auto;max-width:200px", "width"));
+		assertEquals(1, CssDimension.fromStyle("line-height:1.5;height:20px", "height"));
+	}
+
+	@Test
+	public void styleWithoutValueIsNone() {
+		assertEquals(CssDimension.NONE, CssDimension.fromStyle("", "width"));
+		assertEquals(CssDimension.NONE, CssDimension.fromStyle("width:", "width"));
+		assertEquals(CssDimension.NONE, CssDimension.fromStyle("width:;height:10px", "width"));
+		assertEquals(CssDimension.NONE, CssDimension.fromStyle("widths:10px", "width"));
+		assertEquals(CssDimension.NONE, CssDimension.fromStyle("width:auto", "width"));
+		assertEquals(CssDimension.NONE, CssDimension.fromStyle("height:10px", "width"));
+	}
+}
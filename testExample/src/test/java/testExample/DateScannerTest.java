@@ -0,0 +1,100 @@
+package testExample;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+import org.junit.Test;
+
+/**
+ * DateScanner 与原来每种格式各自 matcher.find() 扫描整个网页的结果对比
+ */
+public class DateScannerTest {
+
+	/**
+	 * 每种日期格式至少一个例子, 以及紧挨着数字、字母和汉字的情况
+	 */
+	private static final String SAMPLES = "发布于2019-06-19 10:30:15, 2019/6/19 2019_06_1 06/19/2019 19.06.2019 20190619 "
+			+ "x19-06-19x 6/19 a2019-06b 12019-06-19 2019-06-191 0619/2019 "
+			+ "2019年6月19日 10:30 2019年06月19日 ２０１９年０６月１９日 二〇一九年六月十九日 两千零一十九年 "
+			+ "19年6月19日 １９年６月１９日 一九年六月十九日 6月19日 ６月１９日 六月十九日 十二月三十一日 "
+			+ "2019年6月 ２０１９年６月 二〇一九年六月 2019年 ２０１９年 二〇一九年 0〇一九年 "
+			+ "10:30 June 19th, 2019 Updated: 23:59Jun 19, 2019 Jun 19, 2019 19 June 2019 1st Sept 19 "
+			+ "19-Jun-19 3rd,-May-2019 19 Jun 19 June 19, 10:30 PM May 1 9:05 AM 2019 June 19 2019,Dec 31st, "
+			+ "MAY 5 2019 may 5th 2019 JUNE19,2019";
+
+	@Test
+	public void scanMatchesFindOnTestPages() throws IOException {
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			assertScanMatchesFind(page.getKey(), page.getValue());
+		}
+	}
+
+	@Test
+	public void scanMatchesFindOnSamples() {
+		Set<Patterns.RegEx> found = assertScanMatchesFind("samples", SAMPLES);
+		/* 每种格式都被例子覆盖到, 开头字符的类别才算被检查过 */
+		assertEquals(EnumSet.copyOf(DateScanner.formats()), found);
+	}
+
+	@Test
+	public void scanMatchesFindAtEveryOffset() {
+		for (int i = 0; i < SAMPLES.length(); i++) {
+			assertScanMatchesFind("samples from " + i, SAMPLES.substring(i));
+		}
+	}
+
+	/**
+	 * @param name
+	 * @param html
+	 * @return 有匹配的格式
+	 */
+	private static Set<Patterns.RegEx> assertScanMatchesFind(String name, String html) {
+		Set<Patterns.RegEx> found = EnumSet.noneOf(Patterns.RegEx.class);
+		DateScanner scanner = DateScanner.of(html);
+		for (Patterns.RegEx format : DateScanner.formats()) {
+			List<MatchResult> expected = find(format, html);
+			List<MatchResult> actual = scanner.matches(format);
+			assertEquals(name + " " + format, describe(expected), describe(actual));
+			if (!expected.isEmpty()) {
+				found.add(format);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * 原来的做法: 每种格式扫描一遍整个网页
+	 */
+	private static List<MatchResult> find(Patterns.RegEx format, String html) {
+		List<MatchResult> matches = new ArrayList<MatchResult>();
+		Matcher m = Patterns.get(format).matcher(html);
+		while (m.find()) {
+			matches.add(m.toMatchResult());
+		}
+		return matches;
+	}
+
+	/**
+	 * 位置和所有分组
+	 */
+	private static List<String> describe(List<MatchResult> matches) {
+		List<String> described = new ArrayList<String>();
+		for (MatchResult m : matches) {
+			StringBuilder sb = new StringBuilder();
+			for (int g = 0; g <= m.groupCount(); g++) {
+				sb.append(g).append('[').append(m.start(g)).append(',').append(m.end(g)).append(")=").append(m.group(g))
+						.append(' ');
+			}
+			described.add(sb.toString());
+		}
+		return described;
+	}
+}
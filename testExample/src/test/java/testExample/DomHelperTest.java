@@ -0,0 +1,241 @@
+package testExample;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.junit.Test;
+
+public class DomHelperTest {
+
+	private static final Pattern DIV_TO_P = Patterns.get(Patterns.RegEx.DIV_TO_P_ELEMENTS);
+
+	/**
+	 * 手写的边界情况: 属性、注释、script/style 中的 '&lt;', 转义的文本, 大写标签, 多层嵌套
+	 */
+	private static final String[] DIV_CASES = {
+			"<div><div><span>text</span></div></div>",
+			"<div><span><a href='#'>link</a></span></div>",
+			"<div title='<p>'>text</div>",
+			"<div><span data-x='<IMG'>text</span></div>",
+			"<div><!-- <p>comment --></div>",
+			"<div><!-- <span> --></div>",
+			"<div><script>var s = '<div>';</script></div>",
+			"<div><style>/* <table> */</style></div>",
+			"<div>&lt;p&gt; escaped text</div>",
+			"<div><SPAN><IMG src=x></SPAN></div>",
+			"<div><div><div><div><pre>x</pre></div></div></div></div>",
+			"<div><textarea><p>raw</p></textarea></div>",
+			"<div><svg><![CDATA[<p>]]></svg></div>",
+			"<div><abbr>abbr</abbr><address>addr</address></div>",
+			"<div><br><hr></div><div></div>" };
+
+	/**
+	 * 连续的 &lt;br&gt; 和 &lt;font&gt;, 包括错误嵌套的格式化元素、块级元素和各种空白
+	 */
+	private static final String[] BR_CASES = {
+			"<p>a<br><br>b</p>",
+			"<p>a<br> <br>\n\t<br>b</p>",
+			"<p>a<br>\f<br>b</p>",
+			"<pre>a<br>\f<br>b</pre>",
+			"<pre>a<br> \n<br>b</pre>",
+			"<pre>a<br><br>\f b</pre>",
+			"<p>a<br><br>\f b</p>",
+			"<p>a<br><br><![CDATA[ ]]><br>b</p>",
+			"<div><pre><b>a<br>\f</b></pre><br>b</div>",
+			"<textarea>a<br>\f<br>b</textarea>",
+			"<p>a<br>\u000B<br>b</p>",
+			"<p>a<br>&nbsp;<br>b</p>",
+			"<p>a<br/><br class=x>b</p>",
+			"<div>a<br><br>b<span>c</span><div>d</div>e</div>",
+			"<div>a<br><br></div>",
+			"<p><b>a<br><br>b</b>c</p>",
+			"<p><i><b>x<br> <br>y</b></i>z</p>",
+			"<b>a<br><br>b</b>",
+			"<div><a href=x>1<br><br>2</a></div>",
+			"<div><span>a<br><br>b</span>c</div>",
+			"<p><span>a<br><br>b</span><div>c</div></p>",
+			"<div>a<br><br>b<span>c<div>d</div></span></div>",
+			"<p><b>a<br><br><!-- c -->b</b></p>",
+			"<p><b>a</b><br><br><!-- c -->b</p>",
+			"<p><b><i>a<br><br></i></b></p>",
+			"<ul><li>a<br><br>b</li><li>c</li></ul>",
+			"<table><tr><td>a<br><br>b</td></tr></table>",
+			"<h1>a<br><br>b</h1>",
+			"<button>a<br><br>b</button>",
+			"<font color=red>a<br><br>b</font>",
+			"<p><font face=x>a<br><br>b</font></p>",
+			"<div><font>a</font><br><br><font>b</font></div>",
+			"<p>a<br><br>b<br><br>c<br>d</p>",
+			"<blockquote>a<br><br>b</blockquote>" };
+
+	/**
+	 * prepArticle 中 killBreaks 的输入: class 为 p 的 div 先改成 p, 同 grabArticle 中的 div 改 p
+	 */
+	private static final String[] KILL_BREAKS_CASES = {
+			"<div>a<br> <br>&nbsp;b</div>",
+			"<div>a<br>&nbsp &nbsp;<br>b</div>",
+			"<div>a<br class=x><br>b</div>",
+			"<div>a<br>\f\u000B b</div>",
+			"<div class=p>a<div>b</div>c</div>",
+			"<div class=p>a<span>b<div>c</div></span>d</div>",
+			"<div class=p><b>a<div>b</div></b></div>",
+			"<div class=p>a<ul><li>b</li></ul>c</div>",
+			"<div class=p>a<table><tr><td>b<div>c</div></td></tr></table></div>",
+			"<div class=p>a<span>b<table><tr><td>c</td></tr></table></span>d</div>",
+			"<div class=p><b>a<object><div>b</div></object></b></div>",
+			"<div class=p>a<br>\f<br>b<table><tr><td>c</td></tr></table></div>",
+			"<h2>a<h3>b</h3>c</h2>",
+			"<div><div class=p>a<p>b</p></div></div>",
+			"<div class=p>a<li>b</li></div>",
+			"<div class=p><button><div>a</div></button></div>" };
+
+	@Test
+	public void replaceBrsAndFontsMatchesReparseOnTestPages() throws IOException {
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			Document expected = prepared(page.getValue());
+			Document actual = prepared(page.getValue());
+			replaceBrsAndFontsByReparse(expected.body());
+			DomHelper.replaceBrsAndFonts(actual.body());
+			assertSameTree(page.getKey(), expected.body(), actual.body());
+		}
+	}
+
+	@Test
+	public void replaceBrsAndFontsMatchesReparseOnEdgeCases() {
+		for (String html : BR_CASES) {
+			Document expected = Jsoup.parse(html);
+			Document actual = Jsoup.parse(html);
+			replaceBrsAndFontsByReparse(expected.body());
+			DomHelper.replaceBrsAndFonts(actual.body());
+			assertSameTree(html, expected.body(), actual.body());
+		}
+	}
+
+	@Test
+	public void killBreaksMatchesReparseOnTestPages() throws IOException {
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			Document expected = prepared(page.getValue());
+			Document actual = prepared(page.getValue());
+			killBreaksByReparse(expected.body());
+			DomHelper.killBreaks(actual.body());
+			assertSameTree(page.getKey(), expected.body(), actual.body());
+		}
+	}
+
+	@Test
+	public void killBreaksMatchesReparseOnEdgeCases() {
+		for (String html : KILL_BREAKS_CASES) {
+			Document expected = divsToParagraphs(Jsoup.parse(html));
+			Document actual = divsToParagraphs(Jsoup.parse(html));
+			killBreaksByReparse(expected.body());
+			DomHelper.killBreaks(actual.body());
+			assertSameTree(html, expected.body(), actual.body());
+		}
+	}
+
+	@Test
+	public void findDivsWithBlocksMatchesRegexOnTestPages() throws IOException {
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			assertDivsMatchRegex(page.getKey(), Jsoup.parse(page.getValue()));
+		}
+	}
+
+	@Test
+	public void findDivsWithBlocksMatchesRegexOnEdgeCases() {
+		for (String html : DIV_CASES) {
+			assertDivsMatchRegex(html, Jsoup.parse(html));
+		}
+	}
+
+	private static void assertDivsMatchRegex(String name, Document doc) {
+		Set<Element> divs = DomHelper.findDivsWithBlocks(doc, Patterns.RegEx.DIV_TO_P_ELEMENTS);
+		for (Element div : doc.getElementsByTag("div")) {
+			assertEquals(name + ": " + div.outerHtml(), DIV_TO_P.matcher(div.html()).find(), divs.contains(div));
+		}
+	}
+
+	/**
+	 * 原来的做法: 序列化, 正则替换, 重新解析
+	 */
+	private static void replaceBrsAndFontsByReparse(Element body) {
+		String html = Patterns.get(Patterns.RegEx.REPLACE_BRS).matcher(body.html()).replaceAll("</p><p>");
+		body.html(Patterns.get(Patterns.RegEx.REPLACE_FONTS).matcher(html).replaceAll("<$1span>"));
+	}
+
+	private static void killBreaksByReparse(Element e) {
+		e.html(Patterns.get(Patterns.RegEx.KILL_BREAKS).matcher(e.html()).replaceAll("<br />"));
+	}
+
+	/**
+	 * 同 prepDocument, 先删除 script、style
+	 */
+	private static Document prepared(String html) {
+		Document doc = Jsoup.parse(html);
+		doc.getElementsByTag("script").remove();
+		doc.getElementsByTag("style").remove();
+		return doc;
+	}
+
+	private static Document divsToParagraphs(Document doc) {
+		for (Element div : doc.select("div.p")) {
+			div.tagName("p");
+			div.removeAttr("class");
+		}
+		return doc;
+	}
+
+	/**
+	 * 比较两棵树: 标签、属性、注释和文本一致; 重新解析时美化输出的缩进不算差别: 文本中连续的空白算一个, 并去掉首尾的空白,
+	 * pre、textarea 中的文本按原样比较
+	 */
+	private static void assertSameTree(String name, Element expected, Element actual) {
+		assertEquals(name, canonical(expected), canonical(actual));
+	}
+
+	private static String canonical(Element root) {
+		StringBuilder sb = new StringBuilder();
+		appendCanonical(sb, root);
+		return sb.toString();
+	}
+
+	private static void appendCanonical(StringBuilder sb, Element e) {
+		sb.append('<').append(e.normalName()).append(e.attributes().html()).append('>');
+		boolean preserve = DomHelper.preserveWhitespace(e);
+		StringBuilder text = new StringBuilder();
+		for (Node child : e.childNodes()) {
+			if (child instanceof TextNode) {
+				text.append(((TextNode) child).getWholeText());
+				continue;
+			}
+			appendText(sb, text, preserve);
+			if (child instanceof Element) {
+				appendCanonical(sb, (Element) child);
+			} else if (child instanceof Comment) {
+				sb.append("<!--").append(((Comment) child).getData()).append("-->");
+			} else if (child instanceof DataNode) {
+				sb.append(((DataNode) child).getWholeData());
+			}
+		}
+		appendText(sb, text, preserve);
+		sb.append("</").append(e.normalName()).append('>');
+	}
+
+	private static void appendText(StringBuilder sb, StringBuilder text, boolean preserve) {
+		String s = preserve ? text.toString() : text.toString().replaceAll("[ \t\n\r\f]+", " ").trim();
+		if (s.length() != 0) {
+			sb.append('"').append(s).append('"');
+		}
+		text.setLength(0);
+	}
+}
@@ -0,0 +1,85 @@
+package testExample;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+/**
+ * KeywordClassifier 的每一位与 Patterns.find 对应正则的结果对比
+ */
+public class KeywordClassifierTest {
+
+	private static final Patterns.RegEx[] CATEGORIES = { Patterns.RegEx.UNLIKELY_CANDIDATES,
+			Patterns.RegEx.OK_MAYBE_ITS_A_CANDIDATE, Patterns.RegEx.POSITIVE, Patterns.RegEx.NEGATIVE,
+			Patterns.RegEx.IMG_ARTICLE_UNLIKELY_CANDIDATES, Patterns.RegEx.IMG_ARTICLE_POSITIVE,
+			Patterns.RegEx.IMG_ARTICLE_NEGATIVE, Patterns.RegEx.POSITIVE_IMG, Patterns.RegEx.NEGATIVE_IMG,
+			Patterns.RegEx.REMOVE_IMG };
+
+	/**
+	 * 大小写混合、关键词互相包含或重叠、^[a-zA-Z] 开头的关键词、非ASCII字符
+	 */
+	private static final String[] CASES = { "", " ", "Comment", "COMMENTS", "cOmMeNt-list", "footer", "FootNote",
+			"sidebarFooter", "articleBody", "main-content", "headerfoot", "comcombx", "metameta", "shoutboxx",
+			"pagination", "uppage", "image-container", "imagecontainer", "Xads", "xADS", "1ads", "ads", "nav-ads",
+			"-ADS", "ad1ad2", "advertisement", "FaceBook_share", "flashplayer", "logo icon", "scanner", "widgets",
+			"related-posts", "promo_links", "正文comment", "新闻ARTICLE内容", "Komment", "İcon", "cOntact us",
+			"and", "Android", "column main", "tags tag", "displaynone", "hentry entry" };
+
+	@Test
+	public void classifyMatchesRegexOnTestPages() throws IOException {
+		Set<String> inputs = new LinkedHashSet<String>();
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			for (Element e : Jsoup.parse(page.getValue()).getAllElements()) {
+				String className = e.className();
+				String id = e.id();
+				inputs.add(className);
+				inputs.add(id);
+				inputs.add(className + id);
+				inputs.add(className + " " + id);
+				inputs.add(e.attr("src"));
+				inputs.add(e.attr("alt"));
+			}
+		}
+		for (String input : inputs) {
+			assertClassifyMatchesRegex(input);
+		}
+	}
+
+	@Test
+	public void classifyMatchesRegexOnEdgeCases() {
+		for (String input : CASES) {
+			assertClassifyMatchesRegex(input);
+			assertClassifyMatchesRegex(input.toUpperCase());
+			assertClassifyMatchesRegex(" " + input);
+			assertClassifyMatchesRegex(input + input);
+		}
+	}
+
+	@Test
+	public void nullMatchesNothing() {
+		int matched = KeywordClassifier.classify(null);
+		for (Patterns.RegEx re : CATEGORIES) {
+			assertEquals(re.name(), false, KeywordClassifier.has(matched, re));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void otherRegexIsRejected() {
+		KeywordClassifier.has(KeywordClassifier.classify("display:none"), Patterns.RegEx.IMG_UNLIKELY_CANDIDATES);
+	}
+
+	private static void assertClassifyMatchesRegex(String input) {
+		int matched = KeywordClassifier.classify(input);
+		for (Patterns.RegEx re : CATEGORIES) {
+			assertEquals(re.name() + " on \"" + input + "\"", Patterns.find(re, input),
+					KeywordClassifier.has(matched, re));
+		}
+	}
+}
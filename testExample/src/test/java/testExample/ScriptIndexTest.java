@@ -0,0 +1,135 @@
+package testExample;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * ScriptIndex 的区间: 大小写、没有结束的区间、style、注释和区间边界
+ */
+public class ScriptIndexTest {
+
+	@Test
+	public void mixedCaseTags() {
+		String html = "<p>a</p><SCRIPT type=x>var d = '2019-01-01';</Script><p>b</p>";
+		ScriptIndex index = ScriptIndex.of(html);
+		assertTrue(index.contains(html.indexOf("2019")));
+		assertFalse(index.contains(html.indexOf("<p>b")));
+		assertFalse(index.contains(html.indexOf("a</p>")));
+	}
+
+	@Test
+	public void styleAndComment() {
+		String html = "<style>.d{}</style>X<!-- 2019-01-01 -->Y<sTyLe\n>p{}</STYLE >Z";
+		ScriptIndex index = ScriptIndex.of(html);
+		assertTrue(index.contains(html.indexOf(".d")));
+		assertTrue(index.contains(html.indexOf("2019")));
+		assertTrue(index.contains(html.indexOf("p{}")));
+		assertFalse(index.contains(html.indexOf('X')));
+		assertFalse(index.contains(html.indexOf('Y')));
+		assertFalse(index.contains(html.indexOf('Z')));
+	}
+
+	@Test
+	public void tagNameMustEnd() {
+		String html = "<scripts>2019</scripts><styled>2019</styled><script/>x</script>";
+		ScriptIndex index = ScriptIndex.of(html);
+		assertFalse(index.contains(html.indexOf("2019")));
+		assertFalse(index.contains(html.lastIndexOf("2019")));
+		assertTrue(index.contains(html.indexOf('x')));
+	}
+
+	@Test
+	public void unterminatedScriptIsNotARegion() {
+		/* 与原来的 isInScript 一样, 后面没有结束标签时不算在脚本中 */
+		String html = "<p>a</p><script>var d = '2019-01-01';<!-- b --><p>c";
+		ScriptIndex index = ScriptIndex.of(html);
+		assertFalse(index.contains(html.indexOf("2019")));
+		assertFalse(index.contains(html.length() - 1));
+		/* 之后完整的注释仍然被索引 */
+		assertTrue(index.contains(html.indexOf(" b ")));
+	}
+
+	@Test
+	public void unterminatedCommentIsNotARegion() {
+		String html = "<p>a</p><!-- 2019-01-01 <script>x</script><p>c";
+		ScriptIndex index = ScriptIndex.of(html);
+		assertFalse(index.contains(html.indexOf("2019")));
+		assertTrue(index.contains(html.indexOf("x</script>")));
+		assertFalse(index.contains(html.length() - 1));
+	}
+
+	@Test
+	public void endTagWithoutCloseRunsToEndOfPage() {
+		String html = "<p>a</p><script>x</script";
+		ScriptIndex index = ScriptIndex.of(html);
+		assertTrue(index.contains(html.indexOf('x')));
+		assertTrue(index.contains(html.length() - 1));
+		assertFalse(index.contains(html.length()));
+	}
+
+	@Test
+	public void scriptContentIsNotScanned() {
+		/* script 中的 <!-- 和 <style> 不是新的区间, 区间在第一个 </script 处结束 */
+		String html = "<script>if (a <!--b) s = '<style>';</script>x<!-- c -->";
+		ScriptIndex index = ScriptIndex.of(html);
+		assertTrue(index.contains(html.indexOf("<style>")));
+		assertFalse(index.contains(html.indexOf('x')));
+		assertTrue(index.contains(html.indexOf(" c ")));
+	}
+
+	@Test
+	public void regionBoundaries() {
+		String html = "ab<script>x</script><style>y</style>c<!---->d";
+		ScriptIndex index = ScriptIndex.of(html);
+		int scriptStart = html.indexOf("<script>");
+		int styleStart = html.indexOf("<style>");
+		int styleEnd = html.indexOf("</style>") + "</style>".length();
+		int commentStart = html.indexOf("<!---->");
+		int commentEnd = commentStart + "<!---->".length();
+
+		assertFalse(index.contains(0));
+		assertFalse(index.contains(scriptStart - 1));
+		assertTrue(index.contains(scriptStart));
+		/* 相邻的区间: script 的结束位置就是 style 的起点 */
+		assertTrue(index.contains(styleStart - 1));
+		assertTrue(index.contains(styleStart));
+		assertTrue(index.contains(styleEnd - 1));
+		assertFalse(index.contains(styleEnd));
+		assertTrue(index.contains(commentStart));
+		assertTrue(index.contains(commentEnd - 1));
+		assertFalse(index.contains(commentEnd));
+		assertFalse(index.contains(html.length() - 1));
+		assertFalse(index.contains(html.length()));
+	}
+
+	@Test
+	public void noRegions() {
+		assertFalse(ScriptIndex.of("").contains(0));
+		ScriptIndex index = ScriptIndex.of("<p>2019-01-01</p><");
+		for (int i = 0; i <= 18; i++) {
+			assertFalse(index.contains(i));
+		}
+	}
+
+	@Test
+	public void manyRegions() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append("<p>T</p><script>S</script>");
+		}
+		String html = sb.toString();
+		ScriptIndex index = ScriptIndex.of(html);
+		int inside = 0;
+		for (int i = 0; i < html.length(); i++) {
+			if (index.contains(i)) {
+				inside++;
+			}
+		}
+		assertEquals(100 * "<script>S</script>".length(), inside);
+		assertTrue(index.contains(html.lastIndexOf('S')));
+		assertFalse(index.contains(html.lastIndexOf('T')));
+	}
+}
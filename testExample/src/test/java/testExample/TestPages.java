@@ -0,0 +1,44 @@
+package testExample;
+
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * 测试用的网页: test/ 目录下所有的HTML文件(按文件名排序), 测试从模块目录运行
+ *
+ */
+final class TestPages {
+
+	static final String DIR = "test";
+
+	private TestPages() {
+	}
+
+	/**
+	 * @return 文件名 -> 网页内容, 至少有一个
+	 * @throws IOException
+	 */
+	static Map<String, String> load() throws IOException {
+		File[] files = new File(DIR).listFiles();
+		Map<String, String> pages = new LinkedHashMap<String, String>();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				String html = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+				if (html.toLowerCase().contains("<html")) {
+					pages.put(file.getName(), html);
+				}
+			}
+		}
+		assertFalse("no html pages under " + new File(DIR).getAbsolutePath(), pages.isEmpty());
+		return pages;
+	}
+}
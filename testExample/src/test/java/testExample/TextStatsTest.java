@@ -0,0 +1,94 @@
+package testExample;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+/**
+ * TextStats 与原来每次用 text()、getElementsByTag 直接计算的结果对比
+ */
+public class TextStatsTest {
+
+	/**
+	 * 空白、逗号、保留空白的元素、CDATA 和链接的各种组合
+	 */
+	private static final String[] CASES = {
+			"<div><p>a, b, c</p><p> ,,, </p><p>,</p><p>a,,</p><p>，a，，b,</p></div>",
+			"<div>  a  \n\t b \u000B\u000B c 　　 d  e  </div>",
+			"<div><pre>  a \n\n b  </pre>x<textarea> , , </textarea><pre><b>  c  </b></pre></div>",
+			"<div><svg><![CDATA[  a,  b ]]></svg> c</div>",
+			"<div>a<br>b<br/><br>c<span>d</span><p>e</p>f<div>g</div></div>",
+			"<div><a href=x> link , text </a> more <a>  </a><p><a>x<b>y</b></a></p></div>",
+			"<table><tr><td>a</td><td>b,</td></tr><tr><td><a>c</a></td></tr></table>",
+			"<ul><li>a</li><li> <a>b</a> </li></ul><ol><li>,,</li></ol>",
+			"<div><img src=x><input value=y><p></p>  </div>",
+			"<div>a<!-- , comment , -->b<p>c</p>   <p>d</p></div>" };
+
+	@Test
+	public void statsMatchTextOnTestPages() throws IOException {
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			Document doc = Jsoup.parse(page.getValue());
+			assertStatsMatchText(page.getKey(), doc, TextStats.of(doc));
+		}
+	}
+
+	@Test
+	public void statsMatchTextOnEdgeCases() {
+		for (String html : CASES) {
+			Document doc = Jsoup.parse(html);
+			assertStatsMatchText(html, doc, TextStats.of(doc));
+		}
+	}
+
+	@Test
+	public void statsMatchTextAfterRemovals() throws IOException {
+		for (Map.Entry<String, String> page : TestPages.load().entrySet()) {
+			Document doc = Jsoup.parse(page.getValue());
+			TextStats stats = TextStats.of(doc);
+			List<Element> elements = new ArrayList<Element>(doc.body().getAllElements());
+			for (int i = elements.size() - 1; i > 0; i -= 7) {
+				Element e = elements.get(i);
+				if (e.parent() != null) {
+					stats.invalidateAncestors(e);
+					e.remove();
+				}
+			}
+			assertStatsMatchText(page.getKey(), doc, stats);
+		}
+	}
+
+	private static void assertStatsMatchText(String name, Element root, TextStats stats) {
+		for (Element e : root.getAllElements()) {
+			String where = name + " " + e.cssSelector();
+			String text = e.text().trim();
+			String normalized = Patterns.get(Patterns.RegEx.NORMALIZE).matcher(text).replaceAll("");
+			assertEquals(where, text.length(), stats.length(e));
+			assertEquals(where, normalized.length(), stats.normalizedLength(e));
+			assertEquals(where, Patterns.get(Patterns.RegEx.COMMAS).split(normalized).length, stats.commaSegments(e));
+			assertEquals(where, normalized.split(",").length, stats.asciiCommaSegments(e));
+			assertEquals(where, linkLength(e), stats.linkLength(e));
+		}
+	}
+
+	/**
+	 * 原来的做法: getElementsByTag 再去掉 e 自己, 逐个计算链接文本
+	 */
+	private static int linkLength(Element e) {
+		int linkLength = 0;
+		for (Element link : e.getElementsByTag("a")) {
+			if (link != e) {
+				String text = link.text().trim();
+				linkLength += Patterns.get(Patterns.RegEx.NORMALIZE).matcher(text).replaceAll("").length();
+			}
+		}
+		return linkLength;
+	}
+}